@@ -1,16 +1,80 @@
+import boundaries.HttpApi;
 import boundaries.UserView;
+import controllers.ProjectVisibilityScheduler;
 import controllers.UserCTRL;
 import entity.interfaces.IApplicantRepository;
-import entity.repositories.ApplicantCSVRepository;
+import entity.repositories.DataStore;
+import java.io.IOException;
 import java.util.Scanner;
 
 public class Main {
 
     // This `main` method is the entry point of the Java program. Here's a breakdown
     // of what it does:
+    //
+    // Options:
+    //   --http[=port]  serve the HTTP API (boundaries.HttpApi) instead of the console menus, on
+    //                  port 8080 by default, until the process is stopped
+    //   --no-console   same as --http
+    //
+    // The console menus change the shared data without the locks the HTTP API relies on,
+    // so the two never run in the same process.
     public static void main(String[] args) {
+        int httpPort = -1;
+        boolean console = true;
+        for (String arg : args) {
+            if (arg.equals("--http")) {
+                httpPort = HttpApi.DEFAULT_PORT;
+            } else if (arg.startsWith("--http=")) {
+                try {
+                    httpPort = Integer.parseInt(arg.substring("--http=".length()));
+                } catch (NumberFormatException e) {
+                    System.out.println("Invalid port: " + arg);
+                    return;
+                }
+            } else if (arg.equals("--no-console")) {
+                console = false;
+            } else {
+                System.out.println("Unknown option: " + arg);
+                return;
+            }
+        }
+        if (!console && httpPort < 0) {
+            httpPort = HttpApi.DEFAULT_PORT;
+        }
+        if (httpPort >= 0) {
+            console = false;
+        }
+
+        // Hide and show projects as their application periods open and close
+        ProjectVisibilityScheduler visibility = ProjectVisibilityScheduler.getInstance();
+        visibility.start();
+
+        HttpApi api = null;
+        if (httpPort >= 0) {
+            try {
+                api = HttpApi.start(httpPort);
+                System.out.println("HTTP API listening on port " + api.getPort());
+            } catch (IOException e) {
+                System.out.println("Could not start the HTTP API on port " + httpPort + ": " + e.getMessage());
+                visibility.stop();
+                DataStore.getInstance().close();
+                return;
+            }
+        }
+        if (!console) {
+            // The server's threads keep the program running; save and release on shutdown.
+            HttpApi server = api;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                server.stop();
+                visibility.stop();
+                DataStore.getInstance().close();
+            }));
+            return;
+        }
+
         try (Scanner sc = new Scanner(System.in)) {
-            IApplicantRepository repo = new ApplicantCSVRepository();
+            IApplicantRepository repo = DataStore.getInstance().getApplicantRepository();
             UserCTRL userCTRL = new UserCTRL(repo);
             UserView userView = new UserView(); // Create a UserView instance
             userCTRL.loadUserData();
@@ -46,6 +110,12 @@ public class Main {
                     default -> System.out.println("Invalid choice, please try again.");
                 }
             }
+        } finally {
+            if (api != null) {
+                api.stop();
+            }
+            visibility.stop();
+            DataStore.getInstance().close();
         }
     }
 }
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import tools.DatasetGenerator;
+
+/**
+ * Makes {@code ./assets}, where the repositories read, hold the data set of a
+ * given size written by {@link DatasetGenerator}.
+ * <p>
+ * {@code rows} is the number of users; there is one BTO application per
+ * applicant and one enquiry per user, and one project per thousand rows (at
+ * least ten), so per-project lists grow with the size as they would in
+ * production.
+ * </p>
+ */
+final class BenchmarkData {
+
+    /** Marks an {@code assets} directory as generated, and records its size. */
+    private static final Path MARKER = Paths.get("assets", ".benchmark");
+    static final String PASSWORD = DatasetGenerator.PASSWORD;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Makes {@code ./assets} hold the data set for {@code rows}, generating it
+     * unless it is already there.
+     *
+     * @param rows Size of the data set.
+     * @return Description of the generated data.
+     */
+    static DatasetGenerator prepare(int rows) {
+        DatasetGenerator data = new DatasetGenerator(rows, DatasetGenerator.DEFAULT_SEED);
+        try {
+            if (new File("assets/userList.csv").exists() && !Files.exists(MARKER)) {
+                throw new IllegalStateException("./assets holds real data; run the benchmarks from an empty directory");
+            }
+            if (Files.exists(MARKER) && Files.readString(MARKER).trim().equals(String.valueOf(rows))) {
+                return data;
+            }
+            data.writeTo(MARKER.getParent());
+            Files.writeString(MARKER, String.valueOf(rows));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return data;
+    }
+
+    /**
+     * Marks the generated files as modified, so the next {@link #prepare(int)}
+     * writes them again.
+     */
+    static void invalidate() {
+        try {
+            Files.writeString(MARKER, "modified");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package benchmarks;
+
+import controllers.BTOApplicationCTRL;
+import controllers.BTOProjectCTRL;
+import controllers.EnquiryCTRL;
+import controllers.OfficerApplicationCTRL;
+import controllers.UserCTRL;
+import entity.BTOApplication;
+import entity.BTOProject;
+import entity.Enquiry;
+import entity.User;
+import entity.repositories.DataStore;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.DatasetGenerator;
+
+/**
+ * Controller queries behind the menus, on data already loaded into the
+ * {@link DataStore}. Each size runs in its own forked JVM, so the store holds
+ * exactly one data set.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerBenchmarks {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int rows;
+
+    private UserCTRL userCTRL;
+    private String lastApplicantNRIC;
+    private User applicant;
+    private BTOProjectCTRL projectCTRL;
+    private BTOApplicationCTRL managerApplicationCTRL;
+    private OfficerApplicationCTRL officerApplicationCTRL;
+    private EnquiryCTRL managerEnquiryCTRL;
+    private List<BTOProject> projects;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DatasetGenerator data = BenchmarkData.prepare(rows);
+        userCTRL = new UserCTRL();
+        userCTRL.loadUserData();
+        // The last user in the file: the worst case for a scan.
+        lastApplicantNRIC = DatasetGenerator.nric(rows - 1);
+        applicant = userCTRL.getUserByNRIC(lastApplicantNRIC);
+        User manager = userCTRL.getUserByNRIC(data.managerNRIC(0));
+        User officer = userCTRL.getUserByNRIC(data.officerNRIC(0));
+
+        projectCTRL = new BTOProjectCTRL(applicant);
+        managerApplicationCTRL = new BTOApplicationCTRL(manager);
+        officerApplicationCTRL = new OfficerApplicationCTRL(officer);
+        managerEnquiryCTRL = new EnquiryCTRL(manager);
+        projects = DataStore.getInstance().getProjects();
+    }
+
+    @Benchmark
+    public boolean login() {
+        return userCTRL.login(lastApplicantNRIC, BenchmarkData.PASSWORD);
+    }
+
+    @Benchmark
+    public List<BTOProject> getFilteredProjectsForUser() {
+        return projectCTRL.getFilteredProjectsForUser(applicant);
+    }
+
+    @Benchmark
+    public List<BTOApplication> generateReport() {
+        return managerApplicationCTRL.generateReport(null, null, null, null, null, projects, userCTRL);
+    }
+
+    @Benchmark
+    public List<BTOProject> getEligibleOfficerProjects() {
+        return officerApplicationCTRL.getEligibleOfficerProjects();
+    }
+
+    @Benchmark
+    public List<Enquiry> getFilteredEnquiriesByManager() {
+        return managerEnquiryCTRL.getFilteredEnquiriesByManager(projects);
+    }
+}
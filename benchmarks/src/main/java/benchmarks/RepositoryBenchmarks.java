@@ -0,0 +1,195 @@
+package benchmarks;
+
+import entity.BTOApplication;
+import entity.BTOProject;
+import entity.Enquiry;
+import entity.OfficerApplication;
+import entity.Receipt;
+import entity.User;
+import entity.enumerations.RegistrationStatus;
+import entity.repositories.ApplicationCSVRepository;
+import entity.repositories.BTOProjectCSVRepository;
+import entity.repositories.EnquiryCSVRepository;
+import entity.repositories.OfficerApplicationCSVRepository;
+import entity.repositories.ReceiptCSVRepository;
+import entity.repositories.UserCSVRepository;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Reads and writes of every CSV repository.
+ * <p>
+ * Each {@code save*} path is measured twice: with one entity changed per call
+ * (the incremental rewrite) and with every entity changed (a full rewrite).
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmarks {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    public int rows;
+
+    private final UserCSVRepository userRepo = new UserCSVRepository();
+    private final BTOProjectCSVRepository projectRepo = new BTOProjectCSVRepository();
+    private final ApplicationCSVRepository applicationRepo = new ApplicationCSVRepository();
+    private final OfficerApplicationCSVRepository officerApplicationRepo = new OfficerApplicationCSVRepository();
+    private final EnquiryCSVRepository enquiryRepo = new EnquiryCSVRepository();
+    private final ReceiptCSVRepository receiptRepo = new ReceiptCSVRepository();
+
+    private List<User> users;
+    private List<BTOProject> projects;
+    private List<BTOApplication> applications;
+    private List<OfficerApplication> officerApplications;
+    private List<Enquiry> enquiries;
+    private Receipt receipt;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.prepare(rows);
+        users = userRepo.loadUsers();
+        projects = projectRepo.loadProjects();
+        applications = applicationRepo.loadApplications();
+        officerApplications = officerApplicationRepo.loadOfficerApplications();
+        enquiries = enquiryRepo.loadEnquiries();
+        receipt = receiptRepo.loadReceipts().get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        // The saves changed the files; generate them afresh for the next run.
+        BenchmarkData.invalidate();
+    }
+
+    // ---- users ----
+
+    @Benchmark
+    public List<User> loadUsers() {
+        return userRepo.loadUsers();
+    }
+
+    @Benchmark
+    public void saveUsersOneChanged() {
+        toggle(users.get(next++ % users.size()));
+        userRepo.saveUsers(users);
+    }
+
+    @Benchmark
+    public void saveUsersAllChanged() {
+        users.forEach(RepositoryBenchmarks::toggle);
+        userRepo.saveUsers(users);
+    }
+
+    private static void toggle(User u) {
+        u.setPassword(u.getPassword().equals(BenchmarkData.PASSWORD) ? "changed" : BenchmarkData.PASSWORD);
+    }
+
+    // ---- projects ----
+
+    @Benchmark
+    public List<BTOProject> loadProjects() {
+        return projectRepo.loadProjects();
+    }
+
+    @Benchmark
+    public void saveProjectsOneChanged() {
+        BTOProject p = projects.get(next++ % projects.size());
+        p.setVisibility(!p.isVisibility());
+        projectRepo.saveProjects(projects);
+    }
+
+    @Benchmark
+    public void saveProjectsAllChanged() {
+        projects.forEach(p -> p.setVisibility(!p.isVisibility()));
+        projectRepo.saveProjects(projects);
+    }
+
+    // ---- BTO applications ----
+
+    @Benchmark
+    public List<BTOApplication> loadApplications() {
+        return applicationRepo.loadApplications();
+    }
+
+    @Benchmark
+    public void saveApplications() {
+        applicationRepo.saveApplications(applications);
+    }
+
+    // ---- officer applications ----
+
+    @Benchmark
+    public List<OfficerApplication> loadOfficerApplications() {
+        return officerApplicationRepo.loadOfficerApplications();
+    }
+
+    @Benchmark
+    public void saveOfficerApplicationsOneChanged() {
+        toggle(officerApplications.get(next++ % officerApplications.size()));
+        officerApplicationRepo.saveOfficerApplications(officerApplications);
+    }
+
+    @Benchmark
+    public void saveOfficerApplicationsAllChanged() {
+        officerApplications.forEach(RepositoryBenchmarks::toggle);
+        officerApplicationRepo.saveOfficerApplications(officerApplications);
+    }
+
+    private static void toggle(OfficerApplication a) {
+        a.setStatus(a.getStatus() == RegistrationStatus.PENDING ? RegistrationStatus.REJECTED
+                : RegistrationStatus.PENDING);
+    }
+
+    // ---- enquiries ----
+
+    @Benchmark
+    public List<Enquiry> loadEnquiries() {
+        return enquiryRepo.loadEnquiries();
+    }
+
+    @Benchmark
+    public void saveEnquiriesOneChanged() {
+        toggle(enquiries.get(next++ % enquiries.size()));
+        enquiryRepo.saveEnquiries(enquiries);
+    }
+
+    @Benchmark
+    public void saveEnquiriesAllChanged() {
+        enquiries.forEach(RepositoryBenchmarks::toggle);
+        enquiryRepo.saveEnquiries(enquiries);
+    }
+
+    private static void toggle(Enquiry e) {
+        e.setResponse(e.getResponse().isEmpty() ? "Yes." : "");
+    }
+
+    // ---- receipts ----
+
+    @Benchmark
+    public List<Receipt> loadReceipts() {
+        return receiptRepo.loadReceipts();
+    }
+
+    @Benchmark
+    public void saveReceipt() {
+        receiptRepo.saveReceipt(receipt);
+    }
+}
@@ -1,11 +1,18 @@
 package boundaries;
 
+import controllers.BTOApplicationCTRL;
+import entity.ApplicantReport;
 import entity.BTOApplication;
+import entity.BatchOutcome;
 import entity.BTOProject;
+import entity.ProjectStats;
 import entity.User;
 import entity.enumerations.ApplicationStatus;
 import entity.enumerations.ApplicationType;
+import entity.enumerations.FlatType;
 import entity.enumerations.MaritalState;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
@@ -39,7 +46,8 @@ public class BTOApplicationView {
         System.out.println("1. Display All My Applications");
         System.out.println("2. Withdraw my application");
         System.out.println("3. Booking for successful applicant");
-        System.out.println("4. Back");
+        System.out.println("4. Bulk booking for successful applicants");
+        System.out.println("5. Back");
         System.out.print("Select an option: ");
     }
 
@@ -52,7 +60,9 @@ public class BTOApplicationView {
         System.out.println("2. Approval / Rejection for Application");
         System.out.println("3. Approval for Withdrawal");
         System.out.println("4. Generate / Filter report of all APPLICANTS under projects handled by you");
-        System.out.println("5. Back");
+        System.out.println("5. Batch Approval / Rejection of Applications");
+        System.out.println("6. Project Statistics");
+        System.out.println("7. Back");
         System.out.print("Select an option: ");
     }
 
@@ -188,6 +198,226 @@ public class BTOApplicationView {
         return true;
     }
 
+    /**
+     * Prompts a manager for the applications to decide in one batch: either a
+     * list of application IDs, or all pending applications in one project,
+     * optionally of one flat type.
+     * @param sc the Scanner used for reading user input.
+     * @param applicationCTRL the controller used to look up pending applications.
+     * @return the selected application IDs (possibly empty), or null if the input was invalid.
+     */
+    public List<Integer> promptBatchApplicationIds(Scanner sc, BTOApplicationCTRL applicationCTRL) {
+        System.out.print("Select by (1) Application IDs or (2) Project and flat type: ");
+        String mode = sc.nextLine().trim();
+        if (mode.equals("1")) {
+            System.out.print("Enter Application IDs separated by commas or spaces: ");
+            return parseApplicationIds(sc.nextLine());
+        }
+        if (mode.equals("2")) {
+            System.out.print("Enter Project ID: ");
+            int projectId;
+            try {
+                projectId = Integer.parseInt(sc.nextLine().trim());
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid project ID. Please enter a valid number.");
+                return null;
+            }
+            String flatType = promptFlatTypeFilter(sc);
+            return applicationCTRL
+                    .getPendingApplicationsForProject(projectId, flatType == null ? null : FlatType.valueOf(flatType))
+                    .stream()
+                    .map(BTOApplication::getApplicationId)
+                    .collect(Collectors.toList());
+        }
+        System.out.println("Invalid choice. Please enter 1 or 2.");
+        return null;
+    }
+
+    /**
+     * Prompts an officer for the successful applications to book in one go.
+     * The user may list application IDs or enter "ALL" for every listed one.
+     * @param sc the Scanner used for reading user input.
+     * @param successfulApps the successful applications shown to the officer.
+     * @return the selected application IDs (possibly empty), or null if the input was invalid.
+     */
+    public List<Integer> promptBulkBookingIds(Scanner sc, List<BTOApplication> successfulApps) {
+        System.out.print("Enter Application IDs to book separated by commas or spaces, or ALL: ");
+        String input = sc.nextLine().trim();
+        if (input.equalsIgnoreCase("ALL")) {
+            return successfulApps.stream()
+                    .filter(app -> app.getStatus() == ApplicationStatus.SUCCESSFUL)
+                    .map(BTOApplication::getApplicationId)
+                    .collect(Collectors.toList());
+        }
+        return parseApplicationIds(input);
+    }
+
+    /**
+     * Parses application IDs separated by commas or spaces.
+     * @param input the text entered by the user.
+     * @return the IDs, or null if any of them is not a number.
+     */
+    private List<Integer> parseApplicationIds(String input) {
+        List<Integer> ids = new ArrayList<>();
+        for (String token : input.trim().split("[,\\s]+")) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            try {
+                ids.add(Integer.parseInt(token));
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid application ID: " + token);
+                return null;
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Displays the outcome of each application in a batch operation, followed by
+     * a summary.
+     * @param outcomes the outcomes, one per application.
+     */
+    public void displayBatchOutcomes(List<BatchOutcome> outcomes) {
+        System.out.println("\n=== Batch Results ===");
+        int succeeded = 0;
+        for (BatchOutcome outcome : outcomes) {
+            System.out.println("Application ID: " + outcome.getId()
+                    + " | " + (outcome.isSuccess() ? "DONE" : "SKIPPED")
+                    + " | " + outcome.getMessage());
+            if (outcome.isSuccess()) {
+                succeeded++;
+            }
+        }
+        System.out.println("-------------------------------");
+        System.out.println(succeeded + " of " + outcomes.size() + " application(s) processed, "
+                + (outcomes.size() - succeeded) + " skipped.");
+    }
+
+    /**
+     * Displays the filtered applicant report, one block per applicant.
+     * @param rows the report rows, each with its application, applicant and project.
+     */
+    public void displayApplicantReport(List<ApplicantReport.Row> rows) {
+        System.out.println("\n=== Filtered Applicant Report ===");
+        for (ApplicantReport.Row row : rows) {
+            User applicant = row.getApplicant();
+            System.out.println("Applicant: " + applicant.getName());
+            System.out.println("NRIC: " + applicant.getNRIC());
+            System.out.println("Age: " + applicant.getAge());
+            System.out.println("Marital: " + applicant.getMaritalStatus());
+            System.out.println("Flat: " + row.getApplication().getFlatType());
+            System.out.println("Project: " + row.getProject().getProjectName());
+            System.out.println("Neighbourhood: " + row.getProject().getNeighborhood());
+            System.out.println("Status: " + row.getApplication().getStatus());
+            System.out.println("-------------------------------");
+        }
+        System.out.println("=== End of Report ===");
+    }
+
+    /**
+     * Lists the manager's projects and prompts for the one to show statistics for.
+     * @param sc the Scanner used for reading user input.
+     * @param projects the projects managed by the current manager.
+     * @return the project ID entered, or null if there are no projects or the input was invalid.
+     */
+    public Integer promptStatsProject(Scanner sc, List<BTOProject> projects) {
+        if (projects.isEmpty()) {
+            System.out.println("You do not manage any projects.");
+            return null;
+        }
+        System.out.println("\n=== Your Projects ===");
+        for (BTOProject project : projects) {
+            System.out.println("Project ID: " + project.getProjectID() + " | " + project.getProjectName()
+                    + " | " + project.getNeighborhood());
+        }
+        System.out.print("Enter Project ID: ");
+        try {
+            return Integer.valueOf(sc.nextLine().trim());
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid project ID. Please enter a valid number.");
+            return null;
+        }
+    }
+
+    /**
+     * Displays the application counts of a project: for each status and flat
+     * type, the total and the split by marital status, followed by the
+     * withdrawal requests.
+     * @param project the project.
+     * @param stats its live counts.
+     */
+    public void displayProjectStats(BTOProject project, ProjectStats stats) {
+        System.out.println("\n=== Statistics: " + project.getProjectName() + " (ID " + project.getProjectID() + ") ===");
+        System.out.printf("%-13s %-10s %8s %8s %8s%n", "Status", "Flat Type", "Total", "Married", "Single");
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            for (FlatType flatType : FlatType.values()) {
+                System.out.printf("%-13s %-10s %8d %8d %8d%n", status, flatType,
+                        stats.count(status, flatType),
+                        stats.count(ApplicationType.APPLICATION, status, flatType, MaritalState.MARRIED),
+                        stats.count(ApplicationType.APPLICATION, status, flatType, MaritalState.SINGLE));
+            }
+        }
+        System.out.println("-------------------------------");
+        System.out.println("Total applications  : "
+                + stats.count(ApplicationType.APPLICATION, null, null, null));
+        System.out.println("Pending withdrawals : "
+                + stats.count(ApplicationType.WITHDRAWAL, ApplicationStatus.PENDING, null, null));
+        System.out.println("Approved withdrawals: "
+                + stats.count(ApplicationType.WITHDRAWAL, ApplicationStatus.SUCCESSFUL, null, null));
+    }
+
+    /**
+     * Asks whether to print the applicant report or export it to a file.
+     * @param sc the Scanner used for reading user input.
+     * @return the export format, or null to print the report.
+     */
+    public ReportExporter.Format promptReportOutput(Scanner sc) {
+        while (true) {
+            System.out.print("Output: (1) Print, (2) Export to CSV, (3) Export to NDJSON [1]: ");
+            String input = sc.nextLine().trim();
+            switch (input) {
+                case "", "1" -> {
+                    return null;
+                }
+                case "2" -> {
+                    return ReportExporter.Format.CSV;
+                }
+                case "3" -> {
+                    return ReportExporter.Format.NDJSON;
+                }
+                default -> System.out.println("Invalid choice. Please enter 1, 2 or 3.");
+            }
+        }
+    }
+
+    /**
+     * Prompts for the file to export the report to.
+     * @param sc the Scanner used for reading user input.
+     * @param format the export format, which gives the default file name.
+     * @return the file path entered, or the default if none was entered.
+     */
+    public Path promptExportFile(Scanner sc, ReportExporter.Format format) {
+        System.out.print("Export to file [" + format.defaultFileName() + "]: ");
+        String input = sc.nextLine().trim();
+        return Path.of(input.isEmpty() ? format.defaultFileName() : input);
+    }
+
+    /**
+     * Displays the row count and throughput of a finished export.
+     * @param summary what the export wrote.
+     * @param file the file written.
+     */
+    public void displayExportSummary(ReportExporter.Summary summary, Path file) {
+        System.out.println("\n=== Report Exported ===");
+        System.out.println("File      : " + file.toAbsolutePath());
+        System.out.println("Rows      : " + summary.getRows());
+        System.out.printf("Size      : %.2f MB%n", summary.getBytes() / 1e6);
+        System.out.printf("Time      : %.3f s%n", summary.getSeconds());
+        System.out.printf("Throughput: %.0f rows/s, %.2f MB/s%n", summary.getRowsPerSecond(),
+                summary.getMegabytesPerSecond());
+    }
+
     /**
      * Prompts the user to filter by marital status.
      * The user may enter "MARRIED" or "SINGLE" (case insensitive) or press Enter for no filter.
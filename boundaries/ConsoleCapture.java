@@ -0,0 +1,105 @@
+package boundaries;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Collects what the controllers print while serving one HTTP request.
+ * <p>
+ * The controllers report the reason an action failed (e.g. "Cannot apply: You
+ * have an existing application ...") on {@code System.out}. Once
+ * {@link #install()} has run, output printed by a thread inside
+ * {@link #capture} goes to that call's buffer instead of the console, so each
+ * request gets its own messages; every other thread, such as the console UI,
+ * prints as before.
+ * </p>
+ */
+final class ConsoleCapture extends OutputStream {
+
+    /** Buffer of the capture running on this thread, if any. */
+    private static final ThreadLocal<ByteArrayOutputStream> BUFFER = new ThreadLocal<>();
+    private static boolean installed;
+
+    private final OutputStream console;
+
+    private ConsoleCapture(OutputStream console) {
+        this.console = console;
+    }
+
+    /**
+     * Routes {@code System.out} and {@code System.err} through the capture.
+     * Safe to call more than once.
+     */
+    static synchronized void install() {
+        if (!installed) {
+            System.setOut(new PrintStream(new ConsoleCapture(System.out), true, StandardCharsets.UTF_8));
+            System.setErr(new PrintStream(new ConsoleCapture(System.err), true, StandardCharsets.UTF_8));
+            installed = true;
+        }
+    }
+
+    /**
+     * Runs some work and collects the lines it prints.
+     *
+     * @param <T>      Result type.
+     * @param work     The work to run.
+     * @param messages Receives the non-blank lines printed by {@code work}.
+     * @return The result of {@code work}.
+     */
+    static <T> T capture(Supplier<T> work, List<String> messages) {
+        ByteArrayOutputStream outer = BUFFER.get();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        BUFFER.set(buffer);
+        try {
+            return work.get();
+        } finally {
+            BUFFER.set(outer);
+            for (String line : buffer.toString(StandardCharsets.UTF_8).split("\\R")) {
+                if (!line.isBlank()) {
+                    messages.add(line.trim());
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs some work and returns the lines it prints.
+     *
+     * @param work The work to run.
+     * @return The non-blank lines printed by {@code work}.
+     */
+    static List<String> capture(Runnable work) {
+        List<String> messages = new ArrayList<>();
+        capture(() -> {
+            work.run();
+            return null;
+        }, messages);
+        return messages;
+    }
+
+    private OutputStream target() {
+        ByteArrayOutputStream buffer = BUFFER.get();
+        return buffer != null ? buffer : console;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        target().write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        target().write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        target().flush();
+    }
+}
@@ -35,7 +35,8 @@ public class EnquiryView {
         System.out.println("2. Edit My Enquiry");
         System.out.println("3. Delete My Enquiry");
         System.out.println("4. Respond to an Enquiry");
-        System.out.println("5. Back");
+        System.out.println("5. Search Enquiries");
+        System.out.println("6. Back");
         System.out.print("Select an option: ");
     }
 
@@ -46,7 +47,8 @@ public class EnquiryView {
         System.out.println("\n=== Enquiry Menu ===");
         System.out.println("1. Display All Enquiries");
         System.out.println("2. Respond to an Enquiry");
-        System.out.println("3. Back");
+        System.out.println("3. Search Enquiries");
+        System.out.println("4. Back");
         System.out.println("Select an option: ");
     }
 
@@ -100,6 +102,16 @@ public class EnquiryView {
         return sc.nextLine().trim();
     }
 
+    /**
+     * Prompts the user for the words to search enquiries for.
+     * @param sc Scanner instance to get user input.
+     * @return the search words, or empty string if cancelled.
+     */
+    public String promptSearchQuery(Scanner sc) {
+        System.out.print("Enter words to search for (leave empty to cancel): ");
+        return sc.nextLine().trim();
+    }
+
     /**
      * Prompts the user to enter a response text for an enquiry.
      * @param sc Scanner instance to get user input.
@@ -0,0 +1,779 @@
+package boundaries;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import controllers.BTOApplicationCTRL;
+import controllers.BTOProjectCTRL;
+import controllers.EnquiryCTRL;
+import controllers.UserCTRL;
+import entity.BTOApplication;
+import entity.BatchOutcome;
+import entity.BTOProject;
+import entity.Enquiry;
+import entity.ProjectStats;
+import entity.User;
+import entity.enumerations.ApplicationStatus;
+import entity.enumerations.ApplicationType;
+import entity.enumerations.FlatType;
+import entity.enumerations.MaritalState;
+import entity.enumerations.Role;
+import entity.repositories.DataStore;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * HTTP front end serving many users at once, as an alternative to the console
+ * menus.
+ * <p>
+ * Runs on the JDK's built-in {@link HttpServer}, one virtual thread per request
+ * on a Java 21 or later runtime. The build targets Java 17, so on older
+ * runtimes requests run on a cached pool of platform threads instead (see
+ * {@link #newThreadPerRequestExecutor()}). Every request calls the same
+ * controllers as the console UI, against the shared {@link DataStore}.
+ * Queries run inside {@link DataStore#read(Supplier)}, so requests that only
+ * read are served in parallel; they copy the fields the response shows while
+ * the store is locked and build the JSON after it is released. Most changes
+ * run inside {@link DataStore#batch(Supplier)}, so the checks a controller
+ * makes and the change it then makes are one step for all sessions, and the
+ * files it changes are committed together. Booking instead locks the project
+ * and the applicant it books ({@link DataStore#lockProjects(int...)},
+ * {@link DataStore#lockApplicants(java.util.Collection)}), checks and reserves
+ * the flat under those locks, and takes the batch only to save. Bookings of
+ * different projects by different applicants therefore run in parallel, and
+ * wait for each other only while their changes are written.
+ * </p>
+ * <p>
+ * The console menus change the shared data without these locks, so the
+ * program does not run them while the API is serving (see {@code Main}).
+ * </p>
+ * <p>
+ * Requests take form-encoded parameters (query string or
+ * {@code application/x-www-form-urlencoded} body) and return JSON of the form
+ * {@code {"ok":true,"messages":[...],"data":...}}, where {@code messages} are
+ * the lines the controller printed. Log in with
+ * {@code POST /api/login?nric=..&password=..} and send the returned token as
+ * {@code Authorization: Bearer <token>}.
+ * </p>
+ * <pre>
+ * POST   /api/login                    nric, password
+ * POST   /api/logout
+ * GET    /api/projects                 projects the user may see (managers: their own)
+ * GET    /api/projects/{id}/stats      managers: live application counts of one of their projects
+ * GET    /api/applications             the user's applications
+ * GET    /api/applications/handled     applications to the officer's or manager's projects
+ * POST   /api/applications             projectId, flatType (TWOROOM or THREEROOM)
+ * POST   /api/applications/decisions   managers: decision (A or R), and ids (comma-separated)
+ *                                      or projectId with an optional flatType
+ * POST   /api/applications/bookings    officers: ids (comma-separated); books them and issues receipts
+ * POST   /api/applications/{id}/withdraw
+ * POST   /api/applications/{id}/book   officers: book a flat and issue the receipt
+ * GET    /api/enquiries                the user's enquiries
+ * GET    /api/enquiries/handled        unanswered enquiries to the officer's or manager's projects
+ * GET    /api/enquiries/search         q: enquiries the user may see containing every word, best match first
+ * POST   /api/enquiries                projectId, text
+ * PUT    /api/enquiries/{id}           text
+ * DELETE /api/enquiries/{id}
+ * POST   /api/enquiries/{id}/response  text
+ * </pre>
+ */
+public final class HttpApi {
+
+    /** Port used when none is given. */
+    public static final int DEFAULT_PORT = 8080;
+    /** Connections that may wait to be accepted. */
+    private static final int BACKLOG = 1024;
+    /** Sessions unused for this long are logged out. */
+    private static final long SESSION_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final DataStore store = DataStore.getInstance();
+    /** Logged-in sessions by token. */
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+
+    /** One logged-in user, with the controllers that act for them. */
+    private static final class Session {
+        final User user;
+        final UserCTRL userCTRL;
+        final BTOProjectCTRL projectCTRL;
+        final BTOApplicationCTRL applicationCTRL;
+        final EnquiryCTRL enquiryCTRL;
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Session(UserCTRL userCTRL) {
+            this.user = userCTRL.getCurrentUser();
+            this.userCTRL = userCTRL;
+            this.projectCTRL = new BTOProjectCTRL(user);
+            this.applicationCTRL = new BTOApplicationCTRL(user);
+            this.enquiryCTRL = new EnquiryCTRL(user);
+        }
+    }
+
+    /** A request that cannot be served, with its HTTP status. */
+    private static final class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private HttpApi(int port) throws IOException {
+        ConsoleCapture.install();
+        server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        executor = newThreadPerRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    /**
+     * Starts serving on a port.
+     *
+     * @param port The TCP port, or 0 for any free port.
+     * @return The running server.
+     * @throws IOException If the port cannot be opened.
+     */
+    public static HttpApi start(int port) throws IOException {
+        HttpApi api = new HttpApi(port);
+        api.server.start();
+        return api;
+    }
+
+    /**
+     * Gets the port the server listens on.
+     *
+     * @return The TCP port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, waits up to a second for running ones, and
+     * logs everyone out. The data store is left open.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        sessions.clear();
+    }
+
+    /**
+     * A virtual thread per task when the program runs on Java 21 or later;
+     * otherwise a cached pool of platform threads.
+     * <p>
+     * The build targets Java 17, which has no virtual threads, so the method
+     * is looked up at run time. On a Java 17 to 20 runtime every request gets
+     * a platform thread from the pool, which is reused between requests but
+     * costs a full thread stack per concurrent request.
+     * </p>
+     */
+    private static ExecutorService newThreadPerRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    // --------------------------------------------------------------------------------------------------
+    // Routing
+    // --------------------------------------------------------------------------------------------------
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int status;
+        String body;
+        try {
+            String method = exchange.getRequestMethod();
+            String[] path = exchange.getRequestURI().getPath().substring("/api/".length()).split("/");
+            Map<String, String> params = params(exchange);
+            List<String> messages = new ArrayList<>();
+            StringBuilder json = new StringBuilder();
+            status = route(exchange, method, path, params, messages, json);
+            body = "{\"ok\":" + (status == 200) + ",\"messages\":" + strings(messages)
+                    + (json.length() > 0 ? ",\"data\":" + json : "") + "}";
+        } catch (ApiException e) {
+            status = e.status;
+            body = "{\"ok\":false,\"messages\":[" + quote(e.getMessage()) + "]}";
+        } catch (RuntimeException e) {
+            System.out.println("Error serving " + exchange.getRequestMethod() + " "
+                    + exchange.getRequestURI().getPath() + ": " + e);
+            status = 500;
+            body = "{\"ok\":false,\"messages\":[\"Internal error.\"]}";
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Serves one request.
+     *
+     * @param messages Receives the messages for the response.
+     * @param json     Receives the response data, if any.
+     * @return The HTTP status: 200 if the action succeeded, 409 if the
+     *         controller refused it.
+     */
+    private int route(HttpExchange exchange, String method, String[] path, Map<String, String> params,
+            List<String> messages, StringBuilder json) {
+        String resource = path[0];
+        if (resource.equals("login") && path.length == 1) {
+            requireMethod(method, "POST");
+            return login(params, json);
+        }
+        Session session = session(exchange);
+        switch (resource) {
+            case "logout" -> {
+                requireMethod(method, "POST");
+                sessions.values().remove(session);
+                return 200;
+            }
+            case "projects" -> {
+                requireMethod(method, "GET");
+                if (path.length == 3 && path[2].equals("stats")) {
+                    requireRole(session, Role.HDBMANAGER);
+                    int id = parseInt(path[1], "project ID");
+                    List<String> found = new ArrayList<>();
+                    ProjectStats stats = ConsoleCapture.capture(() -> session.applicationCTRL.getProjectStats(id),
+                            found);
+                    if (stats == null) {
+                        throw new ApiException(404, found.isEmpty() ? "Project not found." : found.get(0));
+                    }
+                    json.append(stats(id, stats));
+                    return 200;
+                }
+                return read(messages, json, () -> ProjectRow.of(session.user.getRole() == Role.HDBMANAGER
+                        ? session.projectCTRL.getFilteredProjects()
+                        : session.projectCTRL.getFilteredProjectsForUser(session.user)), HttpApi::projects);
+            }
+            case "applications" -> {
+                return applications(session, method, path, params, messages, json);
+            }
+            case "enquiries" -> {
+                return enquiries(session, method, path, params, messages, json);
+            }
+            default -> throw new ApiException(404, "Unknown resource: " + resource);
+        }
+    }
+
+    private int applications(Session session, String method, String[] path, Map<String, String> params,
+            List<String> messages, StringBuilder json) {
+        BTOApplicationCTRL ctrl = session.applicationCTRL;
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                return read(messages, json, () -> ApplicationRow.of(ctrl.viewUserApplications()),
+                        HttpApi::applications);
+            }
+            requireMethod(method, "POST");
+            requireRole(session, Role.APPLICANT, Role.HDBOFFICER);
+            int projectId = intParam(params, "projectId");
+            FlatType flatType = flatType(params);
+            return act(messages, () -> ctrl.apply(projectId, flatType));
+        }
+        if (path.length == 2 && path[1].equals("handled")) {
+            requireMethod(method, "GET");
+            Role role = requireRole(session, Role.HDBOFFICER, Role.HDBMANAGER);
+            return read(messages, json, () -> ApplicationRow.of(role == Role.HDBOFFICER
+                    ? ctrl.getApplicationsHandledByOfficer()
+                    : ctrl.getApplicationsHandledByManager()), HttpApi::applications);
+        }
+        if (path.length == 2 && path[1].equals("decisions")) {
+            requireMethod(method, "POST");
+            requireRole(session, Role.HDBMANAGER);
+            String decision = param(params, "decision");
+            List<Integer> ids = new ArrayList<>();
+            if (params.containsKey("ids")) {
+                ids.addAll(ids(params));
+            } else {
+                int projectId = intParam(params, "projectId");
+                FlatType flatType = params.containsKey("flatType") ? flatType(params) : null;
+                ids.addAll(ConsoleCapture.capture(() -> store.read(() -> ctrl.getPendingApplicationsForProject(
+                        projectId, flatType).stream().map(BTOApplication::getApplicationId).toList()), messages));
+            }
+            return actOnProject(messages, () -> {
+                List<BatchOutcome> outcomes = ctrl.processApplicationDecisions(ids, decision);
+                json.append(outcomes(outcomes));
+                return !outcomes.isEmpty();
+            });
+        }
+        if (path.length == 2 && path[1].equals("bookings")) {
+            requireMethod(method, "POST");
+            requireRole(session, Role.HDBOFFICER);
+            List<Integer> ids = ids(params);
+            return actOnProject(messages, () -> {
+                List<BatchOutcome> outcomes = ctrl.bookAndGenerateReceipts(ids);
+                json.append(outcomes(outcomes));
+                return !outcomes.isEmpty();
+            });
+        }
+        if (path.length == 3) {
+            int id = parseInt(path[1], "application ID");
+            requireMethod(method, "POST");
+            switch (path[2]) {
+                case "withdraw" -> {
+                    return actOnProject(messages, () -> ctrl.withdraw(id));
+                }
+                case "book" -> {
+                    requireRole(session, Role.HDBOFFICER);
+                    return actOnProject(messages,
+                            () -> ctrl.bookAndGenerateReceipt(id, session.projectCTRL, session.userCTRL));
+                }
+                default -> {
+                }
+            }
+        }
+        throw new ApiException(404, "Unknown resource: applications/" + String.join("/", path));
+    }
+
+    private int enquiries(Session session, String method, String[] path, Map<String, String> params,
+            List<String> messages, StringBuilder json) {
+        EnquiryCTRL ctrl = session.enquiryCTRL;
+        if (path.length == 1) {
+            if (method.equals("GET")) {
+                return read(messages, json, () -> EnquiryRow.of(ctrl.getFilteredEnquiriesByNRIC()),
+                        HttpApi::enquiries);
+            }
+            requireMethod(method, "POST");
+            int projectId = intParam(params, "projectId");
+            String text = param(params, "text");
+            List<EnquiryRow> created = new ArrayList<>();
+            int status = act(messages, () -> {
+                if (store.getProject(projectId) == null) {
+                    System.out.println("Project not found.");
+                    return false;
+                }
+                Enquiry enquiry = ctrl.createEnquiry(projectId, text);
+                if (enquiry != null) {
+                    created.addAll(EnquiryRow.of(List.of(enquiry)));
+                }
+                return enquiry != null;
+            });
+            if (!created.isEmpty()) {
+                json.append(enquiries(created));
+            }
+            return status;
+        }
+        if (path.length == 2 && path[1].equals("handled")) {
+            requireMethod(method, "GET");
+            Role role = requireRole(session, Role.HDBOFFICER, Role.HDBMANAGER);
+            return read(messages, json, () -> {
+                List<BTOProject> projects = store.getProjects();
+                return EnquiryRow.of(role == Role.HDBOFFICER
+                        ? ctrl.getFilteredEnquiriesByOfficer(projects)
+                        : ctrl.getFilteredEnquiriesByManager(projects));
+            }, HttpApi::enquiries);
+        }
+        if (path.length == 2 && path[1].equals("search")) {
+            requireMethod(method, "GET");
+            String query = param(params, "q");
+            return read(messages, json, () -> EnquiryRow.of(ctrl.searchEnquiries(query, store.getProjects())),
+                    HttpApi::enquiries);
+        }
+        int id = parseInt(path[1], "enquiry ID");
+        if (path.length == 2 && method.equals("PUT")) {
+            String text = param(params, "text");
+            return act(messages, () -> {
+                Enquiry enquiry = editable(ctrl, id);
+                return enquiry != null && ctrl.editEnquiry(enquiry, text);
+            });
+        }
+        if (path.length == 2 && method.equals("DELETE")) {
+            return act(messages, () -> {
+                Enquiry enquiry = editable(ctrl, id);
+                return enquiry != null && ctrl.deleteEnquiry(enquiry);
+            });
+        }
+        if (path.length == 3 && path[2].equals("response")) {
+            requireMethod(method, "POST");
+            Role role = requireRole(session, Role.HDBOFFICER, Role.HDBMANAGER);
+            String text = param(params, "text");
+            return act(messages, () -> {
+                List<BTOProject> projects = store.getProjects();
+                Enquiry enquiry = ctrl.findEnquiryById(role == Role.HDBOFFICER
+                        ? ctrl.getFilteredEnquiriesByOfficer(projects)
+                        : ctrl.getFilteredEnquiriesByManager(projects), id);
+                if (enquiry == null) {
+                    System.out.println("Enquiry not found, already answered, or not for your projects.");
+                    return false;
+                }
+                return ctrl.responseEnquiry(enquiry, text);
+            });
+        }
+        if (path.length == 2) {
+            throw new ApiException(405, "Method not allowed: " + method);
+        }
+        throw new ApiException(404, "Unknown resource: enquiries/" + String.join("/", path));
+    }
+
+    /**
+     * Finds one of the user's own enquiries that has not been answered yet,
+     * which are the only ones that may be edited or deleted.
+     */
+    private static Enquiry editable(EnquiryCTRL ctrl, int id) {
+        Enquiry enquiry = ctrl.findEnquiryById(ctrl.getEditableEnquiriesByNRIC(), id);
+        if (enquiry == null) {
+            System.out.println("Enquiry not found, already answered, or not yours.");
+        }
+        return enquiry;
+    }
+
+    // --------------------------------------------------------------------------------------------------
+    // Sessions
+    // --------------------------------------------------------------------------------------------------
+
+    private int login(Map<String, String> params, StringBuilder json) {
+        String nric = param(params, "nric");
+        String password = param(params, "password");
+        // Only reads, so logins run in parallel with each other and with queries
+        Session session = store.read(() -> {
+            UserCTRL userCTRL = new UserCTRL();
+            return userCTRL.login(nric, password) ? new Session(userCTRL) : null;
+        });
+        if (session == null) {
+            throw new ApiException(401, "Invalid NRIC or password.");
+        }
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(s -> now - s.lastUsed > SESSION_TIMEOUT_MILLIS);
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, session);
+        json.append("{\"token\":").append(quote(token)).append(",\"name\":").append(quote(session.user.getName()))
+                .append(",\"role\":").append(quote(session.user.getRole().name())).append('}');
+        return 200;
+    }
+
+    private Session session(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.startsWith("Bearer ")) {
+            throw new ApiException(401, "Log in first.");
+        }
+        Session session = sessions.get(header.substring("Bearer ".length()).trim());
+        long now = System.currentTimeMillis();
+        if (session == null || now - session.lastUsed > SESSION_TIMEOUT_MILLIS) {
+            throw new ApiException(401, "Session expired; log in again.");
+        }
+        session.lastUsed = now;
+        return session;
+    }
+
+    private static Role requireRole(Session session, Role... roles) {
+        Role role = session.user.getRole();
+        for (Role allowed : roles) {
+            if (role == allowed) {
+                return role;
+            }
+        }
+        throw new ApiException(403, "Not available to " + role + " users.");
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new ApiException(405, "Method not allowed: " + method);
+        }
+    }
+
+    // --------------------------------------------------------------------------------------------------
+    // Controller calls
+    // --------------------------------------------------------------------------------------------------
+
+    /**
+     * Runs a controller action as one step against the shared store.
+     *
+     * @return 200 if the action succeeded, 409 if the controller refused it.
+     */
+    private int act(List<String> messages, Supplier<Boolean> action) {
+        return ConsoleCapture.capture(() -> store.batch(action), messages) ? 200 : 409;
+    }
+
+    /**
+     * Runs a controller action that locks the projects (and applicants) it
+     * changes itself. It must not run inside the store's lock, which is only
+     * ever taken after those locks.
+     *
+     * @return 200 if the action succeeded, 409 if the controller refused it.
+     */
+    private int actOnProject(List<String> messages, Supplier<Boolean> action) {
+        return ConsoleCapture.capture(action, messages) ? 200 : 409;
+    }
+
+    /**
+     * Runs a query in parallel with other queries, but while no session is
+     * changing data, and formats the snapshot it takes once the lock is
+     * released.
+     *
+     * @param query  Copies the data to show; see {@link ProjectRow} and the
+     *               other row types.
+     * @param format Formats the copy as JSON.
+     */
+    private <S> int read(List<String> messages, StringBuilder json, Supplier<S> query, Function<S, String> format) {
+        S snapshot = ConsoleCapture.capture(() -> store.read(query), messages);
+        json.append(format.apply(snapshot));
+        return 200;
+    }
+
+    // --------------------------------------------------------------------------------------------------
+    // Parameters
+    // --------------------------------------------------------------------------------------------------
+
+    private static Map<String, String> params(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        parseForm(exchange.getRequestURI().getRawQuery(), params);
+        String type = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (type != null && type.startsWith("application/x-www-form-urlencoded")) {
+            try (InputStream in = exchange.getRequestBody()) {
+                parseForm(new String(in.readAllBytes(), StandardCharsets.UTF_8), params);
+            } catch (IOException e) {
+                throw new ApiException(400, "Could not read the request body.");
+            }
+        }
+        return params;
+    }
+
+    private static void parseForm(String form, Map<String, String> params) {
+        if (form == null || form.isEmpty()) {
+            return;
+        }
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        }
+    }
+
+    private static String param(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.isBlank()) {
+            throw new ApiException(400, "Missing parameter: " + name);
+        }
+        return value.trim();
+    }
+
+    private static int intParam(Map<String, String> params, String name) {
+        return parseInt(param(params, name), name);
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid " + name + ": " + value);
+        }
+    }
+
+    /** Comma- or space-separated application IDs in the {@code ids} parameter. */
+    private static List<Integer> ids(Map<String, String> params) {
+        List<Integer> ids = new ArrayList<>();
+        for (String id : param(params, "ids").split("[,\\s]+")) {
+            ids.add(parseInt(id, "application ID"));
+        }
+        return ids;
+    }
+
+    /** Accepts {@code TWOROOM}/{@code THREEROOM} as well as {@code 2-Room}/{@code 3-Room}. */
+    private static FlatType flatType(Map<String, String> params) {
+        String value = param(params, "flatType").toUpperCase();
+        switch (value) {
+            case "TWOROOM", "2-ROOM", "2" -> {
+                return FlatType.TWOROOM;
+            }
+            case "THREEROOM", "3-ROOM", "3" -> {
+                return FlatType.THREEROOM;
+            }
+            default -> throw new ApiException(400, "Invalid flatType: " + value);
+        }
+    }
+
+    // --------------------------------------------------------------------------------------------------
+    // Snapshots: the fields a response shows, copied while the store is locked
+    // --------------------------------------------------------------------------------------------------
+
+    private record ProjectRow(int id, String name, String neighborhood, int available2Room, int twoRoomPrice,
+            int available3Room, int threeRoomPrice, String openingDate, String closingDate, String manager,
+            boolean visible) {
+
+        static List<ProjectRow> of(List<BTOProject> projects) {
+            List<ProjectRow> rows = new ArrayList<>(projects.size());
+            for (BTOProject p : projects) {
+                rows.add(new ProjectRow(p.getProjectID(), p.getProjectName(), p.getNeighborhood(),
+                        p.getAvailable2Room(), p.getTwoRoomPrice(), p.getAvailable3Room(), p.getThreeRoomPrice(),
+                        p.getApplicationOpeningDate(), p.getApplicationClosingDate(), p.getManagerID(),
+                        p.isVisibility()));
+            }
+            return rows;
+        }
+    }
+
+    private record ApplicationRow(int id, String applicant, int projectId, String type, String status,
+            String flatType) {
+
+        static List<ApplicationRow> of(List<BTOApplication> applications) {
+            List<ApplicationRow> rows = new ArrayList<>(applications.size());
+            for (BTOApplication a : applications) {
+                rows.add(new ApplicationRow(a.getApplicationId(), a.getApplicantNRIC(), a.getProjectID(),
+                        String.valueOf(a.getApplicationType()), String.valueOf(a.getStatus()), a.getFlatType()));
+            }
+            return rows;
+        }
+    }
+
+    private record EnquiryRow(int id, int projectId, String submittedBy, String text, String response,
+            String timestamp) {
+
+        static List<EnquiryRow> of(List<Enquiry> enquiries) {
+            List<EnquiryRow> rows = new ArrayList<>(enquiries.size());
+            for (Enquiry e : enquiries) {
+                rows.add(new EnquiryRow(e.getEnquiryId(), e.getProjectId(), e.getSubmittedByNRIC(),
+                        e.getEnquiryText(), e.getResponse(), e.getTimestamp()));
+            }
+            return rows;
+        }
+    }
+
+    // --------------------------------------------------------------------------------------------------
+    // JSON
+    // --------------------------------------------------------------------------------------------------
+
+    private static String projects(List<ProjectRow> projects) {
+        StringBuilder sb = new StringBuilder("[");
+        for (ProjectRow p : projects) {
+            sb.append(sb.length() > 1 ? "," : "")
+                    .append("{\"id\":").append(p.id())
+                    .append(",\"name\":").append(quote(p.name()))
+                    .append(",\"neighborhood\":").append(quote(p.neighborhood()))
+                    .append(",\"available2Room\":").append(p.available2Room())
+                    .append(",\"twoRoomPrice\":").append(p.twoRoomPrice())
+                    .append(",\"available3Room\":").append(p.available3Room())
+                    .append(",\"threeRoomPrice\":").append(p.threeRoomPrice())
+                    .append(",\"openingDate\":").append(quote(p.openingDate()))
+                    .append(",\"closingDate\":").append(quote(p.closingDate()))
+                    .append(",\"manager\":").append(quote(p.manager()))
+                    .append(",\"visible\":").append(p.visible()).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String applications(List<ApplicationRow> applications) {
+        StringBuilder sb = new StringBuilder("[");
+        for (ApplicationRow a : applications) {
+            sb.append(sb.length() > 1 ? "," : "")
+                    .append("{\"id\":").append(a.id())
+                    .append(",\"applicant\":").append(quote(a.applicant()))
+                    .append(",\"projectId\":").append(a.projectId())
+                    .append(",\"type\":").append(quote(a.type()))
+                    .append(",\"status\":").append(quote(a.status()))
+                    .append(",\"flatType\":").append(quote(a.flatType())).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String outcomes(List<BatchOutcome> outcomes) {
+        StringBuilder sb = new StringBuilder("[");
+        for (BatchOutcome o : outcomes) {
+            sb.append(sb.length() > 1 ? "," : "")
+                    .append("{\"id\":").append(o.getId())
+                    .append(",\"ok\":").append(o.isSuccess())
+                    .append(",\"message\":").append(quote(o.getMessage())).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Counts of applications by status, flat type and marital status, and of
+     * withdrawal requests by status.
+     */
+    private static String stats(int projectId, ProjectStats stats) {
+        StringBuilder sb = new StringBuilder("{\"projectId\":").append(projectId).append(",\"applications\":{");
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            sb.append(status.ordinal() > 0 ? "," : "").append(quote(status.name())).append(":{");
+            for (FlatType flatType : FlatType.values()) {
+                sb.append(flatType.ordinal() > 0 ? "," : "").append(quote(flatType.name()))
+                        .append(":{\"total\":").append(stats.count(status, flatType));
+                for (MaritalState marital : MaritalState.values()) {
+                    sb.append(',').append(quote(marital.name())).append(':')
+                            .append(stats.count(ApplicationType.APPLICATION, status, flatType, marital));
+                }
+                sb.append('}');
+            }
+            sb.append('}');
+        }
+        sb.append("},\"withdrawals\":{");
+        for (ApplicationStatus status : ApplicationStatus.values()) {
+            sb.append(status.ordinal() > 0 ? "," : "").append(quote(status.name())).append(':')
+                    .append(stats.count(ApplicationType.WITHDRAWAL, status, null, null));
+        }
+        return sb.append("}}").toString();
+    }
+
+    private static String enquiries(List<EnquiryRow> enquiries) {
+        StringBuilder sb = new StringBuilder("[");
+        for (EnquiryRow e : enquiries) {
+            sb.append(sb.length() > 1 ? "," : "")
+                    .append("{\"id\":").append(e.id())
+                    .append(",\"projectId\":").append(e.projectId())
+                    .append(",\"submittedBy\":").append(quote(e.submittedBy()))
+                    .append(",\"text\":").append(quote(e.text()))
+                    .append(",\"response\":").append(quote(e.response()))
+                    .append(",\"timestamp\":").append(quote(e.timestamp())).append('}');
+        }
+        return sb.append(']').toString();
+    }
+
+    private static String strings(List<String> values) {
+        StringBuilder sb = new StringBuilder("[");
+        for (String value : values) {
+            sb.append(sb.length() > 1 ? "," : "").append(quote(value));
+        }
+        return sb.append(']').toString();
+    }
+
+    /** A JSON string literal, or {@code null}. */
+    static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
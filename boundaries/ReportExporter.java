@@ -0,0 +1,210 @@
+package boundaries;
+
+import entity.ApplicantReport;
+import entity.BTOApplication;
+import entity.BTOProject;
+import entity.User;
+import entity.repositories.CSVTokenizer;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Writes the manager's applicant report to a file as CSV or NDJSON (one JSON
+ * object per line).
+ * <p>
+ * Rows are written through a fixed-size buffer as the report query finds
+ * them, so the file grows while the scan runs and memory use does not depend
+ * on the size of the report. The returned {@link Summary} gives the row count,
+ * size and throughput.
+ * </p>
+ */
+public class ReportExporter {
+
+    /** Size of the write buffer, in characters. */
+    private static final int BUFFER_CHARS = 1 << 16;
+
+    /** Column names of the CSV header; NDJSON uses the same names as keys. */
+    private static final String[] COLUMNS = { "applicationID", "applicantNRIC", "applicantName", "age",
+            "maritalStatus", "flatType", "status", "projectID", "projectName", "neighborhood" };
+    /** What precedes each value of an NDJSON line: the opening brace or a comma, and the key. */
+    private static final String[] JSON_KEYS = new String[COLUMNS.length];
+
+    static {
+        for (int i = 0; i < COLUMNS.length; i++) {
+            JSON_KEYS[i] = (i == 0 ? "{" : ",") + HttpApi.quote(COLUMNS[i]) + ":";
+        }
+    }
+
+    /** Supported file formats. */
+    public enum Format {
+        CSV, NDJSON;
+
+        /** Default file name for a report in this format. */
+        public String defaultFileName() {
+            return this == CSV ? "applicant_report.csv" : "applicant_report.ndjson";
+        }
+    }
+
+    /** What one export wrote. */
+    public static final class Summary {
+        private final long rows;
+        private final long bytes;
+        private final long nanos;
+
+        private Summary(long rows, long bytes, long nanos) {
+            this.rows = rows;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public double getSeconds() {
+            return nanos / 1e9;
+        }
+
+        /** Rows written per second. */
+        public double getRowsPerSecond() {
+            return nanos == 0 ? 0 : rows * 1e9 / nanos;
+        }
+
+        /** Megabytes (10^6 bytes) written per second. */
+        public double getMegabytesPerSecond() {
+            return nanos == 0 ? 0 : bytes * 1e3 / nanos;
+        }
+    }
+
+    /**
+     * Runs a report and writes its rows to a file, replacing any file there.
+     *
+     * @param report       The report query.
+     * @param applications The applications to report on.
+     * @param projects     The projects they may belong to.
+     * @param users        Looks up a user by NRIC.
+     * @param file         The file to write.
+     * @param format       The file format.
+     * @return What was written, or null if the file could not be written.
+     */
+    public Summary export(ApplicantReport report, Iterable<BTOApplication> applications, List<BTOProject> projects,
+            Function<String, User> users, Path file, Format format) {
+        long start = System.nanoTime();
+        CountingOutputStream counter;
+        long rows;
+        try {
+            counter = new CountingOutputStream(Files.newOutputStream(file));
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(counter, StandardCharsets.UTF_8),
+                    BUFFER_CHARS)) {
+                if (format == Format.CSV) {
+                    out.write(String.join(",", COLUMNS));
+                    out.write('\n');
+                }
+                rows = report.forEach(applications, projects, users, row -> {
+                    try {
+                        if (format == Format.CSV) {
+                            writeCsv(out, row);
+                        } else {
+                            writeJson(out, row);
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (IOException | UncheckedIOException e) {
+            Throwable cause = e instanceof UncheckedIOException ? e.getCause() : e;
+            System.out.println("Error writing report to " + file + ": " + cause.getMessage());
+            return null;
+        }
+        return new Summary(rows, counter.count, System.nanoTime() - start);
+    }
+
+    private static void writeCsv(Writer out, ApplicantReport.Row row) throws IOException {
+        BTOApplication app = row.getApplication();
+        User applicant = row.getApplicant();
+        BTOProject project = row.getProject();
+        out.write(Integer.toString(app.getApplicationId()));
+        out.write(',');
+        out.write(CSVTokenizer.escape(applicant.getNRIC()));
+        out.write(',');
+        out.write(CSVTokenizer.escape(applicant.getName()));
+        out.write(',');
+        out.write(Integer.toString(applicant.getAge()));
+        out.write(',');
+        out.write(applicant.getMaritalStatus() == null ? "" : applicant.getMaritalStatus().name());
+        out.write(',');
+        out.write(CSVTokenizer.escape(app.getFlatType()));
+        out.write(',');
+        out.write(String.valueOf(app.getStatus()));
+        out.write(',');
+        out.write(Integer.toString(project.getProjectID()));
+        out.write(',');
+        out.write(CSVTokenizer.escape(project.getProjectName()));
+        out.write(',');
+        out.write(CSVTokenizer.escape(project.getNeighborhood()));
+        out.write('\n');
+    }
+
+    private static void writeJson(Writer out, ApplicantReport.Row row) throws IOException {
+        BTOApplication app = row.getApplication();
+        User applicant = row.getApplicant();
+        BTOProject project = row.getProject();
+        out.write(JSON_KEYS[0]);
+        out.write(Integer.toString(app.getApplicationId()));
+        out.write(JSON_KEYS[1]);
+        out.write(HttpApi.quote(applicant.getNRIC()));
+        out.write(JSON_KEYS[2]);
+        out.write(HttpApi.quote(applicant.getName()));
+        out.write(JSON_KEYS[3]);
+        out.write(Integer.toString(applicant.getAge()));
+        out.write(JSON_KEYS[4]);
+        out.write(HttpApi.quote(applicant.getMaritalStatus() == null ? null : applicant.getMaritalStatus().name()));
+        out.write(JSON_KEYS[5]);
+        out.write(HttpApi.quote(app.getFlatType()));
+        out.write(JSON_KEYS[6]);
+        out.write(HttpApi.quote(String.valueOf(app.getStatus())));
+        out.write(JSON_KEYS[7]);
+        out.write(Integer.toString(project.getProjectID()));
+        out.write(JSON_KEYS[8]);
+        out.write(HttpApi.quote(project.getProjectName()));
+        out.write(JSON_KEYS[9]);
+        out.write(HttpApi.quote(project.getNeighborhood()));
+        out.write("}\n");
+    }
+
+    /** Counts the bytes written through it. */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
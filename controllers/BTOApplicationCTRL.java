@@ -1,8 +1,12 @@
 package controllers;
 
 import boundaries.BTOApplicationView;
+import boundaries.ReportExporter;
+import entity.ApplicantReport;
 import entity.BTOApplication;
+import entity.BatchOutcome;
 import entity.BTOProject;
+import entity.ProjectStats;
 import entity.Receipt;
 import entity.User;
 import entity.enumerations.ApplicationStatus;
@@ -10,13 +14,18 @@ import entity.enumerations.ApplicationType;
 import entity.enumerations.FlatType;
 import entity.enumerations.MaritalState;
 import entity.enumerations.Role;
-import entity.repositories.ApplicationCSVRepository;
-import entity.repositories.BTOProjectCSVRepository;
-import entity.repositories.ReceiptCSVRepository;
+import entity.repositories.DataStore;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -29,28 +38,25 @@ import java.util.stream.Collectors;
  */
 public class BTOApplicationCTRL {
 
-    /** List of all BTO applications loaded from the repository. */
+    /** List of all BTO applications, shared through the {@link DataStore}. */
     private List<BTOApplication> applicationList;
-    /** List of all BTO projects loaded from the repository. */
+    /** List of all BTO projects, shared through the {@link DataStore}. */
     private List<BTOProject> projects;
     /** The currently logged-in user. */
     private User currentUser;
-    /** Repository for reading/writing application data. */
-    private ApplicationCSVRepository appRepo = new ApplicationCSVRepository();
-    /** Repository for reading/writing project data. */
-    private BTOProjectCSVRepository projRepo = new BTOProjectCSVRepository();
+    /** Shared data store used to read and persist application data. */
+    private final DataStore store = DataStore.getInstance();
 
     /**
-     * Loads all applications and projects, and keeps track of the logged-in user.
+     * Attaches to the shared applications and projects, and keeps track of the
+     * logged-in user.
      * 
      * @param currentUser The currently logged-in user.
      */
     public BTOApplicationCTRL(User currentUser) {
         this.currentUser = currentUser;
-        this.appRepo = new ApplicationCSVRepository();
-        this.projRepo = new BTOProjectCSVRepository();
-        this.applicationList = appRepo.readApplicationFromCSV();
-        this.projects = projRepo.readBTOProjectFromCSV();
+        this.applicationList = store.getApplications();
+        this.projects = store.getProjects();
     }
 
     // --------------------------------------------------------------------------------------------------
@@ -197,7 +203,30 @@ public class BTOApplicationCTRL {
                                 System.out.println("An error occurred while processing booking: " + e.getMessage());
                             }
                         }
-                        case "4" -> {
+                        case "4" -> { // Bulk booking for successful applicants
+                            try {
+                                var officerApps = applicationCTRL.getApplicationsHandledByOfficer();
+                                var projects = applicationCTRL.getProjects();
+                                if (!btoApplicationView.displaySuccessfulApplications(officerApps, projects)) {
+                                    break;
+                                }
+
+                                List<Integer> appIds = btoApplicationView.promptBulkBookingIds(sc, officerApps);
+                                if (appIds == null) {
+                                    break;
+                                }
+                                if (appIds.isEmpty()) {
+                                    System.out.println("No applications selected for booking.");
+                                    break;
+                                }
+
+                                var outcomes = applicationCTRL.bookAndGenerateReceipts(appIds);
+                                btoApplicationView.displayBatchOutcomes(outcomes);
+                            } catch (Exception e) {
+                                System.out.println("An error occurred while processing bookings: " + e.getMessage());
+                            }
+                        }
+                        case "5" -> {
                             return; // back to central menu
                         }
                     }
@@ -221,10 +250,8 @@ public class BTOApplicationCTRL {
                         }
                         case "2" -> { // Approval / Rejection for Application
                             try {
-                                var pendingApps = applicationCTRL.getApplicationsHandledByManager().stream()
-                                        .filter(app -> app.getApplicationType() == ApplicationType.APPLICATION
-                                                && app.getStatus() == ApplicationStatus.PENDING)
-                                        .collect(Collectors.toList());
+                                var pendingApps = applicationCTRL
+                                        .getPendingApplicationsHandledByManager(ApplicationType.APPLICATION);
 
                                 if (pendingApps.isEmpty()) {
                                     System.out.println("No pending applications available for approval or rejection.");
@@ -279,10 +306,8 @@ public class BTOApplicationCTRL {
 
                         case "3" -> { // Approval for Withdrawal of BTO Application (no need for rejection)
                             try {
-                                var pendingWithdrawals = applicationCTRL.getApplicationsHandledByManager().stream()
-                                        .filter(app -> app.getApplicationType() == ApplicationType.WITHDRAWAL
-                                                && app.getStatus() == ApplicationStatus.PENDING)
-                                        .collect(Collectors.toList());
+                                var pendingWithdrawals = applicationCTRL
+                                        .getPendingApplicationsHandledByManager(ApplicationType.WITHDRAWAL);
 
                                 if (pendingWithdrawals.isEmpty()) {
                                     System.out.println("No pending withdrawal applications available for approval.");
@@ -332,40 +357,73 @@ public class BTOApplicationCTRL {
                                 Integer maxAge = btoApplicationView.promptMaxAge(sc);
                                 String neighbourhoodFilter = btoApplicationView.promptNeighbourhoodFilter(sc);
 
-                                List<BTOApplication> filteredApps = applicationCTRL.generateReport(
+                                ReportExporter.Format format = btoApplicationView.promptReportOutput(sc);
+                                if (format != null) {
+                                    Path file = btoApplicationView.promptExportFile(sc, format);
+                                    var summary = applicationCTRL.exportReport(maritalFilter, flatTypeFilter,
+                                            minAge, maxAge, neighbourhoodFilter, allProjects, userCTRL, file, format);
+                                    if (summary != null) {
+                                        btoApplicationView.displayExportSummary(summary, file);
+                                    }
+                                    break;
+                                }
+
+                                List<ApplicantReport.Row> rows = applicationCTRL.generateReportRows(
                                         maritalFilter, flatTypeFilter, minAge, maxAge, neighbourhoodFilter, allProjects,
                                         userCTRL);
 
-                                if (filteredApps.isEmpty()) {
+                                if (rows.isEmpty()) {
                                     System.out.println("No applicants found matching the selected filters.");
                                 } else {
-                                    System.out.println("\n=== Filtered Applicant Report ===");
-                                    for (BTOApplication app : filteredApps) {
-                                        User applicant = userCTRL.getUserByNRIC(app.getApplicantNRIC());
-                                        Optional<BTOProject> projectOpt = allProjects.stream()
-                                                .filter(p -> p.getProjectID() == app.getProjectID())
-                                                .findFirst();
-                                        String projectName = projectOpt.map(BTOProject::getProjectName)
-                                                .orElse("Unknown");
-                                        String neighbourhood = projectOpt.map(BTOProject::getNeighborhood)
-                                                .orElse("Unknown");
-                                        System.out.println("Applicant: " + applicant.getName());
-                                        System.out.println("NRIC: " + applicant.getNRIC());
-                                        System.out.println("Age: " + applicant.getAge());
-                                        System.out.println("Marital: " + applicant.getMaritalStatus());
-                                        System.out.println("Flat: " + app.getFlatType());
-                                        System.out.println("Project: " + projectName);
-                                        System.out.println("Neighbourhood: " + neighbourhood);
-                                        System.out.println("Status: " + app.getStatus());
-                                        System.out.println("-------------------------------");
-                                    }
-                                    System.out.println("=== End of Report ===");
+                                    btoApplicationView.displayApplicantReport(rows);
                                 }
                             } catch (Exception e) {
                                 System.out.println("An error occurred while generating the report: " + e.getMessage());
                             }
                         }
-                        case "5" -> { // back to central menu
+                        case "5" -> { // Batch Approval / Rejection of Applications
+                            try {
+                                List<Integer> appIds = btoApplicationView.promptBatchApplicationIds(sc,
+                                        applicationCTRL);
+                                if (appIds == null) {
+                                    break;
+                                }
+                                if (appIds.isEmpty()) {
+                                    System.out.println("No pending applications match your selection.");
+                                    break;
+                                }
+                                System.out.print("Approve (A) or Reject (R) all " + appIds.size()
+                                        + " application(s)? ");
+                                String decision = sc.nextLine().trim();
+
+                                var outcomes = applicationCTRL.processApplicationDecisions(appIds, decision);
+                                if (!outcomes.isEmpty()) {
+                                    btoApplicationView.displayBatchOutcomes(outcomes);
+                                }
+                            } catch (Exception e) {
+                                System.out.println(
+                                        "An error occurred while processing the applications: " + e.getMessage());
+                            }
+                        }
+                        case "6" -> { // Project statistics
+                            try {
+                                var managedProjects = applicationCTRL.getProjects().stream()
+                                        .filter(p -> p.getManagerID().equals(userCTRL.getCurrentUser().getNRIC()))
+                                        .collect(Collectors.toList());
+                                Integer projectId = btoApplicationView.promptStatsProject(sc, managedProjects);
+                                if (projectId == null) {
+                                    break;
+                                }
+                                ProjectStats stats = applicationCTRL.getProjectStats(projectId);
+                                if (stats != null) {
+                                    btoApplicationView.displayProjectStats(projectCTRL.getProjectById(projectId),
+                                            stats);
+                                }
+                            } catch (Exception e) {
+                                System.out.println("An error occurred while retrieving statistics: " + e.getMessage());
+                            }
+                        }
+                        case "7" -> { // back to central menu
                             return;
                         }
                     }
@@ -381,9 +439,7 @@ public class BTOApplicationCTRL {
      * @return List of {@link BTOApplication} objects for the user.
      */
     public List<BTOApplication> viewUserApplications() {
-        return applicationList.stream()
-                .filter(a -> a.getApplicantNRIC().equals(currentUser.getNRIC()))
-                .collect(Collectors.toList());
+        return new ArrayList<>(store.getApplicationsByApplicant(currentUser.getNRIC()));
     }
 
     /**
@@ -396,9 +452,8 @@ public class BTOApplicationCTRL {
      */
     public boolean apply(int projectId, FlatType flatType) {
         // already applied?
-        boolean hasActiveApplication = applicationList.stream()
-                .anyMatch(a -> a.getApplicantNRIC().equalsIgnoreCase(currentUser.getNRIC())
-                        && a.getApplicationType() == ApplicationType.APPLICATION
+        boolean hasActiveApplication = store.getApplicationsByApplicant(currentUser.getNRIC()).stream()
+                .anyMatch(a -> a.getApplicationType() == ApplicationType.APPLICATION
                         && a.getStatus() != ApplicationStatus.UNSUCCESSFUL); // Check if status is NOT UNSUCCESSFUL
 
         if (hasActiveApplication) {
@@ -408,9 +463,8 @@ public class BTOApplicationCTRL {
         }
 
         // find project
-        BTOProject proj = projects.stream()
-                .filter(p -> p.getProjectID() == projectId && p.isVisibility())
-                .findFirst()
+        BTOProject proj = Optional.ofNullable(store.getProject(projectId))
+                .filter(BTOProject::isVisibility)
                 .orElse(null);
         if (proj == null) {
             System.out.println("Project not found or not available for application.");
@@ -466,15 +520,14 @@ public class BTOApplicationCTRL {
 
         // create & persist
         BTOApplication app = new BTOApplication();
-        app.setApplicationId(getNextProjectID());
+        app.setApplicationId(store.nextApplicationId());
         app.setApplicantNRIC(currentUser.getNRIC());
         app.setProjectID(projectId);
         app.setApplicationType(ApplicationType.APPLICATION);
         app.setStatus(ApplicationStatus.PENDING);
         app.setFlatType(flatType.name());
 
-        applicationList.add(app);
-        appRepo.writeApplicationToCSV(applicationList);
+        store.addApplication(app);
         return true;
     }
 
@@ -484,32 +537,38 @@ public class BTOApplicationCTRL {
      * @param applicationId The application ID to withdraw.
      * @return true if withdrawal was successful, false otherwise.
      */
+    @SuppressWarnings("try") // the project lock is held for the whole block
     public boolean withdraw(int applicationId) {
         try {
-            var appOpt = applicationList.stream()
-                    .filter(a -> a.getApplicationId() == applicationId
-                            && a.getApplicantNRIC().equals(currentUser.getNRIC()))
-                    .findFirst();
+            var appOpt = Optional.ofNullable(store.getApplication(applicationId))
+                    .filter(a -> a.getApplicantNRIC().equals(currentUser.getNRIC()));
             if (appOpt.isEmpty()) {
                 System.out.println("Application not found or not owned by you.");
                 return false;
             }
             BTOApplication app = appOpt.get();
-            // Check if application is already withdrawn
-            if (app.getApplicationType() == ApplicationType.WITHDRAWAL) {
-                if (app.getStatus() == ApplicationStatus.UNSUCCESSFUL) {
-                    System.out.println("Application is already withdrawn.");
-                    return false;
-                } else if (app.getStatus() == ApplicationStatus.PENDING) {
-                    System.out.println("Withdrawal is already processing.");
-                    return false;
-                }
+            // Under the project lock bookings take, so a booking of this
+            // application cannot interleave with the withdrawal
+            try (var lock = store.lockProjects(app.getProjectID())) {
+                return store.batch(() -> {
+                    // Check if application is already withdrawn
+                    if (app.getApplicationType() == ApplicationType.WITHDRAWAL) {
+                        if (app.getStatus() == ApplicationStatus.UNSUCCESSFUL) {
+                            System.out.println("Application is already withdrawn.");
+                            return false;
+                        } else if (app.getStatus() == ApplicationStatus.PENDING) {
+                            System.out.println("Withdrawal is already processing.");
+                            return false;
+                        }
+                    }
+                    // Set type to WITHDRAWAL and update status
+                    app.setApplicationType(ApplicationType.WITHDRAWAL);
+                    app.setStatus(ApplicationStatus.PENDING);
+                    store.recordApplicationTypeChange(app);
+                    store.recordApplicationStatusChange(app);
+                    return true;
+                });
             }
-            // Set type to WITHDRAWAL and update status
-            app.setApplicationType(ApplicationType.WITHDRAWAL);
-            app.setStatus(ApplicationStatus.PENDING);
-            appRepo.writeApplicationToCSV(applicationList);
-            return true;
         } catch (Exception e) {
             System.out.println("An error occurred while processing withdrawal: " + e.getMessage());
             return false;
@@ -517,27 +576,25 @@ public class BTOApplicationCTRL {
     }
 
     /**
-     * Utility to pick the next unique application ID.
+     * Gets all applications handled by the current manager.
      * 
-     * @return The next available application ID.
+     * @return List of {@link BTOApplication} objects.
      */
-    private int getNextProjectID() {
-        return applicationList.stream()
-                .mapToInt(BTOApplication::getApplicationId)
-                .max()
-                .orElse(0) + 1;
+    public List<BTOApplication> getApplicationsHandledByManager() {
+        return store.getApplicationsForManager(currentUser.getNRIC(), null);
     }
 
     /**
-     * Gets all applications handled by the current manager.
+     * Gets the pending applications of one type to the current manager's
+     * projects.
      * 
+     * @param type {@link ApplicationType#APPLICATION} for new applications, or
+     *             {@link ApplicationType#WITHDRAWAL} for withdrawal requests.
      * @return List of {@link BTOApplication} objects.
      */
-    public List<BTOApplication> getApplicationsHandledByManager() {
-        return applicationList.stream()
-                .filter(app -> projects.stream()
-                        .anyMatch(proj -> proj.getProjectID() == app.getProjectID() &&
-                                proj.getManagerID().equals(currentUser.getNRIC())))
+    public List<BTOApplication> getPendingApplicationsHandledByManager(ApplicationType type) {
+        return store.getApplicationsForManager(currentUser.getNRIC(), ApplicationStatus.PENDING).stream()
+                .filter(app -> app.getApplicationType() == type)
                 .collect(Collectors.toList());
     }
 
@@ -549,14 +606,7 @@ public class BTOApplicationCTRL {
      * @return List of {@link BTOApplication} objects.
      */
     public List<BTOApplication> getApplicationsHandledByOfficer() {
-        String officerNRIC = currentUser.getNRIC();
-        return applicationList.stream()
-                .filter(app -> projects.stream()
-                        .filter(proj -> proj.getProjectID() == app.getProjectID()
-                                && proj.getApprovedOfficer() != null)
-                        .anyMatch(proj -> proj.getApprovedOfficer().stream()
-                                .anyMatch(nric -> nric.equalsIgnoreCase(officerNRIC))))
-                .collect(Collectors.toList());
+        return store.getApplicationsForOfficer(currentUser.getNRIC());
     }
 
     /**
@@ -579,13 +629,12 @@ public class BTOApplicationCTRL {
             return false;
         }
 
-        for (BTOApplication app : applicationList) {
-            if (app.getApplicationId() == applicationId && app.getStatus() == ApplicationStatus.PENDING) {
-                app.setStatus(statusToSet);
+        BTOApplication app = store.getApplication(applicationId);
+        if (app != null && app.getStatus() == ApplicationStatus.PENDING) {
+            app.setStatus(statusToSet);
 
-                appRepo.writeApplicationToCSV(applicationList);
-                return true;
-            }
+            store.recordApplicationStatusChange(app);
+            return true;
         }
         return false;
 
@@ -601,10 +650,9 @@ public class BTOApplicationCTRL {
      */
     public boolean processApplicationDecision(int appId, String decision, BTOProjectCTRL projectCTRL) {
 
-        // Retrieve the application from applicationList
-        Optional<BTOApplication> optApp = applicationList.stream()
-                .filter(app -> app.getApplicationId() == appId && app.getStatus() == ApplicationStatus.PENDING)
-                .findFirst();
+        // Retrieve the application by ID
+        Optional<BTOApplication> optApp = Optional.ofNullable(store.getApplication(appId))
+                .filter(app -> app.getStatus() == ApplicationStatus.PENDING);
         if (optApp.isEmpty()) {
             System.out.println("Application not found or not in pending.");
             return false;
@@ -623,35 +671,28 @@ public class BTOApplicationCTRL {
         }
 
         if (decision.equalsIgnoreCase("A")) {
-            String flatType = selectedApp.getFlatType();
+            FlatType flatType = flatTypeOf(selectedApp);
             boolean supplyAvailable = false;
-            if (flatType.equalsIgnoreCase("TWOROOM")) {
-                if (project.getAvailable2Room() > 0) {
-                    supplyAvailable = true;
-                    project.setAvailable2Room(project.getAvailable2Room() - 1);
-                } else {
-                    System.out.println("No 2-Room flats remaining for approval.");
-                }
-            } else if (flatType.equalsIgnoreCase("THREEROOM")) {
-                if (project.getAvailable3Room() > 0) {
-                    supplyAvailable = true;
-                    project.setAvailable3Room(project.getAvailable3Room() - 1);
-                } else {
-                    System.out.println("No 3-Room flats remaining for approval.");
-                }
+            if (flatType == null) {
+                System.out.println("Invalid flat type in application: " + selectedApp.getFlatType());
+            } else if (project.reserveFlat(flatType)) {
+                supplyAvailable = true;
             } else {
-                System.out.println("Invalid flat type in application: " + flatType);
+                System.out.println("No " + flatTypeLabel(flatType) + " flats remaining for approval.");
             }
 
             if (supplyAvailable) {
-                // Update project details first.
-                if (projectCTRL.editProject(project.getProjectID(), project)) {
-                    // Now update application status.
-                    return updateApplicationStatus(appId, "SUCCESSFUL");
-                } else {
-                    System.out.println("Failed to update project data with the reduced flat supply.");
-                    return false;
-                }
+                // Persist the reduced supply together with the new status; give the
+                // unit back if the application was decided in the meantime.
+                return store.batch(() -> {
+                    if (!updateApplicationStatus(appId, "SUCCESSFUL")) {
+                        project.releaseFlat(flatType);
+                        System.out.println("Application is no longer pending.");
+                        return false;
+                    }
+                    store.saveProject(project);
+                    return true;
+                });
             }
         } else if (decision.equalsIgnoreCase("R")) {
             return updateApplicationStatus(appId, "UNSUCCESSFUL");
@@ -661,6 +702,138 @@ public class BTOApplicationCTRL {
         return false;
     }
 
+    /**
+     * Gets the pending new applications to one of the current manager's
+     * projects, e.g. all pending 2-Room applications in a project, for a batch
+     * decision.
+     *
+     * @param projectId The project ID.
+     * @param flatType  Only applications for this flat type, or null for all.
+     * @return List of {@link BTOApplication} objects, in ascending ID order.
+     */
+    public List<BTOApplication> getPendingApplicationsForProject(int projectId, FlatType flatType) {
+        return getPendingApplicationsHandledByManager(ApplicationType.APPLICATION).stream()
+                .filter(app -> app.getProjectID() == projectId)
+                .filter(app -> flatType == null || flatTypeOf(app) == flatType)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the live application counts of a project the current manager
+     * manages, read in O(1) from counters the store keeps up to date.
+     *
+     * @param projectId The project ID.
+     * @return The project's {@link ProjectStats}, or null if the project does
+     *         not exist or is managed by someone else.
+     */
+    public ProjectStats getProjectStats(int projectId) {
+        BTOProject project = store.getProject(projectId);
+        if (project == null) {
+            System.out.println("Project not found.");
+            return null;
+        }
+        if (!project.getManagerID().equals(currentUser.getNRIC())) {
+            System.out.println("You can only view statistics for projects you manage.");
+            return null;
+        }
+        return store.getProjectStats(projectId);
+    }
+
+    /**
+     * Approves or rejects several applications as one step.
+     * <p>
+     * The affected projects are locked and every application is checked and
+     * decided in a single pass against the current flat supply, in the order
+     * given; an approval that finds no unit left is reported and skipped, and
+     * the rest carry on. The status changes and the reduced supply of every
+     * changed project are then persisted once, instead of once per
+     * application.
+     * </p>
+     *
+     * @param appIds   The application IDs; duplicates are decided once.
+     * @param decision "A" to approve all, "R" to reject all.
+     * @return One {@link BatchOutcome} per distinct ID, in order; empty if the
+     *         decision is invalid.
+     */
+    @SuppressWarnings("try") // the project locks are held for the whole block
+    public List<BatchOutcome> processApplicationDecisions(List<Integer> appIds, String decision) {
+        boolean approve;
+        if (decision.equalsIgnoreCase("A")) {
+            approve = true;
+        } else if (decision.equalsIgnoreCase("R")) {
+            approve = false;
+        } else {
+            System.out.println("Invalid decision input. Please enter 'A' for approve or 'R' for reject.");
+            return new ArrayList<>();
+        }
+
+        Set<Integer> ids = new LinkedHashSet<>(appIds);
+        Set<Integer> projectIds = new HashSet<>();
+        for (int id : ids) {
+            BTOApplication app = store.getApplication(id);
+            if (app != null) {
+                projectIds.add(app.getProjectID());
+            }
+        }
+
+        try (var lock = store.lockProjects(projectIds)) {
+            return store.batch(() -> {
+                List<BatchOutcome> outcomes = new ArrayList<>(ids.size());
+                Set<BTOProject> changed = new LinkedHashSet<>();
+                for (int id : ids) {
+                    outcomes.add(decide(id, approve, changed));
+                }
+                // One save per changed project; the batch writes each file once
+                for (BTOProject project : changed) {
+                    store.saveProject(project);
+                }
+                return outcomes;
+            });
+        }
+    }
+
+    /**
+     * Decides one application of a batch. Runs inside the batch, with the
+     * application's project locked.
+     *
+     * @param appId   The application ID.
+     * @param approve true to approve, false to reject.
+     * @param changed Receives the project if a flat was reserved.
+     * @return The outcome.
+     */
+    private BatchOutcome decide(int appId, boolean approve, Set<BTOProject> changed) {
+        BTOApplication app = store.getApplication(appId);
+        if (app == null || app.getStatus() != ApplicationStatus.PENDING
+                || app.getApplicationType() != ApplicationType.APPLICATION) {
+            return new BatchOutcome(appId, false, "Application not found or not in pending.");
+        }
+        BTOProject project = store.getProject(app.getProjectID());
+        if (project == null) {
+            return new BatchOutcome(appId, false, "Associated project not found.");
+        }
+        if (!project.getManagerID().equals(currentUser.getNRIC())) {
+            return new BatchOutcome(appId, false,
+                    "You can only approve/reject applications for projects you manage.");
+        }
+        if (!approve) {
+            app.setStatus(ApplicationStatus.UNSUCCESSFUL);
+            store.recordApplicationStatusChange(app);
+            return new BatchOutcome(appId, true, "Rejected.");
+        }
+        FlatType flatType = flatTypeOf(app);
+        if (flatType == null) {
+            return new BatchOutcome(appId, false, "Invalid flat type in application: " + app.getFlatType());
+        }
+        if (!project.reserveFlat(flatType)) {
+            return new BatchOutcome(appId, false,
+                    "No " + flatTypeLabel(flatType) + " flats remaining for approval.");
+        }
+        app.setStatus(ApplicationStatus.SUCCESSFUL);
+        store.recordApplicationStatusChange(app);
+        changed.add(project);
+        return new BatchOutcome(appId, true, "Approved (" + flatTypeLabel(flatType) + ").");
+    }
+
     /**
      * Books a flat for a successful application and updates the application status
      * to BOOKED.
@@ -669,69 +842,67 @@ public class BTOApplicationCTRL {
      * @param projectCTRL   The BTOProjectCTRL instance.
      * @return true if booking was successful, false otherwise.
      */
+    @SuppressWarnings("try") // the project and applicant locks are held for the whole block
     public boolean bookApplication(int applicationId, BTOProjectCTRL projectCTRL) {
 
         // Retrieve the application
-        var appOption = applicationList.stream()
-                .filter(app -> app.getApplicationId() == applicationId)
-                .findFirst();
+        var appOption = Optional.ofNullable(store.getApplication(applicationId));
         if (appOption.isEmpty()) {
             System.out.println("Application not found.");
             return false;
         }
         BTOApplication app = appOption.get();
 
-        // NEW: Check if the applicant already has a booked flat
-        boolean alreadyBooked = applicationList.stream()
-                .filter(a -> a.getApplicantNRIC().equalsIgnoreCase(app.getApplicantNRIC()))
-                .anyMatch(a -> a.getStatus() == ApplicationStatus.BOOKED);
+        // Bookings of the same project, or by the same applicant, are checked
+        // and made one at a time; other bookings run in parallel
+        try (var projectLock = store.lockProjects(app.getProjectID());
+                var applicantLock = store.lockApplicants(List.of(app.getApplicantNRIC()))) {
+            // NEW: Check if the applicant already has a booked flat
+            boolean alreadyBooked = store.getApplicationsByApplicant(app.getApplicantNRIC()).stream()
+                    .anyMatch(a -> a.getStatus() == ApplicationStatus.BOOKED);
 
-        if (alreadyBooked) {
-            System.out.println(
-                    "Applicant " + app.getApplicantNRIC() + " has already booked a flat. Cannot book another.");
-            return false;
-        }
+            if (alreadyBooked) {
+                System.out.println(
+                        "Applicant " + app.getApplicantNRIC() + " has already booked a flat. Cannot book another.");
+                return false;
+            }
 
-        // === GUARD CLAUSE: Check if application is not in SUCCESSFUL state
-        if (app.getStatus() != ApplicationStatus.SUCCESSFUL) {
-            if (app.getStatus() == ApplicationStatus.BOOKED) {
-                System.out.println("Application ID " + applicationId + " has already been booked.");
-            } else {
-                System.out.println("Application ID " + applicationId + " is not marked as SUCCESSFUL. Cannot book.");
+            // === GUARD CLAUSE: Check if application is not in SUCCESSFUL state
+            if (app.getStatus() != ApplicationStatus.SUCCESSFUL) {
+                if (app.getStatus() == ApplicationStatus.BOOKED) {
+                    System.out.println("Application ID " + applicationId + " has already been booked.");
+                } else {
+                    System.out.println(
+                            "Application ID " + applicationId + " is not marked as SUCCESSFUL. Cannot book.");
+                }
+                return false;
             }
-            return false;
-        }
 
-        // Retrieve the associated project
-        BTOProject proj = projectCTRL.getProjectById(app.getProjectID());
+            // Retrieve the associated project
+            BTOProject proj = projectCTRL.getProjectById(app.getProjectID());
 
-        if (proj == null) {
-            System.out.println("Associated project not found.");
-            return false;
-        }
-        // Update available flats as per chosen flat type
-        if (app.getFlatType().equalsIgnoreCase("TWOROOM")) {
-            if (proj.getAvailable2Room() <= 0) {
-                System.out.println("No 2-Room flats remaining for booking.");
+            if (proj == null) {
+                System.out.println("Associated project not found.");
                 return false;
             }
-            proj.setAvailable2Room(proj.getAvailable2Room() - 1);
-        } else if (app.getFlatType().equalsIgnoreCase("THREEROOM")) {
-            if (proj.getAvailable3Room() <= 0) {
-                System.out.println("No 3-Room flats remaining for booking.");
+            // Take a unit of the chosen flat type; atomic, so concurrent bookings cannot oversell
+            FlatType flatType = flatTypeOf(app);
+            if (flatType == null) {
+                System.out.println("Invalid flat type in application.");
                 return false;
             }
-            proj.setAvailable3Room(proj.getAvailable3Room() - 1);
-        } else {
-            System.out.println("Invalid flat type in application.");
-            return false;
+            if (!proj.reserveFlat(flatType)) {
+                System.out.println("No " + flatTypeLabel(flatType) + " flats remaining for booking.");
+                return false;
+            }
+            // Update the application status to BOOKED
+            app.setStatus(ApplicationStatus.BOOKED);
+            // Persist application and project changes together
+            store.batch(() -> {
+                store.recordApplicationStatusChange(app);
+                store.saveProject(proj);
+            });
         }
-        // Update the application status to BOOKED
-        app.setStatus(ApplicationStatus.BOOKED);
-        // Persist application changes
-        appRepo.writeApplicationToCSV(applicationList);
-        // Persist updated project data
-        projectCTRL.saveProjects();
         // Confirmation message
         System.out.println("Application ID " + applicationId + " successfully booked. Status updated to BOOKED.");
         return true;
@@ -744,10 +915,7 @@ public class BTOApplicationCTRL {
      * @return The {@link BTOApplication} object, or null if not found.
      */
     public BTOApplication getApplicationById(int applicationId) {
-        return applicationList.stream()
-                .filter(app -> app.getApplicationId() == applicationId)
-                .findFirst()
-                .orElse(null);
+        return store.getApplication(applicationId);
     }
 
     /**
@@ -797,32 +965,16 @@ public class BTOApplicationCTRL {
                 return false;
             }
             // Create and populate the receipt.
-            ReceiptCSVRepository receiptRepo = new ReceiptCSVRepository();
-            Receipt receipt = new Receipt();
-            User applicant = userCTRL.getUserByNRIC(bookedApp.getApplicantNRIC());
+            User applicant = store.getUser(bookedApp.getApplicantNRIC());
             if (applicant == null) {
                 System.out.println("Applicant details not found.");
                 return false;
             }
-            receipt.setReceiptID(receiptRepo.getNextReceiptID());
-            receipt.setNRIC(bookedApp.getApplicantNRIC());
-            receipt.setApplicantName(applicant.getName());
-            receipt.setAge(applicant.getAge());
-            receipt.setMaritalStatus(applicant.getMaritalStatus());
-            receipt.setFlatType(bookedApp.getFlatType());
-            receipt.setProjectID(bookedProject.getProjectID());
-            receipt.setProjectName(bookedProject.getProjectName());
-            receipt.setNeighborhood(bookedProject.getNeighborhood());
-            receipt.setApplicationOpeningDate(bookedProject.getApplicationOpeningDate());
-            receipt.setApplicationClosingDate(bookedProject.getApplicationClosingDate());
-
-            // Get manager's name
-            User manager = userCTRL.getUserByNRIC(bookedProject.getManagerID());
-            String managerName = (manager != null) ? manager.getName() : bookedProject.getManagerID();
-            receipt.setManager(managerName);
+            Receipt receipt = newReceipt(bookedApp, bookedProject, applicant);
+            receipt.setReceiptID(store.nextReceiptId());
 
             // Write the receipt to CSV.
-            receiptRepo.writeReceiptCSV(receipt);
+            store.addReceipt(receipt);
 
             // Print the generated receipt to the terminal.
             System.out.println("\n=== Generated Receipt ===");
@@ -847,6 +999,143 @@ public class BTOApplicationCTRL {
         }
     }
 
+    /**
+     * Books several successful applications as one step and issues their
+     * receipts.
+     * <p>
+     * The affected projects and applicants are locked and every application
+     * is checked and booked in a single pass, in the order given; one that
+     * cannot be booked (e.g. no unit left) is reported and skipped, and the
+     * rest carry on.
+     * Applicants and managers are looked up by NRIC in the store's index, the
+     * receipts get one block of consecutive IDs and are appended in one write,
+     * and the status changes and reduced supply are persisted once.
+     * </p>
+     *
+     * @param appIds The application IDs; duplicates are booked once.
+     * @return One {@link BatchOutcome} per distinct ID, in order.
+     */
+    @SuppressWarnings("try") // the project and applicant locks are held for the whole block
+    public List<BatchOutcome> bookAndGenerateReceipts(List<Integer> appIds) {
+        Set<Integer> ids = new LinkedHashSet<>(appIds);
+        Set<Integer> projectIds = new HashSet<>();
+        Set<String> applicants = new HashSet<>();
+        for (int id : ids) {
+            BTOApplication app = store.getApplication(id);
+            if (app != null) {
+                projectIds.add(app.getProjectID());
+                applicants.add(app.getApplicantNRIC());
+            }
+        }
+
+        // The applicants are locked too, so single bookings by them in other
+        // projects cannot pass the one-flat check at the same time
+        try (var projectLock = store.lockProjects(projectIds);
+                var applicantLock = store.lockApplicants(applicants)) {
+            return store.batch(() -> {
+                Map<Integer, Receipt> booked = new LinkedHashMap<>();
+                Map<Integer, String> skipped = new HashMap<>();
+                Set<BTOProject> changed = new LinkedHashSet<>();
+                for (int id : ids) {
+                    String reason = book(id, booked, changed);
+                    if (reason != null) {
+                        skipped.put(id, reason);
+                    }
+                }
+                if (!booked.isEmpty()) {
+                    int receiptId = store.nextReceiptIds(booked.size());
+                    for (Receipt receipt : booked.values()) {
+                        receipt.setReceiptID(receiptId++);
+                    }
+                    store.addReceipts(new ArrayList<>(booked.values()));
+                }
+                // One save per changed project; the batch writes each file once
+                for (BTOProject project : changed) {
+                    store.saveProject(project);
+                }
+
+                List<BatchOutcome> outcomes = new ArrayList<>(ids.size());
+                for (int id : ids) {
+                    Receipt receipt = booked.get(id);
+                    outcomes.add(receipt != null
+                            ? new BatchOutcome(id, true, "Booked " + receipt.getFlatType() + " in "
+                                    + receipt.getProjectName() + ", receipt " + receipt.getReceiptID() + ".")
+                            : new BatchOutcome(id, false, skipped.get(id)));
+                }
+                return outcomes;
+            });
+        }
+    }
+
+    /**
+     * Books one application of a bulk booking. Runs inside the batch, with the
+     * application's project and applicant locked.
+     *
+     * @param appId   The application ID.
+     * @param booked  Receives the application's receipt, without an ID yet, if
+     *                it was booked.
+     * @param changed Receives the project if a flat was reserved.
+     * @return null if booked, otherwise why not.
+     */
+    private String book(int appId, Map<Integer, Receipt> booked, Set<BTOProject> changed) {
+        BTOApplication app = store.getApplication(appId);
+        BTOProject project = app == null ? null : store.getProject(app.getProjectID());
+        if (app == null || app.getStatus() != ApplicationStatus.SUCCESSFUL || project == null
+                || project.getApprovedOfficer() == null
+                || project.getApprovedOfficer().stream().noneMatch(currentUser.getNRIC()::equalsIgnoreCase)) {
+            return "Application not found, not successful, or not handled by you.";
+        }
+        boolean alreadyBooked = store.getApplicationsByApplicant(app.getApplicantNRIC()).stream()
+                .anyMatch(a -> a.getStatus() == ApplicationStatus.BOOKED);
+        if (alreadyBooked) {
+            return "Applicant " + app.getApplicantNRIC() + " has already booked a flat. Cannot book another.";
+        }
+        User applicant = store.getUser(app.getApplicantNRIC());
+        if (applicant == null) {
+            return "Applicant details not found.";
+        }
+        FlatType flatType = flatTypeOf(app);
+        if (flatType == null) {
+            return "Invalid flat type in application.";
+        }
+        if (!project.reserveFlat(flatType)) {
+            return "No " + flatTypeLabel(flatType) + " flats remaining for booking.";
+        }
+        app.setStatus(ApplicationStatus.BOOKED);
+        store.recordApplicationStatusChange(app);
+        changed.add(project);
+        booked.put(appId, newReceipt(app, project, applicant));
+        return null;
+    }
+
+    /**
+     * Fills in a receipt for a booked application; the receipt ID is left to
+     * the caller.
+     *
+     * @param app       The booked application.
+     * @param project   Its project.
+     * @param applicant The applicant.
+     * @return The new {@link Receipt}.
+     */
+    private Receipt newReceipt(BTOApplication app, BTOProject project, User applicant) {
+        Receipt receipt = new Receipt();
+        receipt.setNRIC(app.getApplicantNRIC());
+        receipt.setApplicantName(applicant.getName());
+        receipt.setAge(applicant.getAge());
+        receipt.setMaritalStatus(applicant.getMaritalStatus());
+        receipt.setFlatType(app.getFlatType());
+        receipt.setProjectID(project.getProjectID());
+        receipt.setProjectName(project.getProjectName());
+        receipt.setNeighborhood(project.getNeighborhood());
+        receipt.setApplicationOpeningDate(project.getApplicationOpeningDate());
+        receipt.setApplicationClosingDate(project.getApplicationClosingDate());
+
+        // Get manager's name
+        User manager = store.getUser(project.getManagerID());
+        receipt.setManager(manager != null ? manager.getName() : project.getManagerID());
+        return receipt;
+    }
+
     /**
      * Approves a withdrawal application and updates flat availability.
      * 
@@ -854,13 +1143,12 @@ public class BTOApplicationCTRL {
      * @param projectCTRL The BTOProjectCTRL instance.
      * @return true if withdrawal was approved, false otherwise.
      */
+    @SuppressWarnings("try") // the project lock is held for the whole block
     public boolean approveWithdrawalApplication(int appId, BTOProjectCTRL projectCTRL) {
         // Find the pending withdrawal application
-        Optional<BTOApplication> appOpt = applicationList.stream()
-                .filter(app -> app.getApplicationId() == appId
-                        && app.getApplicationType() == ApplicationType.WITHDRAWAL
-                        && app.getStatus() == ApplicationStatus.PENDING)
-                .findFirst();
+        Optional<BTOApplication> appOpt = Optional.ofNullable(store.getApplication(appId))
+                .filter(app -> app.getApplicationType() == ApplicationType.WITHDRAWAL
+                        && app.getStatus() == ApplicationStatus.PENDING);
 
         if (appOpt.isEmpty()) {
             System.out.println("Withdrawal application not found or not pending.");
@@ -879,26 +1167,55 @@ public class BTOApplicationCTRL {
             return false;
         }
 
-        // Increment flat availability
-        switch (withdrawalApp.getFlatType().toUpperCase()) {
-            case "TWOROOM" -> project.setAvailable2Room(project.getAvailable2Room() + 1);
-            case "THREEROOM" -> project.setAvailable3Room(project.getAvailable3Room() + 1);
-            default -> {
-                System.out.println("Unknown flat type: " + withdrawalApp.getFlatType());
+        FlatType flatType = flatTypeOf(withdrawalApp);
+        if (flatType == null) {
+            System.out.println("Unknown flat type: " + withdrawalApp.getFlatType());
+            return false;
+        }
+
+        // Decided under the project lock and re-checked there, so two managers
+        // approving the same withdrawal give the unit back only once
+        try (var lock = store.lockProjects(project.getProjectID())) {
+            boolean approved = store.batch(() -> {
+                if (withdrawalApp.getApplicationType() != ApplicationType.WITHDRAWAL
+                        || withdrawalApp.getStatus() != ApplicationStatus.PENDING) {
+                    System.out.println("Withdrawal application not found or not pending.");
+                    return false;
+                }
+                // Give the unit back, and persist project and application changes together
+                project.releaseFlat(flatType);
+                withdrawalApp.setStatus(ApplicationStatus.SUCCESSFUL);
+                store.saveProject(project);
+                store.recordApplicationStatusChange(withdrawalApp);
+                return true;
+            });
+            if (!approved) {
                 return false;
             }
         }
 
-        // Persist project and application changes
-        projectCTRL.editProject(project.getProjectID(), project);
-        projectCTRL.saveProjects();
-        withdrawalApp.setStatus(ApplicationStatus.SUCCESSFUL);
-        appRepo.writeApplicationToCSV(applicationList);
-
         System.out.println("Withdrawal approved. Application marked as SUCCESSFUL. Available flat type incremented.");
         return true;
     }
 
+    /**
+     * Parses the flat type stored on an application.
+     *
+     * @param app The application.
+     * @return The {@link FlatType}, or null if the stored value is not one.
+     */
+    private static FlatType flatTypeOf(BTOApplication app) {
+        try {
+            return FlatType.valueOf(app.getFlatType().trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    private static String flatTypeLabel(FlatType flatType) {
+        return flatType == FlatType.TWOROOM ? "2-Room" : "3-Room";
+    }
+
     /**
      * Generates a filtered report of all applicants under projects handled by the
      * current manager.
@@ -920,50 +1237,71 @@ public class BTOApplicationCTRL {
             String neighbourhoodFilter,
             List<BTOProject> allProjects,
             UserCTRL userCTRL) {
+        return generateReportRows(maritalFilter, flatTypeFilter, minAge, maxAge, neighbourhoodFilter, allProjects,
+                userCTRL).stream()
+                .map(ApplicantReport.Row::getApplication)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Generates the filtered applicant report like
+     * {@link #generateReport}, with each application's applicant and project
+     * already looked up, so the report can be printed without searching for
+     * them again.
+     * 
+     * @param maritalFilter       Marital status filter.
+     * @param flatTypeFilter      Flat type filter.
+     * @param minAge              Minimum age filter.
+     * @param maxAge              Maximum age filter.
+     * @param neighbourhoodFilter Neighbourhood filter.
+     * @param allProjects         List of all BTO projects.
+     * @param userCTRL            The UserCTRL instance.
+     * @return List of {@link ApplicantReport.Row} objects, in application ID order.
+     */
+    public List<ApplicantReport.Row> generateReportRows(
+            MaritalState maritalFilter,
+            String flatTypeFilter,
+            Integer minAge,
+            Integer maxAge,
+            String neighbourhoodFilter,
+            List<BTOProject> allProjects,
+            UserCTRL userCTRL) {
 
         List<BTOApplication> managerApps = getApplicationsHandledByManager(); // existing method
         if (managerApps == null || managerApps.isEmpty()) {
             return new ArrayList<>();
         }
+        return new ApplicantReport(maritalFilter, flatTypeFilter, minAge, maxAge, neighbourhoodFilter)
+                .run(managerApps, allProjects, userCTRL::getUserByNRIC);
+    }
 
-        List<BTOApplication> filteredApps = new ArrayList<>();
-        for (BTOApplication app : managerApps) {
-            // Only consider main applications (skip withdrawals)
-            if (app.getApplicationType() != ApplicationType.APPLICATION) {
-                continue;
-            }
-
-            // Get applicant details
-            User applicant = userCTRL.getUserByNRIC(app.getApplicantNRIC());
-            if (applicant == null) {
-                continue;
-            }
-
-            // Get project details
-            Optional<BTOProject> projectOpt = allProjects.stream()
-                    .filter(p -> p.getProjectID() == app.getProjectID())
-                    .findFirst();
-            if (projectOpt.isEmpty()) {
-                continue;
-            }
-            BTOProject project = projectOpt.get();
-
-            // Apply filters:
-            if (maritalFilter != null && applicant.getMaritalStatus() != maritalFilter)
-                continue;
-            if (flatTypeFilter != null && !app.getFlatType().equalsIgnoreCase(flatTypeFilter))
-                continue;
-            if (minAge != null && applicant.getAge() < minAge)
-                continue;
-            if (maxAge != null && applicant.getAge() > maxAge)
-                continue;
-            if (neighbourhoodFilter != null &&
-                    !project.getNeighborhood().toLowerCase().contains(neighbourhoodFilter.toLowerCase()))
-                continue;
-
-            filteredApps.add(app);
-        }
-
-        return filteredApps;
+    /**
+     * Writes the filtered applicant report to a file instead of returning it,
+     * streaming each row out as it is found.
+     * 
+     * @param maritalFilter       Marital status filter.
+     * @param flatTypeFilter      Flat type filter.
+     * @param minAge              Minimum age filter.
+     * @param maxAge              Maximum age filter.
+     * @param neighbourhoodFilter Neighbourhood filter.
+     * @param allProjects         List of all BTO projects.
+     * @param userCTRL            The UserCTRL instance.
+     * @param file                The file to write.
+     * @param format              CSV or NDJSON.
+     * @return What was written, or null if the file could not be written.
+     */
+    public ReportExporter.Summary exportReport(
+            MaritalState maritalFilter,
+            String flatTypeFilter,
+            Integer minAge,
+            Integer maxAge,
+            String neighbourhoodFilter,
+            List<BTOProject> allProjects,
+            UserCTRL userCTRL,
+            Path file,
+            ReportExporter.Format format) {
+        return new ReportExporter().export(
+                new ApplicantReport(maritalFilter, flatTypeFilter, minAge, maxAge, neighbourhoodFilter),
+                getApplicationsHandledByManager(), allProjects, userCTRL::getUserByNRIC, file, format);
     }
 }
@@ -11,13 +11,13 @@ import entity.User;
 import entity.enumerations.FlatType;
 import entity.enumerations.MaritalState;
 import entity.enumerations.Role;
-import entity.repositories.BTOProjectCSVRepository;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import entity.repositories.DataStore;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Scanner;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -31,7 +31,13 @@ import java.util.stream.Collectors;
 public class BTOProjectCTRL {
 
     /**
-     * List of all BTO projects loaded from the repository.
+     * A price-filtered listing starts from the price index only when at most
+     * 1/INDEXED_FRACTION of the projects are in the price range.
+     */
+    private static final int INDEXED_FRACTION = 8;
+
+    /**
+     * List of all BTO projects, shared through the {@link DataStore}.
      */
     private List<BTOProject> projects;
     /**
@@ -39,18 +45,19 @@ public class BTOProjectCTRL {
      */
     private User currentUser;
     /**
-     * Repository for reading/writing BTO project data.
+     * Shared data store used to read and persist project data.
      */
-    private BTOProjectCSVRepository repo = new BTOProjectCSVRepository();
+    private final DataStore store = DataStore.getInstance();
 
     /**
-     * Constructs a BTOProjectCTRL for the given user and loads project data.
+     * Constructs a BTOProjectCTRL for the given user on top of the shared
+     * project list.
      *
      * @param currentUser The currently logged-in user.
      */
     public BTOProjectCTRL(User currentUser) {
         this.currentUser = currentUser;
-        this.projects = repo.readBTOProjectFromCSV();
+        this.projects = store.getProjects();
     }
 
     // --------------------------------------------------------------------------------------------------
@@ -88,8 +95,6 @@ public class BTOProjectCTRL {
                     projectView.displayManagerMenu();
             }
             String c = sc.nextLine().trim();
-            // Update project visibility before filtering/displaying projects
-            projectCTRL.updateProjectVisibility();
             switch (role) {
                 case APPLICANT -> {
                     var availableProjects = projectCTRL.getFilteredProjects();
@@ -463,23 +468,9 @@ public class BTOProjectCTRL {
 
                             // --- Overlap check: prevent overlapping application periods for same manager
                             var managerNRIC = userCTRL.getCurrentUser().getNRIC();
-                            var myProjects = projectCTRL.getAllProjects().stream()
-                                    .filter(project -> project.getManagerID().equals(managerNRIC))
-                                    .toList();
-
-                            // Parse dates for new project
-                            LocalDate newOpen = LocalDate.parse(newProj.getApplicationOpeningDate());
-                            LocalDate newClose = LocalDate.parse(newProj.getApplicationClosingDate());
-
-                            boolean overlaps = myProjects.stream().anyMatch(existing -> {
-                                DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-                                LocalDate existOpen = LocalDate.parse(existing.getApplicationOpeningDate(), formatter);
-                                LocalDate existClose = LocalDate.parse(existing.getApplicationClosingDate(), formatter);
-
-                                // not (existClose < newOpen || newClose < existOpen)
-                                return !(existClose.isBefore(newOpen) || newClose.isBefore(existOpen));
-                            });
+                            boolean overlaps = !projectCTRL.getManagedProjectsOverlapping(managerNRIC,
+                                    newProj.getOpeningDay(), newProj.getClosingDay())
+                                    .isEmpty();
 
                             if (overlaps) {
                                 projectView.showMessage(
@@ -516,17 +507,10 @@ public class BTOProjectCTRL {
 
                             if (!oldOpen.equals(newOpen) || !oldClose.equals(newClose)) {
                                 var managerNRIC = userCTRL.getCurrentUser().getNRIC();
-                                var myProjects = projectCTRL.getAllProjects().stream()
-                                        .filter(project -> project.getManagerID().equals(managerNRIC)
-                                        && project.getProjectID() != id)
-                                        .toList();
-
-                                boolean overlaps = myProjects.stream().anyMatch(other -> {
-                                    String existOpen = other.getApplicationOpeningDate();
-                                    String existClose = other.getApplicationClosingDate();
-                                    // not (existClose < newOpen || newClose < existOpen)
-                                    return !(existClose.compareTo(newOpen) < 0 || newClose.compareTo(existOpen) < 0);
-                                });
+                                boolean overlaps = projectCTRL.getManagedProjectsOverlapping(managerNRIC,
+                                        existing.getOpeningDay(), existing.getClosingDay())
+                                        .stream()
+                                        .anyMatch(other -> other.getProjectID() != id);
 
                                 if (overlaps) {
                                     projectView.showMessage(
@@ -534,6 +518,8 @@ public class BTOProjectCTRL {
                                     // Revert to old dates
                                     existing.setApplicationOpeningDate(oldOpen);
                                     existing.setApplicationClosingDate(oldClose);
+                                    // The other edited fields stay on the project, so keep its indexes in step
+                                    store.projectEdited(existing);
                                     break;
                                 }
                             }
@@ -575,29 +561,34 @@ public class BTOProjectCTRL {
      */
     public BTOProject getProjectById(int id) {
         // If current user is a manager, use their method (for possible future logic)
-        if (currentUser.getRole() == Role.HDBMANAGER) {
-            return projects.stream()
-                    .filter(p -> p.getProjectID() == id && p.getManagerID().equalsIgnoreCase(currentUser.getNRIC()))
-                    .findFirst()
-                    .orElse(null);
+        BTOProject project = store.getProject(id);
+        if (currentUser.getRole() == Role.HDBMANAGER && project != null
+                && !project.getManagerID().equalsIgnoreCase(currentUser.getNRIC())) {
+            return null;
         }
-        // Otherwise, just search the list
-        return projects.stream()
-                .filter(p -> p.getProjectID() == id)
-                .findFirst()
-                .orElse(null);
+        return project;
     }
 
     /**
-     * Returns the next available project ID (max existing ID + 1).
+     * Allocates the next available project ID.
      *
      * @return The next project ID.
      */
     public int getNextProjectID() {
-        return projects.stream()
-                .mapToInt(BTOProject::getProjectID)
-                .max()
-                .orElse(0) + 1;
+        return store.nextProjectId();
+    }
+
+    /**
+     * Finds the projects a manager manages whose application period overlaps
+     * the given one, using the store's period index.
+     *
+     * @param managerNRIC The manager's NRIC.
+     * @param open        Opening day, as an epoch day.
+     * @param close       Closing day, as an epoch day.
+     * @return The overlapping projects.
+     */
+    public List<BTOProject> getManagedProjectsOverlapping(String managerNRIC, long open, long close) {
+        return store.getManagedProjectsOverlapping(managerNRIC, open, close);
     }
 
     /**
@@ -606,8 +597,8 @@ public class BTOProjectCTRL {
      * @param p The new {@link BTOProject} to add.
      */
     public void createProject(BTOProject p) {
-        projects.add(p);
-        repo.writeBTOProjectToCSV(projects);
+        store.addProject(p);
+        ProjectVisibilityScheduler.getInstance().reschedule(p);
     }
 
     /**
@@ -620,7 +611,7 @@ public class BTOProjectCTRL {
      */
     public boolean editProject(int projectId, BTOProject updated) {
         try {
-            BTOProject existing = getProjectById(projects, projectId);
+            BTOProject existing = store.getProject(projectId);
             if (existing == null) {
                 System.out.println("Project not found.");
                 return false;
@@ -638,8 +629,10 @@ public class BTOProjectCTRL {
             existing.setApplicationClosingDate(updated.getApplicationClosingDate());
             existing.setAvailableOfficerSlots(updated.getAvailableOfficerSlots());
             existing.setVisibility(updated.isVisibility());
+            store.projectEdited(existing);
             
-            repo.writeBTOProjectToCSV(projects);
+            store.saveProjects();
+            ProjectVisibilityScheduler.getInstance().reschedule(existing);
             return true;
         } catch (Exception e) {
             System.out.println("Failed to update project data: " + e.getMessage());
@@ -674,11 +667,11 @@ public class BTOProjectCTRL {
      * @return true if the project was deleted, false otherwise.
      */
     public boolean deleteProject(int projectId) {
-        boolean removed = projects.removeIf(p -> p.getProjectID() == projectId);
-        if (removed) {
-            repo.writeBTOProjectToCSV(projects);
+        if (!store.removeProject(projectId)) {
+            return false;
         }
-        return removed;
+        ProjectVisibilityScheduler.getInstance().forget(projectId);
+        return true;
     }
 
     /**
@@ -689,8 +682,17 @@ public class BTOProjectCTRL {
      * @return List of filtered {@link BTOProject} objects.
      */
     public List<BTOProject> getFilteredProjects() {
+        return select(eligibleForCurrentUser(), null);
+    }
+
+    /**
+     * Builds the role and eligibility rule of {@link #getFilteredProjects()}
+     * for the current user.
+     *
+     * @return The rule, tested once per project.
+     */
+    private Predicate<BTOProject> eligibleForCurrentUser() {
         Role role = currentUser.getRole();
-        List<BTOProject> filtered = new ArrayList<>(); // initialise filtered to an empty list due to error
         switch (role) {
             case APPLICANT -> {
                 MaritalState ms = currentUser.getMaritalStatus();
@@ -698,24 +700,15 @@ public class BTOProjectCTRL {
 
                 if (ms == MaritalState.SINGLE && age >= 35) {
                     // Singles, 35 years old and above, can ONLY apply for 2-Room
-                    filtered = projects.stream()
-                            .filter(BTOProject::isVisibility)
-                            .filter(p -> p.getAvailable2Room() > 0)
-                            .collect(Collectors.toList());
-
+                    return p -> p.isVisibility() && p.getAvailable2Room() > 0;
                 } else if (ms == MaritalState.MARRIED && age >= 21) {
                     // Married, 21 years old and above, can apply for any flat types
                     // (2-Room or 3-Room)
-                    filtered = projects.stream()
-                            .filter(BTOProject::isVisibility)
-                            .filter(p -> p.getAvailable2Room() > 0
-                            || p.getAvailable3Room() > 0)
-                            .collect(Collectors.toList());
-
+                    return p -> p.isVisibility() && (p.getAvailable2Room() > 0 || p.getAvailable3Room() > 0);
                 } else {
                     // Under age or does not match marital state's criteria – no available units to
                     // view.
-                    filtered = new ArrayList<>();
+                    return p -> false;
                 }
             }
             case HDBOFFICER -> {
@@ -724,33 +717,69 @@ public class BTOProjectCTRL {
                 String officerNRIC = currentUser.getNRIC();
 
                 // Only show visible projects that officer is NOT already an approved officer of
-                filtered = projects.stream()
-                        .filter(BTOProject::isVisibility)
-                        .filter(p -> {
-                            var approved = p.getApprovedOfficer();
-                            var pending = p.getPendingOfficer();
-                            boolean notApproved = approved == null
-                                    || approved.stream().noneMatch(nric -> nric.equalsIgnoreCase(officerNRIC));
-                            boolean notPending = pending == null
-                                    || pending.stream().noneMatch(nric -> nric.equalsIgnoreCase(officerNRIC));
-                            boolean flatEligible = false;
-                            if (ms == MaritalState.SINGLE && age >= 35) {
-                                flatEligible = p.getAvailable2Room() > 0;
-                            } else if (ms == MaritalState.MARRIED && age >= 21) {
-                                flatEligible = p.getAvailable2Room() > 0 || p.getAvailable3Room() > 0;
-                            }
-                            return notPending && notApproved && flatEligible;
-                        })
-                        .collect(Collectors.toList());
+                return p -> {
+                    if (!p.isVisibility()) {
+                        return false;
+                    }
+                    var approved = p.getApprovedOfficer();
+                    var pending = p.getPendingOfficer();
+                    boolean notApproved = approved == null
+                            || approved.stream().noneMatch(nric -> nric.equalsIgnoreCase(officerNRIC));
+                    boolean notPending = pending == null
+                            || pending.stream().noneMatch(nric -> nric.equalsIgnoreCase(officerNRIC));
+                    boolean flatEligible = false;
+                    if (ms == MaritalState.SINGLE && age >= 35) {
+                        flatEligible = p.getAvailable2Room() > 0;
+                    } else if (ms == MaritalState.MARRIED && age >= 21) {
+                        flatEligible = p.getAvailable2Room() > 0 || p.getAvailable3Room() > 0;
+                    }
+                    return notPending && notApproved && flatEligible;
+                };
+            }
+            case HDBMANAGER -> {
+                String managerNRIC = currentUser.getNRIC();
+                return p -> p.getManagerID().equalsIgnoreCase(managerNRIC);
+            }
+            default -> {
+                return p -> false;
+            }
+        }
+    }
+
+    /**
+     * Shared pipeline of the project listings: one pass over the candidate
+     * projects, keeping those that pass both the base rule and the user's
+     * filter settings. When the settings limit the price to a narrow range,
+     * the candidates come from the store's price index instead of every
+     * project; a wide range is cheaper to scan.
+     *
+     * @param base Role or ownership rule, or null for every project.
+     * @param fs   The user's filter settings, or null for none.
+     * @return The matching projects, in list order, or by project ID when
+     *         the price index was used.
+     */
+    private List<BTOProject> select(Predicate<BTOProject> base, FilterSettings fs) {
+        List<BTOProject> candidates = projects;
+        Predicate<BTOProject> filter = null;
+        if (fs != null) {
+            filter = fs.toPredicate();
+            if (fs.hasPriceRange()) {
+                List<BTOProject> inRange = store.getProjectsInPriceRange(fs.getPricedFlatType(),
+                        fs.getMinPrice() == null ? Integer.MIN_VALUE : fs.getMinPrice(),
+                        fs.getMaxPrice() == null ? Integer.MAX_VALUE : fs.getMaxPrice());
+                if (inRange.size() <= projects.size() / INDEXED_FRACTION) {
+                    inRange.sort(Comparator.comparingInt(BTOProject::getProjectID));
+                    candidates = inRange;
+                }
+            }
+        }
+        List<BTOProject> selected = new ArrayList<>();
+        for (BTOProject p : candidates) {
+            if ((base == null || base.test(p)) && (filter == null || filter.test(p))) {
+                selected.add(p);
             }
-            case HDBMANAGER ->
-                filtered = projects.stream()
-                        .filter(p -> p.getManagerID().equalsIgnoreCase(currentUser.getNRIC()))
-                        .collect(Collectors.toList());
-            default ->
-                filtered = new ArrayList<>();
         }
-        return filtered;
+        return selected;
     }
 
     /**
@@ -786,11 +815,8 @@ public class BTOProjectCTRL {
      * @return List of filtered {@link BTOProject} objects.
      */
     public List<BTOProject> getFilteredProjectsForUser(User user) {
-        // 1) existing filter (visibility, marital/age)
-        List<BTOProject> base = getFilteredProjects();
-
-        // 2) load user’s saved filter settings
-        FilterSettings fs = FilterSettings.fromCsv(user.getFilterSettings());
+        // 1) user's saved filter settings, compiled once per settings string
+        FilterSettings fs = FilterSettings.cached(user.getFilterSettings());
 
         // check marital/age eligibility
         boolean canSee2 = user.getMaritalStatus() == MaritalState.SINGLE
@@ -808,112 +834,22 @@ public class BTOProjectCTRL {
         if ("2-Room".equals(fs.getRoomType()) && !canSee2) {
             return Collections.emptyList();
         }
-        // 3) apply them
-        return base.stream()
-                .filter(p -> {
-                    // room type filter
-                    if (fs.getRoomType() != null) {
-                        if (fs.getRoomType().equals("2-Room") && p.getAvailable2Room() == 0) {
-                            return false;
-                        }
-                        if (fs.getRoomType().equals("3-Room") && p.getAvailable3Room() == 0) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .filter((BTOProject p) -> {
-                    // price filter (choose correct price)
-                    int price = fs.getRoomType() != null && fs.getRoomType().equals("3-Room")
-                            ? p.getThreeRoomPrice()
-                            : p.getTwoRoomPrice();
-                    if (fs.getMinPrice() != null && price < fs.getMinPrice()) {
-                        return false;
-                    }
-                    if (fs.getMaxPrice() != null && price > fs.getMaxPrice()) {
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
+        // 2) existing filter (visibility, marital/age) and the settings, in one pass
+        return select(eligibleForCurrentUser(), fs);
     }
 
     // Returns a list of projects managed by current user with filter applied
     public List<BTOProject> getFilteredProjectsCreatedbyCurrentManager(User user) {
-        // 1) Get the full list and restrict to projects managed by the current manager.
-        List<BTOProject> base = getAllProjects().stream()
-                .filter(p -> p.getManagerID().equalsIgnoreCase(user.getNRIC()))
-                .collect(Collectors.toList());
-
-        // 2) load user’s saved filter settings
-        FilterSettings fs = FilterSettings.fromCsv(user.getFilterSettings());
-
-        // 3) apply them
-        return base.stream()
-                .filter(p -> {
-                    // room type filter
-                    if (fs.getRoomType() != null) {
-                        if (fs.getRoomType().equals("2-Room") && p.getAvailable2Room() == 0) {
-                            return false;
-                        }
-                        if (fs.getRoomType().equals("3-Room") && p.getAvailable3Room() == 0) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .filter((BTOProject p) -> {
-                    // price filter (choose correct price)
-                    int price = fs.getRoomType() != null && fs.getRoomType().equals("3-Room")
-                            ? p.getThreeRoomPrice()
-                            : p.getTwoRoomPrice();
-                    if (fs.getMinPrice() != null && price < fs.getMinPrice()) {
-                        return false;
-                    }
-                    if (fs.getMaxPrice() != null && price > fs.getMaxPrice()) {
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
+        // Restrict to projects managed by the current manager and apply the saved filter settings
+        String managerNRIC = user.getNRIC();
+        return select(p -> p.getManagerID().equalsIgnoreCase(managerNRIC),
+                FilterSettings.cached(user.getFilterSettings()));
     }
 
     // Return projects filtered by current user (Manager)
     public List<BTOProject> getFilteredProjectsForManager(User user) {
-        // 1) existing filter (visibility, marital/age)
-        List<BTOProject> base = getAllProjects();
-
-        // 2) load user’s saved filter settings
-        FilterSettings fs = FilterSettings.fromCsv(user.getFilterSettings());
-
-        // 3) apply them
-        return base.stream()
-                .filter(p -> {
-                    // room type filter
-                    if (fs.getRoomType() != null) {
-                        if (fs.getRoomType().equals("2-Room") && p.getAvailable2Room() == 0) {
-                            return false;
-                        }
-                        if (fs.getRoomType().equals("3-Room") && p.getAvailable3Room() == 0) {
-                            return false;
-                        }
-                    }
-                    return true;
-                })
-                .filter((BTOProject p) -> {
-                    // price filter (choose correct price)
-                    int price = fs.getRoomType() != null && fs.getRoomType().equals("3-Room")
-                            ? p.getThreeRoomPrice()
-                            : p.getTwoRoomPrice();
-                    if (fs.getMinPrice() != null && price < fs.getMinPrice()) {
-                        return false;
-                    }
-                    if (fs.getMaxPrice() != null && price > fs.getMaxPrice()) {
-                        return false;
-                    }
-                    return true;
-                })
-                .collect(Collectors.toList());
+        // All projects, with the saved filter settings applied
+        return select(null, FilterSettings.cached(user.getFilterSettings()));
     }
 
     /**
@@ -924,39 +860,14 @@ public class BTOProjectCTRL {
      */
     public void updateUserFilterSettings(User user, FilterSettings fs) {
         user.setFilterSettings(fs.toCsv());
-        // assume UserCTRL has saveUserData()
-        new UserCTRL().saveUserData();
-    }
-
-    /**
-     * Updates project visibility based on the current date and each project's
-     * application period. Projects outside their application period are set to
-     * invisible. Changes are persisted to the CSV file.
-     */
-    public void updateProjectVisibility() {
-        // use the correct date format as in our file ("yyyy-MM-dd")
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-        for (BTOProject project : getAllProjects()) {
-            try {
-                LocalDate openingDate = LocalDate.parse(project.getApplicationOpeningDate(), formatter);
-                LocalDate closingDate = LocalDate.parse(project.getApplicationClosingDate(), formatter);
-                if (LocalDate.now().isAfter(closingDate) || LocalDate.now().isBefore(openingDate)) {
-                    project.setVisibility(false);
-                }
-            } catch (Exception e) {
-                System.out.println("Error parsing date for project "
-                        + project.getProjectID() + ": " + e.getMessage());
-            }
-        }
-        // Then persist the changes to the CSV file
-        saveProjects();
+        store.saveUsers();
     }
 
     /**
-     * Persists the current list of projects to the CSV file.
+     * Persists the current list of projects through the shared data store.
      */
     public void saveProjects() {
-        repo.writeBTOProjectToCSV(projects);
+        store.saveProjects();
     }
 
     /**
@@ -7,7 +7,7 @@ import entity.User;
 import entity.enumerations.Role;
 import entity.interfaces.IEnquiryResponse;
 import entity.interfaces.IEnquirySubmission;
-import entity.repositories.EnquiryCSVRepository;
+import entity.repositories.DataStore;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -15,6 +15,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
 import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 /**
@@ -27,30 +28,33 @@ import java.util.stream.Collectors;
  */
 public final class EnquiryCTRL implements IEnquiryResponse, IEnquirySubmission {
 
-    /** List of all enquiries loaded from the repository. */
+    /** Most enquiries one search returns. */
+    private static final int SEARCH_LIMIT = 20;
+
+    /** List of all enquiries, shared through the {@link DataStore}. */
     private List<Enquiry> enquiries;
     /** The currently logged-in user. */
     private final User currentUser;
-    /** Repository for reading/writing enquiry data. */
-    private final EnquiryCSVRepository enquiryRepo = new EnquiryCSVRepository();
+    /** Shared data store used to read and persist enquiry data. */
+    private final DataStore store = DataStore.getInstance();
 
     /**
-     * Loads enquiry data from the CSV repository into the enquiries list.
+     * Attaches the enquiries list to the shared enquiry data.
      */
     public void loadEnquiryData() {
         try {
-            enquiries = enquiryRepo.readEnquiriesFromCSV();
+            enquiries = store.getEnquiries();
         } catch (Exception e) {
             System.err.println("Failed to load enquiry data: " + e.getMessage());
         }
     }
 
     /**
-     * Saves the current enquiries list to the CSV repository.
+     * Saves the current enquiries list through the shared data store.
      */
     public void saveEnquiryData() {
         try {
-            enquiryRepo.writeEnquiriesToCSV(enquiries);
+            store.saveEnquiries();
         } catch (Exception e) {
             System.err.println("Failed to save enquiry data: " + e.getMessage());
         }
@@ -249,7 +253,10 @@ public final class EnquiryCTRL implements IEnquiryResponse, IEnquirySubmission {
                             }
 
                         }
-                        case "5" -> { // back to central menu
+                        case "5" -> { // Search Enquiries
+                            runEnquirySearch(sc, projectList, enquiryView);
+                        }
+                        case "6" -> { // back to central menu
                             return;
                         }
                     }
@@ -288,7 +295,10 @@ public final class EnquiryCTRL implements IEnquiryResponse, IEnquirySubmission {
                                 }
                             }
                         }
-                        case "3" -> { // back to central menu
+                        case "3" -> { // Search Enquiries
+                            runEnquirySearch(sc, projectList, enquiryView);
+                        }
+                        case "4" -> { // back to central menu
                             return;
                         }
                     }
@@ -298,6 +308,60 @@ public final class EnquiryCTRL implements IEnquiryResponse, IEnquirySubmission {
         }
     }
 
+    /**
+     * Prompts for search words and displays the matching enquiries the
+     * current user may see.
+     *
+     * @param sc          Scanner for user input.
+     * @param projectList List of all BTO projects.
+     * @param enquiryView The EnquiryView for displaying results.
+     */
+    private void runEnquirySearch(Scanner sc, List<BTOProject> projectList, EnquiryView enquiryView) {
+        String query = enquiryView.promptSearchQuery(sc);
+        if (query == null || query.isEmpty()) {
+            enquiryView.showMessage("Search cancelled!");
+            return;
+        }
+        var results = searchEnquiries(query, projectList);
+        if (results.isEmpty()) {
+            enquiryView.showMessage("No matching enquiries found.");
+            return;
+        }
+        enquiryView.displayFilteredEnquiries(projectList, results);
+    }
+
+    /**
+     * Searches the text and responses of the enquiries the current user may
+     * see: all enquiries for a manager, enquiries to the projects an officer
+     * handles, and the user's own enquiries.
+     * <p>
+     * Every word of the query must occur; matches are ranked by relevance
+     * through the shared full-text index, so a search does not scan every
+     * enquiry.
+     * </p>
+     * @param query       The words to look for.
+     * @param projectList List of all BTO projects.
+     * @return At most {@value #SEARCH_LIMIT} matching {@link Enquiry} objects, best match first.
+     */
+    public List<Enquiry> searchEnquiries(String query, List<BTOProject> projectList) {
+        String userNRIC = currentUser.getNRIC();
+        Predicate<Enquiry> visible;
+        if (currentUser.getRole() == Role.HDBMANAGER) {
+            visible = e -> true;
+        } else {
+            // Projects the user handles as an approved officer
+            Set<Integer> handledProjectIds = currentUser.getRole() != Role.HDBOFFICER ? Set.of()
+                    : projectList.stream()
+                        .filter(p -> p.getApprovedOfficer().stream()
+                        .anyMatch(officer -> officer.equalsIgnoreCase(userNRIC)))
+                        .map(BTOProject::getProjectID)
+                        .collect(Collectors.toSet());
+            visible = e -> handledProjectIds.contains(e.getProjectId())
+                    || e.getSubmittedByNRIC().equalsIgnoreCase(userNRIC);
+        }
+        return store.searchEnquiries(query, visible, SEARCH_LIMIT);
+    }
+
     /**
      * Finds an enquiry by its ID from a given list.
      * @param enquiries List of enquiries to search.
@@ -409,10 +473,7 @@ public final class EnquiryCTRL implements IEnquiryResponse, IEnquirySubmission {
     public Enquiry createEnquiry(int projectId, String message) {
         try {
             // Generate new enquiry id.
-            int newId = 1;
-            if (enquiries != null && !enquiries.isEmpty()) {
-                newId = enquiries.stream().mapToInt(Enquiry::getEnquiryId).max().getAsInt() + 1;
-            }
+            int newId = store.nextEnquiryId();
             
             // Create and populate new enquiry.
             Enquiry newEnquiry = new Enquiry();
@@ -433,6 +494,7 @@ public final class EnquiryCTRL implements IEnquiryResponse, IEnquirySubmission {
                 enquiries = new ArrayList<>();
             }
             enquiries.add(newEnquiry);
+            store.enquiryChanged(newEnquiry);
             
             // Persist changes.
             saveEnquiryData();
@@ -463,6 +525,7 @@ public final class EnquiryCTRL implements IEnquiryResponse, IEnquirySubmission {
                         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
                         // Update new Enquiry Text with latest edited date & time
                         en.setEnquiryText(newText + " [Edited as of: " + now.format(formatter) + "]");
+                        store.enquiryChanged(en);
 
                         // Persist changes.
                         saveEnquiryData();
@@ -490,6 +553,7 @@ public final class EnquiryCTRL implements IEnquiryResponse, IEnquirySubmission {
                 Enquiry en = iterator.next();
                 if (en.getEnquiryId() == enquiry.getEnquiryId()) {
                     iterator.remove();  // safely remove enquiry
+                    store.enquiryRemoved(en);
                     saveEnquiryData();  // persist changes
                     return true;
                 }
@@ -515,6 +579,7 @@ public final class EnquiryCTRL implements IEnquiryResponse, IEnquirySubmission {
                         DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
                         // Update new Enquiry Text with latest edited date & time
                         en.setResponse(response + " [Responded on: " + now.format(formatter) + "]");
+                        store.enquiryChanged(en);
 
                         // Persist changes.
                         saveEnquiryData();
@@ -3,18 +3,18 @@ package controllers;
 import boundaries.OfficerApplicationView;
 import entity.BTOApplication;
 import entity.BTOProject;
+import entity.EpochTime;
 import entity.OfficerApplication;
+import entity.ProjectWindowIndex;
 import entity.User;
 import entity.enumerations.*;
-import entity.repositories.ApplicationCSVRepository;
-import entity.repositories.BTOProjectCSVRepository;
-import entity.repositories.OfficerApplicationCSVRepository;
-import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import entity.repositories.DataStore;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -27,20 +27,16 @@ import java.util.stream.Collectors;
  */
 public class OfficerApplicationCTRL {
 
-    /** List of all officer applications loaded from the repository. */
+    /** List of all officer applications, shared through the {@link DataStore}. */
     private List<OfficerApplication> officerApplicationList;
-    /** List of all BTO applications loaded from the repository. */
+    /** List of all BTO applications, shared through the {@link DataStore}. */
     private List<BTOApplication> btoApplicationList;
-    /** List of all BTO projects loaded from the repository. */
+    /** List of all BTO projects, shared through the {@link DataStore}. */
     private List<BTOProject> projects;
     /** The currently logged-in user. */
     private User currentUser;
-    /** Repository for officer applications. */
-    private OfficerApplicationCSVRepository officerRepo;
-    /** Repository for BTO applications. */
-    private ApplicationCSVRepository appRepo;
-    /** Repository for BTO projects. */
-    private BTOProjectCSVRepository projRepo;
+    /** Shared data store used to read and persist officer application data. */
+    private final DataStore store = DataStore.getInstance();
 
     /**
      * Gets the role of the current user.
@@ -51,19 +47,16 @@ public class OfficerApplicationCTRL {
     }
 
     /**
-     * Constructs a new OfficerApplicationCTRL and loads all relevant data.
+     * Constructs a new OfficerApplicationCTRL on top of the shared data.
      * @param currentUser The currently logged-in user.
      */
     public OfficerApplicationCTRL(User currentUser) {
         this.currentUser = currentUser;
-        this.officerRepo = new OfficerApplicationCSVRepository();
-        this.appRepo = new ApplicationCSVRepository();
-        this.projRepo = new BTOProjectCSVRepository();
-
-        // Load all data
-        this.officerApplicationList = officerRepo.readOfficerApplicationsFromCSV();
-        this.btoApplicationList = appRepo.readApplicationFromCSV();
-        this.projects = projRepo.readBTOProjectFromCSV();
+
+        // Attach to the shared lists (loaded at most once per process)
+        this.officerApplicationList = store.getOfficerApplications();
+        this.btoApplicationList = store.getApplications();
+        this.projects = store.getProjects();
     }
 
     /**
@@ -225,15 +218,8 @@ public class OfficerApplicationCTRL {
         }
         
         // Check if already approved as officer for another project with overlapping dates
-        boolean isOfficerElsewhere = false;
-        for (BTOProject p : projects) {
-            if (p.getApprovedOfficer() != null &&
-                    p.getApprovedOfficer().contains(currentUser.getNRIC()) &&
-                    datesOverlap(p, project)) {
-                isOfficerElsewhere = true;
-                break;
-            }
-        }
+        boolean isOfficerElsewhere = !store.getOfficerProjectsOverlapping(currentUser.getNRIC(),
+                project.getOpeningDay(), project.getClosingDay()).isEmpty();
 
         if (isOfficerElsewhere) {
             System.out.println("Already an officer for another project with overlapping application period.");
@@ -248,7 +234,7 @@ public class OfficerApplicationCTRL {
 
         // Create new officer application
         OfficerApplication app = new OfficerApplication();
-        app.setOfficerApplicationId(getNextOfficerApplicationID());
+        app.setOfficerApplicationId(store.nextOfficerApplicationId());
         app.setOfficerNRIC(currentUser.getNRIC());
         app.setProjectID(projectId);
         app.setStatus(RegistrationStatus.PENDING);
@@ -263,8 +249,10 @@ public class OfficerApplicationCTRL {
 
         // Save changes
         officerApplicationList.add(app);
-        officerRepo.writeOfficerApplicationsToCSV(officerApplicationList);
-        projRepo.writeBTOProjectToCSV(projects);
+        store.batch(() -> {
+            store.saveOfficerApplications();
+            store.saveProjects();
+        });
 
         return true;
     }
@@ -292,6 +280,7 @@ public class OfficerApplicationCTRL {
      * @param decision "A" for approve, "R" for reject.
      * @return true if successful, false otherwise.
      */
+    @SuppressWarnings("try") // the project locks are held for the whole block
     public boolean processOfficerApplicationDecision(int applicationId, String decision) {
         // Find the application
         Optional<OfficerApplication> appOpt = officerApplicationList.stream()
@@ -323,23 +312,41 @@ public class OfficerApplicationCTRL {
             return false;
         }
 
-        // Check if officer has date conflicts with other approved projects
-        boolean hasDateConflicts = false;
-        List<BTOProject> conflictingProjects = new ArrayList<>();
-
-        for (BTOProject p : projects) {
-            if (p.getProjectID() != project.getProjectID() && // Different project
-                    p.getApprovedOfficer() != null &&
-                    p.getApprovedOfficer().contains(app.getOfficerNRIC()) && // Officer approved in this project
-                    datesOverlap(p, project)) { // Dates overlap
-                hasDateConflicts = true;
-                conflictingProjects.add(p);
+        if (!decision.equalsIgnoreCase("A") && !decision.equalsIgnoreCase("R")) {
+            System.out.println("Invalid decision. Use 'A' to approve or 'R' to reject.");
+            return false;
+        }
+
+        // Lock this project and every project whose application period overlaps it:
+        // approving the officer for one of those at the same time would be a date conflict
+        List<Integer> lockedProjects = new ArrayList<>();
+        lockedProjects.add(project.getProjectID());
+        for (BTOProject p : store.getProjectsOverlapping(project.getOpeningDay(),
+                project.getClosingDay())) {
+            if (p.getProjectID() != project.getProjectID()) {
+                lockedProjects.add(p.getProjectID());
             }
         }
+        try (var lock = store.lockProjects(lockedProjects)) {
+            // Another decision may have been made while waiting for the lock
+            if (app.getStatus() != RegistrationStatus.PENDING) {
+                System.out.println("Application not found or not pending.");
+                return false;
+            }
+
+            // Check if officer has date conflicts with other approved projects
+            List<BTOProject> conflictingProjects = new ArrayList<>();
+
+            for (BTOProject p : store.getOfficerProjectsOverlapping(app.getOfficerNRIC(),
+                    project.getOpeningDay(), project.getClosingDay())) {
+                if (p.getProjectID() != project.getProjectID()) { // Different project
+                    conflictingProjects.add(p);
+                }
+            }
+            boolean hasDateConflicts = !conflictingProjects.isEmpty();
 
-        if (decision.equalsIgnoreCase("A")) {
             // If there are conflicts and trying to approve, only allow rejection
-            if (hasDateConflicts) {
+            if (decision.equalsIgnoreCase("A") && hasDateConflicts) {
                 System.out.println("Cannot approve this application. Officer already has commitments for:");
                 for (BTOProject p : conflictingProjects) {
                     System.out.println("- Project: " + p.getProjectName() +
@@ -350,48 +357,49 @@ public class OfficerApplicationCTRL {
                 return false;
             }
 
-            // Update application status
-            app.setStatus(RegistrationStatus.APPROVED);
-
-            // Update project officer lists
-            List<String> pendingOfficers = project.getPendingOfficer();
-            if (pendingOfficers != null) {
-                pendingOfficers.remove(app.getOfficerNRIC());
-            }
-
-            List<String> approvedOfficers = project.getApprovedOfficer();
-            if (approvedOfficers == null) {
-                approvedOfficers = new ArrayList<>();
-            }
-            approvedOfficers.add(app.getOfficerNRIC());
-
-            project.setPendingOfficer(pendingOfficers);
-            project.setApprovedOfficer(approvedOfficers);
-            // Decrement available officer slots
-            project.setAvailableOfficerSlots(project.getAvailableOfficerSlots() - 1);
+            // Change and save under the store's lock, so no save reads the officer lists half-updated
+            store.batch(() -> {
+                if (decision.equalsIgnoreCase("A")) {
+                    // Update application status
+                    app.setStatus(RegistrationStatus.APPROVED);
 
-        } else if (decision.equalsIgnoreCase("R")) {
-            // Reject application - always allowed, even with no conflicts
-
-            // Update application status
-            app.setStatus(RegistrationStatus.REJECTED);
+                    // Update project officer lists
+                    List<String> pendingOfficers = project.getPendingOfficer();
+                    if (pendingOfficers != null) {
+                        pendingOfficers.remove(app.getOfficerNRIC());
+                    }
 
-            // Remove from pending list
-            List<String> pendingOfficers = project.getPendingOfficer();
-            if (pendingOfficers != null) {
-                pendingOfficers.remove(app.getOfficerNRIC());
-                project.setPendingOfficer(pendingOfficers);
-            }
+                    List<String> approvedOfficers = project.getApprovedOfficer();
+                    if (approvedOfficers == null) {
+                        approvedOfficers = new ArrayList<>();
+                    }
+                    approvedOfficers.add(app.getOfficerNRIC());
+
+                    project.setPendingOfficer(pendingOfficers);
+                    project.setApprovedOfficer(approvedOfficers);
+                    store.projectWindowsChanged();
+                    // Decrement available officer slots
+                    project.setAvailableOfficerSlots(project.getAvailableOfficerSlots() - 1);
+                } else {
+                    // Reject application - always allowed, even with no conflicts
+
+                    // Update application status
+                    app.setStatus(RegistrationStatus.REJECTED);
+
+                    // Remove from pending list
+                    List<String> pendingOfficers = project.getPendingOfficer();
+                    if (pendingOfficers != null) {
+                        pendingOfficers.remove(app.getOfficerNRIC());
+                        project.setPendingOfficer(pendingOfficers);
+                    }
+                }
 
-        } else {
-            System.out.println("Invalid decision. Use 'A' to approve or 'R' to reject.");
-            return false;
+                // Save changes
+                store.saveOfficerApplications();
+                store.saveProjects();
+            });
         }
 
-        // Save changes
-        officerRepo.writeOfficerApplicationsToCSV(officerApplicationList);
-        projRepo.writeBTOProjectToCSV(projects);
-
         return true;
     }
 
@@ -415,84 +423,58 @@ public class OfficerApplicationCTRL {
     }
 
     /**
-     * Checks if the application periods of two projects overlap.
-     *
-     * @param p1 The first project.
-     * @param p2 The second project.
-     * @return true if the periods overlap, false otherwise.
+     * Gets all projects the user can apply to be an officer for, based on eligibility.
+     * @return List of eligible {@link BTOProject} objects.
      */
-    private boolean datesOverlap(BTOProject p1, BTOProject p2) {
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-
-        LocalDate p1Start = LocalDate.parse(p1.getApplicationOpeningDate(), formatter);
-        LocalDate p1End = LocalDate.parse(p1.getApplicationClosingDate(), formatter);
-        LocalDate p2Start = LocalDate.parse(p2.getApplicationOpeningDate(), formatter);
-        LocalDate p2End = LocalDate.parse(p2.getApplicationClosingDate(), formatter);
+    public List<BTOProject> getEligibleOfficerProjects() {
+    long today = EpochTime.today();
 
-        // No overlap if one project ends before the other starts
-        return !(p1End.isBefore(p2Start) || p2End.isBefore(p1Start));
+    // Projects this user has applied to as an applicant
+    Set<Integer> appliedAsApplicant = new HashSet<>();
+    for (BTOApplication a : store.getApplicationsByApplicant(currentUser.getNRIC())) {
+        appliedAsApplicant.add(a.getProjectID());
     }
 
-    /**
-     * Gets the next available officer application ID.
-     * @return The next officer application ID as an integer.
-     */
-    private int getNextOfficerApplicationID() {
-        return officerApplicationList.stream()
-                .mapToInt(OfficerApplication::getOfficerApplicationId)
-                .max()
-                .orElse(0) + 1;
+    // One pass over the officer applications: the projects this user has a
+    // pending or approved officer application for, and the application
+    // periods of the pending ones
+    Set<Integer> appliedAsOfficer = new HashSet<>();
+    List<BTOProject> pendingProjects = new ArrayList<>();
+    for (OfficerApplication a : officerApplicationList) {
+        if (!a.getOfficerNRIC().equals(currentUser.getNRIC()) || a.getStatus() == RegistrationStatus.REJECTED) {
+            continue;
+        }
+        appliedAsOfficer.add(a.getProjectID());
+        if (a.getStatus() == RegistrationStatus.PENDING) {
+            BTOProject pendingProject = store.getProject(a.getProjectID());
+            if (pendingProject != null) {
+                pendingProjects.add(pendingProject);
+            }
+        }
     }
-
-    /**
-     * Gets all projects the user can apply to be an officer for, based on eligibility.
-     * @return List of eligible {@link BTOProject} objects.
-     */
-    public List<BTOProject> getEligibleOfficerProjects() {
-    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd");
-    LocalDate currentDate = LocalDate.now();
+    ProjectWindowIndex pendingWindows = new ProjectWindowIndex(pendingProjects);
 
     return projects.stream()
             .filter(p -> {
-                LocalDate closingDate = LocalDate.parse(p.getApplicationClosingDate(), formatter);
-                boolean stillOpen = !closingDate.isBefore(currentDate);
+                boolean stillOpen = p.getClosingDay() >= today;
                 boolean hasSlots = p.getAvailableOfficerSlots() > 0;
                 return stillOpen && hasSlots;
             })
             .filter(p -> {
                 // Not already applied for this project as applicant
-                boolean notAppliedAsApplicant = btoApplicationList.stream()
-                        .noneMatch(a -> a.getApplicantNRIC().equals(currentUser.getNRIC()) &&
-                                a.getProjectID() == p.getProjectID());
-
-                // Check if officer has any pending or approved applications for this project
-                List<OfficerApplication> userApplicationsForThisProject = officerApplicationList.stream()
-                        .filter(a -> a.getOfficerNRIC().equals(currentUser.getNRIC()) &&
-                                a.getProjectID() == p.getProjectID())
-                        .collect(Collectors.toList());
+                boolean notAppliedAsApplicant = !appliedAsApplicant.contains(p.getProjectID());
 
-                boolean canApplyToProject = userApplicationsForThisProject.isEmpty() ||
-                        userApplicationsForThisProject.stream()
-                                .allMatch(a -> a.getStatus() == RegistrationStatus.REJECTED);
+                // No pending or approved officer application for this project
+                boolean canApplyToProject = !appliedAsOfficer.contains(p.getProjectID());
 
                 // Check for overlapping commitments with approved applications
-                boolean noApprovedOverlaps = projects.stream()
-                        .filter(other -> other.getApprovedOfficer() != null &&
-                                other.getApprovedOfficer().contains(currentUser.getNRIC()))
-                        .noneMatch(other -> datesOverlap(other, p));
+                boolean noApprovedOverlaps = store.getOfficerProjectsOverlapping(currentUser.getNRIC(),
+                        p.getOpeningDay(), p.getClosingDay()).isEmpty();
 
                 // Check for overlapping commitments with pending applications
-                boolean noPendingOverlaps = officerApplicationList.stream()
-                        .filter(a -> a.getOfficerNRIC().equals(currentUser.getNRIC()) &&
-                                a.getStatus() == RegistrationStatus.PENDING &&
-                                a.getProjectID() != p.getProjectID())
-                        .noneMatch(a -> {
-                            BTOProject pendingProject = projects.stream()
-                                    .filter(proj -> proj.getProjectID() == a.getProjectID())
-                                    .findFirst()
-                                    .orElse(null);
-                            return pendingProject != null && datesOverlap(pendingProject, p);
-                        });
+                boolean noPendingOverlaps = pendingWindows
+                        .overlapping(p.getOpeningDay(), p.getClosingDay()).stream()
+                        .allMatch(pendingProject -> pendingProject.getProjectID() == p.getProjectID());
 
                 return notAppliedAsApplicant && canApplyToProject && noApprovedOverlaps && noPendingOverlaps;
             })
@@ -0,0 +1,378 @@
+package controllers;
+
+import entity.BTOProject;
+import entity.repositories.AtomicFileWriter;
+import entity.repositories.DataStore;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps project visibility in step with each project's application period.
+ * <p>
+ * A project is hidden while it is outside its application period. Instead of
+ * checking every project whenever a menu is shown, the scheduler keeps a
+ * priority queue of the next opening and closing boundary of each project,
+ * and a background thread sleeps until the earliest one. When a closing
+ * boundary (the start of the day after the closing date) is reached the
+ * project is hidden; when an opening boundary is reached a project that the
+ * scheduler hid because it had not opened yet is shown again, so a project a
+ * manager created as visible appears on its opening day. A project the
+ * manager hid stays hidden. Changes due at the same moment are saved
+ * together, and nothing is saved when no project changed.
+ * </p>
+ * <p>
+ * Controllers call {@link #reschedule(BTOProject)} after creating or editing a
+ * project and {@link #forget(int)} after deleting one. The IDs of the projects
+ * hidden until they open are kept in a state file, one per line, which is
+ * replaced in the same batch as the projects it describes, so such a project
+ * still appears on its opening day after a restart.
+ * </p>
+ * <p>
+ * Locks are taken in the order: this scheduler, project locks, store. Callers
+ * must therefore not hold a project lock or be inside a store batch.
+ * </p>
+ */
+public class ProjectVisibilityScheduler {
+
+    /** Longest single sleep, so a change to the system clock is noticed within this time. */
+    private static final long MAX_SLEEP_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    /** State file of the shared scheduler. */
+    private static final String STATE_FILE = "assets/ProjectList.hidden";
+
+    private static ProjectVisibilityScheduler instance;
+
+    /** One boundary: the start of {@code day}, when a project's visibility may change. */
+    private static final class Event implements Comparable<Event> {
+        private final long day;
+        private final int projectId;
+        private final int generation;
+
+        Event(long day, int projectId, int generation) {
+            this.day = day;
+            this.projectId = projectId;
+            this.generation = generation;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            return Long.compare(day, other.day);
+        }
+    }
+
+    private final DataStore store;
+    private final Clock clock;
+    /** Path of the file listing the projects hidden until they open. */
+    private final String stateFile;
+    /** Boundaries not yet reached, earliest first. */
+    private final PriorityQueue<Event> events = new PriorityQueue<>();
+    /** Schedule generation of each project; events of an older generation are ignored. */
+    private final Map<Integer, Integer> generations = new HashMap<>();
+    /** Runs {@link #runDue()}, or null if not started. */
+    private ScheduledExecutorService timer;
+    /** The next wake-up, or null if none is armed. */
+    private ScheduledFuture<?> wakeUp;
+    /** Time of {@link #wakeUp}, in epoch milliseconds. */
+    private long wakeUpAt;
+
+    /**
+     * Creates a scheduler for the projects in a store.
+     *
+     * @param store     The store holding the projects.
+     * @param clock     Gives the current date and time zone.
+     * @param stateFile Path of the file listing the projects hidden until
+     *                  they open.
+     */
+    public ProjectVisibilityScheduler(DataStore store, Clock clock, String stateFile) {
+        this.store = store;
+        this.clock = clock;
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * Gets the shared scheduler for the process-wide store and the system
+     * clock.
+     *
+     * @return The shared {@link ProjectVisibilityScheduler}.
+     */
+    public static synchronized ProjectVisibilityScheduler getInstance() {
+        if (instance == null) {
+            instance = new ProjectVisibilityScheduler(DataStore.getInstance(), Clock.systemDefaultZone(),
+                    STATE_FILE);
+        }
+        return instance;
+    }
+
+    /**
+     * Brings every project's visibility up to date with today's date, saves
+     * the projects that changed, and starts the background thread that
+     * handles the following boundaries. Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (timer != null) {
+            return;
+        }
+        List<BTOProject> projects = new ArrayList<>(store.getProjects());
+        for (BTOProject project : projects) {
+            if (!project.hasValidPeriod()) {
+                System.out.println("Error parsing date for project "
+                        + project.getProjectID() + ": invalid application period");
+            }
+        }
+        update(projects, false);
+        timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "project-visibility");
+            thread.setDaemon(true);
+            return thread;
+        });
+        arm();
+    }
+
+    /**
+     * Stops the background thread. Boundaries reached afterwards are not
+     * handled until the scheduler is started again.
+     */
+    public synchronized void stop() {
+        if (timer == null) {
+            return;
+        }
+        timer.shutdownNow();
+        timer = null;
+        wakeUp = null;
+    }
+
+    /**
+     * Applies a project's current application period: hides or shows it as of
+     * today, saving it if it changed, and replaces its scheduled boundaries.
+     * Call after a project is created or its period or visibility is edited.
+     * Does nothing if the scheduler has not been started.
+     *
+     * @param project The new or edited project.
+     */
+    public synchronized void reschedule(BTOProject project) {
+        if (timer == null) {
+            return;
+        }
+        update(List.of(project), true);
+        arm();
+    }
+
+    /**
+     * Drops a deleted project's scheduled boundaries.
+     *
+     * @param projectId The ID of the deleted project.
+     */
+    public synchronized void forget(int projectId) {
+        generations.remove(projectId);
+        arm();
+        store.batch(() -> {
+            Set<Integer> hidden = loadHidden();
+            if (hidden.remove(projectId)) {
+                saveHidden(hidden);
+            }
+        });
+    }
+
+    /** Handles every boundary that has been reached, then sleeps until the next one. */
+    private synchronized void runDue() {
+        if (timer == null) {
+            return;
+        }
+        wakeUp = null;
+        try {
+            long today = today();
+            List<BTOProject> due = new ArrayList<>();
+            Set<Integer> seen = new HashSet<>();
+            while (!events.isEmpty() && events.peek().day <= today) {
+                Event event = events.poll();
+                if (isCurrent(event) && seen.add(event.projectId)) {
+                    BTOProject project = store.getProject(event.projectId);
+                    if (project != null) {
+                        due.add(project);
+                    }
+                }
+            }
+            if (!due.isEmpty()) {
+                update(due, false);
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error updating project visibility: " + e.getMessage());
+        } finally {
+            arm();
+        }
+    }
+
+    /**
+     * Sets the visibility of some projects as of today, saves them once if
+     * any changed, and schedules their next boundaries.
+     *
+     * @param edited true if a manager has just set the projects' visibility,
+     *               which replaces any earlier hiding by this scheduler.
+     */
+    @SuppressWarnings("try") // the project locks are held for the whole block
+    private void update(List<BTOProject> projects, boolean edited) {
+        long today = today();
+        List<Integer> ids = new ArrayList<>(projects.size());
+        for (BTOProject project : projects) {
+            ids.add(project.getProjectID());
+        }
+        try (var lock = store.lockProjects(ids)) {
+            store.batch(() -> {
+                Set<Integer> hidden = loadHidden();
+                boolean hiddenChanged = false;
+                if (edited) {
+                    hiddenChanged = hidden.removeAll(ids);
+                }
+                boolean changed = false;
+                for (BTOProject project : projects) {
+                    int before = hidden.size();
+                    changed |= apply(project, today, hidden);
+                    hiddenChanged |= hidden.size() != before;
+                    schedule(project, today);
+                }
+                if (changed) {
+                    store.saveProjects();
+                }
+                if (hiddenChanged) {
+                    saveHidden(hidden);
+                }
+            });
+        }
+    }
+
+    /**
+     * Reads the IDs of the projects hidden until they open. A missing file
+     * means there are none.
+     */
+    private Set<Integer> loadHidden() {
+        Set<Integer> hidden = new TreeSet<>();
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(Paths.get(stateFile), StandardCharsets.UTF_8);
+        } catch (NoSuchFileException e) {
+            return hidden;
+        } catch (IOException e) {
+            System.out.println("Error reading " + stateFile + ": " + e.getMessage());
+            return hidden;
+        }
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                hidden.add(Integer.parseInt(line.trim()));
+            } catch (NumberFormatException e) {
+                System.out.println("Skipping invalid project ID in " + stateFile + ": " + line);
+            }
+        }
+        return hidden;
+    }
+
+    /** Replaces the state file, together with the other files of the current batch. */
+    private void saveHidden(Set<Integer> hidden) {
+        try (AtomicFileWriter file = AtomicFileWriter.open(stateFile)) {
+            PrintWriter writer = file.writer();
+            for (int id : hidden) {
+                writer.println(id);
+            }
+            file.commit();
+        } catch (IOException e) {
+            System.out.println("Error writing " + stateFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Hides a project outside its period, or shows one this scheduler hid
+     * before it opened once it is open.
+     *
+     * @return true if the project's visibility changed.
+     */
+    private boolean apply(BTOProject project, long today, Set<Integer> hiddenUntilOpen) {
+        if (!project.hasValidPeriod()) {
+            return false;
+        }
+        int id = project.getProjectID();
+        if (today < project.getOpeningDay()) {
+            if (project.isVisibility()) {
+                project.setVisibility(false);
+                hiddenUntilOpen.add(id);
+                return true;
+            }
+        } else if (today > project.getClosingDay()) {
+            hiddenUntilOpen.remove(id);
+            if (project.isVisibility()) {
+                project.setVisibility(false);
+                return true;
+            }
+        } else if (hiddenUntilOpen.remove(id) && !project.isVisibility()) {
+            project.setVisibility(true);
+            return true;
+        }
+        return false;
+    }
+
+    /** Replaces a project's queued boundaries with the ones still ahead of {@code today}. */
+    private void schedule(BTOProject project, long today) {
+        int generation = generations.merge(project.getProjectID(), 1, Integer::sum);
+        if (!project.hasValidPeriod()) {
+            return;
+        }
+        if (today < project.getOpeningDay()) {
+            events.add(new Event(project.getOpeningDay(), project.getProjectID(), generation));
+        }
+        if (today <= project.getClosingDay()) {
+            events.add(new Event(project.getClosingDay() + 1, project.getProjectID(), generation));
+        }
+    }
+
+    private boolean isCurrent(Event event) {
+        Integer generation = generations.get(event.projectId);
+        return generation != null && generation == event.generation;
+    }
+
+    /** Sets the wake-up for the earliest current boundary, replacing any other. */
+    private void arm() {
+        while (!events.isEmpty() && !isCurrent(events.peek())) {
+            events.poll();
+        }
+        if (timer == null || events.isEmpty()) {
+            if (wakeUp != null) {
+                wakeUp.cancel(false);
+                wakeUp = null;
+            }
+            return;
+        }
+        long at = LocalDate.ofEpochDay(events.peek().day).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        if (wakeUp != null) {
+            if (wakeUpAt == at) {
+                return;
+            }
+            wakeUp.cancel(false);
+        }
+        long delay = Math.min(Math.max(0, at - clock.millis()), MAX_SLEEP_MILLIS);
+        wakeUpAt = at;
+        wakeUp = timer.schedule(this::runDue, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private long today() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+}
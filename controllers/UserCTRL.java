@@ -13,8 +13,7 @@ import entity.User;
 import entity.enumerations.MaritalState;
 import entity.enumerations.Role;
 import entity.interfaces.IApplicantRepository;
-import entity.repositories.ApplicantCSVRepository;
-import entity.repositories.UserCSVRepository;
+import entity.repositories.DataStore;
 import java.util.List;
 import java.util.Scanner;
 // No need for regex import if using character checks
@@ -27,19 +26,19 @@ import java.util.Scanner;
  * </p>
  */
 public class UserCTRL {
-    /** List of all users loaded from the repository. */
+    /** List of all users, shared through the {@link DataStore}. */
     private List<User> userList;
     /** The currently logged-in user. */
     private User currentUser;
-    /** Repository for reading/writing user data from/to CSV. */
-    private final UserCSVRepository userRepo = new UserCSVRepository();
+    /** Shared data store holding the live user list. */
+    private final DataStore store = DataStore.getInstance();
 
     //repo for applicant
     private final IApplicantRepository applicantRepository;
     
     // Default Constructor
     public UserCTRL() {
-        this(new ApplicantCSVRepository());
+        this(DataStore.getInstance().getApplicantRepository());
     }
 
     //used for creation of user
@@ -48,10 +47,10 @@ public class UserCTRL {
     }
     
     /**
-     * Loads user data from the CSV repository into the user list.
+     * Loads user data from the shared data store into the user list.
      */
     public void loadUserData() {
-        userList = userRepo.readUserFromCSV();
+        userList = store.getUsers();
     }
 
     /**
@@ -67,13 +66,13 @@ public class UserCTRL {
                 return;
             }
         }
-        userRepo.writeUserToCSV(this.userList);
+        store.saveUsers();
     }
 
   /**
    * The `createNewAccount` function in Java prompts the user to input details for a new account,
    * validates the input, creates an `Applicant` object, and saves it using an
-   * `ApplicantCSVRepository`.
+   * `IApplicantRepository`.
    * 
    * @param sc The `sc` parameter in the `createNewAccount` method is of type `Scanner`. It is used to
    * read input from the user during the account creation process. The `Scanner` class in Java is used
@@ -160,9 +159,10 @@ public class UserCTRL {
         /// Create Applicant object
         Applicant applicant = new Applicant(nric, name, password, age, maritalStatus, "", role, applicantRepository);
 
-        // Save the applicant using the ApplicantCSVRepository
+        // Save the applicant using the configured applicant repository
         try {
             applicant.save();
+            store.addUser(applicant);
             System.out.println("Account created successfully!");
         } catch (Exception e) {
             System.out.println("An error occurred while saving the account: " + e.getMessage());
@@ -212,7 +212,6 @@ public class UserCTRL {
             // --- Common options ---
             switch (opt) {
                 case "1" -> {
-                    projectCTRL.updateProjectVisibility();
                     projectCTRL.runProjectMenu(sc, userCTRL, projectCTRL, projectView, applicationCTRL, officerAppCTRL, officerAppView, enquiryView, enquiryCTRL, btoApplicationView);
                     optionHandled = true;
                 }
@@ -485,12 +484,8 @@ public class UserCTRL {
                 return null;
             }
         }
-        // Proceed with search
-        for (User u : userList) {
-            if (u.getNRIC().equalsIgnoreCase(nric))
-                return u;
-        }
-        return null; // Return null if not found after searching
+        // Look up in the store's NRIC index instead of scanning the list
+        return store.getUser(nric);
     }
 
 }
@@ -0,0 +1,220 @@
+package entity;
+
+import entity.enumerations.ApplicationType;
+import entity.enumerations.MaritalState;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Query behind the manager's applicant report: applications joined with their
+ * applicant and project, filtered by applicant and project attributes.
+ * <p>
+ * The projects are put in a hash map once per query, keeping only those that
+ * pass the neighbourhood filter, and applicants are resolved through an
+ * indexed lookup, so each application costs O(1) instead of a scan of every
+ * user and project. The filters on the application itself (type, flat type)
+ * run before either join, so rejected applications are never looked up.
+ * Large inputs are split into ranges that are filtered in parallel with
+ * fork/join; the rows keep the order of the input.
+ * </p>
+ * <p>
+ * {@link #forEach} streams the rows to a consumer instead, e.g. to export a
+ * national-scale report to a file without holding it in memory.
+ * </p>
+ */
+public class ApplicantReport {
+
+    /** Applications filtered by one task; larger inputs are split. */
+    private static final int LEAF_SIZE = 8192;
+
+    private final MaritalState maritalFilter;
+    private final String flatTypeFilter;
+    private final Integer minAge;
+    private final Integer maxAge;
+    private final String neighbourhoodFilter;
+
+    /**
+     * Creates a report query. A null filter matches everything.
+     *
+     * @param maritalFilter       Applicant marital status.
+     * @param flatTypeFilter      Flat type applied for (case-insensitive).
+     * @param minAge              Minimum applicant age.
+     * @param maxAge              Maximum applicant age.
+     * @param neighbourhoodFilter Text the project neighbourhood must contain
+     *                            (case-insensitive).
+     */
+    public ApplicantReport(MaritalState maritalFilter, String flatTypeFilter, Integer minAge, Integer maxAge,
+            String neighbourhoodFilter) {
+        this.maritalFilter = maritalFilter;
+        this.flatTypeFilter = flatTypeFilter;
+        this.minAge = minAge;
+        this.maxAge = maxAge;
+        this.neighbourhoodFilter = neighbourhoodFilter == null ? null : neighbourhoodFilter.toLowerCase();
+    }
+
+    /** One application in the report, with its applicant and project. */
+    public static final class Row {
+        private final BTOApplication application;
+        private final User applicant;
+        private final BTOProject project;
+
+        private Row(BTOApplication application, User applicant, BTOProject project) {
+            this.application = application;
+            this.applicant = applicant;
+            this.project = project;
+        }
+
+        public BTOApplication getApplication() {
+            return application;
+        }
+
+        public User getApplicant() {
+            return applicant;
+        }
+
+        public BTOProject getProject() {
+            return project;
+        }
+    }
+
+    /**
+     * Runs the query. Applications whose applicant or project cannot be found
+     * are left out, as are withdrawal requests.
+     *
+     * @param applications The applications to report on.
+     * @param projects     The projects they may belong to.
+     * @param users        Looks up a user by NRIC; must be safe to call from
+     *                     several threads at once.
+     * @return The matching rows, in the order of {@code applications}.
+     */
+    public List<Row> run(List<BTOApplication> applications, List<BTOProject> projects,
+            Function<String, User> users) {
+        Map<Integer, BTOProject> projectsById = projectIndex(projects);
+        if (projectsById.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Scan scan = new Scan(applications, 0, applications.size(), projectsById, users);
+        return applications.size() <= LEAF_SIZE ? scan.compute() : ForkJoinPool.commonPool().invoke(scan);
+    }
+
+    /**
+     * Runs the query and hands each row to {@code sink} as soon as it is
+     * found, instead of collecting them, so a report of any size can be
+     * written out with constant memory. Runs on the calling thread.
+     *
+     * @param applications The applications to report on.
+     * @param projects     The projects they may belong to.
+     * @param users        Looks up a user by NRIC.
+     * @param sink         Receives the matching rows, in the order of
+     *                     {@code applications}.
+     * @return The number of rows handed to {@code sink}.
+     */
+    public long forEach(Iterable<BTOApplication> applications, List<BTOProject> projects,
+            Function<String, User> users, Consumer<Row> sink) {
+        Map<Integer, BTOProject> projectsById = projectIndex(projects);
+        if (projectsById.isEmpty()) {
+            return 0;
+        }
+        long count = 0;
+        for (BTOApplication app : applications) {
+            Row row = match(app, projectsById, users);
+            if (row != null) {
+                sink.accept(row);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /** The projects that pass the neighbourhood filter, by project ID. */
+    private Map<Integer, BTOProject> projectIndex(List<BTOProject> projects) {
+        Map<Integer, BTOProject> projectsById = new HashMap<>(projects.size() * 2);
+        for (BTOProject project : projects) {
+            if (neighbourhoodFilter == null
+                    || project.getNeighborhood().toLowerCase().contains(neighbourhoodFilter)) {
+                projectsById.putIfAbsent(project.getProjectID(), project);
+            }
+        }
+        return projectsById;
+    }
+
+    /** Filters and joins one range of the applications. */
+    @SuppressWarnings("serial") // a fork/join task, never serialized
+    private final class Scan extends RecursiveTask<List<Row>> {
+        private final List<BTOApplication> applications;
+        private final int from;
+        private final int to;
+        private final Map<Integer, BTOProject> projectsById;
+        private final Function<String, User> users;
+
+        Scan(List<BTOApplication> applications, int from, int to, Map<Integer, BTOProject> projectsById,
+                Function<String, User> users) {
+            this.applications = applications;
+            this.from = from;
+            this.to = to;
+            this.projectsById = projectsById;
+            this.users = users;
+        }
+
+        @Override
+        protected List<Row> compute() {
+            if (to - from > LEAF_SIZE) {
+                int mid = (from + to) >>> 1;
+                Scan left = new Scan(applications, from, mid, projectsById, users);
+                Scan right = new Scan(applications, mid, to, projectsById, users);
+                left.fork();
+                List<Row> rows = right.compute();
+                List<Row> result = left.join();
+                result.addAll(rows);
+                return result;
+            }
+            List<Row> rows = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                Row row = match(applications.get(i), projectsById, users);
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        }
+    }
+
+    /**
+     * Applies every filter to one application, cheapest first.
+     *
+     * @return The joined row, or null if the application is filtered out.
+     */
+    private Row match(BTOApplication app, Map<Integer, BTOProject> projectsById, Function<String, User> users) {
+        // Only consider main applications (skip withdrawals)
+        if (app.getApplicationType() != ApplicationType.APPLICATION) {
+            return null;
+        }
+        if (flatTypeFilter != null && !flatTypeFilter.equalsIgnoreCase(app.getFlatType())) {
+            return null;
+        }
+        BTOProject project = projectsById.get(app.getProjectID());
+        if (project == null) {
+            return null;
+        }
+        User applicant = users.apply(app.getApplicantNRIC());
+        if (applicant == null) {
+            return null;
+        }
+        if (maritalFilter != null && applicant.getMaritalStatus() != maritalFilter) {
+            return null;
+        }
+        if (minAge != null && applicant.getAge() < minAge) {
+            return null;
+        }
+        if (maxAge != null && applicant.getAge() > maxAge) {
+            return null;
+        }
+        return new Row(app, applicant, project);
+    }
+}
@@ -10,6 +10,8 @@ public class BTOApplication {
     private ApplicationType applicationType;
     private ApplicationStatus status;
     private String flatType;
+    /** Slot of {@link ProjectStats} this application is counted in, or -1 if not counted yet. */
+    private int statsSlot = -1;
 
     // getters & setters for each field:
     public int getApplicationId() {
@@ -60,6 +62,14 @@ public class BTOApplication {
         this.flatType = ft;
     }
 
+    public int getStatsSlot() {
+        return statsSlot;
+    }
+
+    public void setStatsSlot(int slot) {
+        this.statsSlot = slot;
+    }
+
     /**
      * The `toString` method overrides the default implementation to return a formatted string
      * representation of the object's attributes.
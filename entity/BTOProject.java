@@ -1,29 +1,39 @@
 package entity;
 
+import entity.enumerations.FlatType;
 import java.util.List;
+import java.util.Objects;
 
 public class BTOProject {
 
     private int projectID;
     private String projectName;
     private String neighborhood;
-    private int available2Room;
-    private int available3Room;
+    /** Units left per flat type, updated atomically by bookings. */
+    private final FlatInventory inventory = new FlatInventory();
     private int twoRoomPrice;
     private int threeRoomPrice;
     private String applicationOpeningDate;
     private String applicationClosingDate;
+    /** {@link #applicationOpeningDate} as an epoch day, or {@link EpochTime#NONE}. */
+    private long openingDay = EpochTime.NONE;
+    /** {@link #applicationClosingDate} as an epoch day, or {@link EpochTime#NONE}. */
+    private long closingDay = EpochTime.NONE;
     private int availableOfficerSlots;
     private boolean visibility; // default visible, then manager can turn off - bryan
     private String managerID;
     private List<String> pendingOfficer;
     private List<String> approvedOfficer;
 
+    /** Whether a field has changed since the entity was last read or saved. */
+    private volatile boolean dirty = true;
+
     public int getProjectID() {
         return projectID;
     }
 
     public void setProjectID(int projectID) {
+        dirty |= this.projectID != projectID;
         this.projectID = projectID;
     }
 
@@ -32,6 +42,7 @@ public class BTOProject {
     }
 
     public void setProjectName(String projectName) {
+        dirty |= !Objects.equals(this.projectName, projectName);
         this.projectName = projectName;
     }
 
@@ -40,23 +51,49 @@ public class BTOProject {
     }
 
     public void setNeighborhood(String neighborhood) {
+        dirty |= !Objects.equals(this.neighborhood, neighborhood);
         this.neighborhood = neighborhood;
     }
 
     public int getAvailable2Room() {
-        return available2Room;
+        return inventory.get(FlatType.TWOROOM);
     }
 
     public void setAvailable2Room(int available2Room) {
-        this.available2Room = available2Room;
+        dirty |= inventory.set(FlatType.TWOROOM, available2Room) != available2Room;
     }
 
     public int getAvailable3Room() {
-        return available3Room;
+        return inventory.get(FlatType.THREEROOM);
     }
 
     public void setAvailable3Room(int available3Room) {
-        this.available3Room = available3Room;
+        dirty |= inventory.set(FlatType.THREEROOM, available3Room) != available3Room;
+    }
+
+    /**
+     * Atomically takes one unit of a flat type, if any is left. Safe to call
+     * from several threads at once; the count never goes below zero.
+     *
+     * @param type Flat type.
+     * @return true if a unit was taken.
+     */
+    public boolean reserveFlat(FlatType type) {
+        if (inventory.tryReserve(type)) {
+            dirty = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Atomically gives back one unit taken by {@link #reserveFlat(FlatType)}.
+     *
+     * @param type Flat type.
+     */
+    public void releaseFlat(FlatType type) {
+        inventory.release(type);
+        dirty = true;
     }
 
     public int getTwoRoomPrice() {
@@ -64,6 +101,7 @@ public class BTOProject {
     }
 
     public void setTwoRoomPrice(int twoRoomPrice) {
+        dirty |= this.twoRoomPrice != twoRoomPrice;
         this.twoRoomPrice = twoRoomPrice;
     }
 
@@ -72,6 +110,7 @@ public class BTOProject {
     }
 
     public void setThreeRoomPrice(int threeRoomPrice) {
+        dirty |= this.threeRoomPrice != threeRoomPrice;
         this.threeRoomPrice = threeRoomPrice;
     }
 
@@ -80,7 +119,9 @@ public class BTOProject {
     }
 
     public void setApplicationOpeningDate(String applicationOpeningDate) {
+        dirty |= !Objects.equals(this.applicationOpeningDate, applicationOpeningDate);
         this.applicationOpeningDate = applicationOpeningDate;
+        this.openingDay = EpochTime.day(applicationOpeningDate);
     }
 
     public String getApplicationClosingDate() {
@@ -88,7 +129,51 @@ public class BTOProject {
     }
 
     public void setApplicationClosingDate(String applicationClosingDate) {
+        dirty |= !Objects.equals(this.applicationClosingDate, applicationClosingDate);
         this.applicationClosingDate = applicationClosingDate;
+        this.closingDay = EpochTime.day(applicationClosingDate);
+    }
+
+    /**
+     * Gets the first day of the application period, decoded when the date was
+     * set.
+     *
+     * @return The opening date as an epoch day, or {@link EpochTime#NONE} if
+     *         it is missing or invalid.
+     */
+    public long getOpeningDay() {
+        return openingDay;
+    }
+
+    /**
+     * Gets the last day of the application period, decoded when the date was
+     * set.
+     *
+     * @return The closing date as an epoch day, or {@link EpochTime#NONE} if
+     *         it is missing or invalid.
+     */
+    public long getClosingDay() {
+        return closingDay;
+    }
+
+    /**
+     * Tells whether both application dates are valid.
+     *
+     * @return true if the application period is known.
+     */
+    public boolean hasValidPeriod() {
+        return openingDay != EpochTime.NONE && closingDay != EpochTime.NONE;
+    }
+
+    /**
+     * Tells whether the application period includes a day.
+     *
+     * @param day The day, as an epoch day (e.g. {@link EpochTime#today()}).
+     * @return true if the period is valid and runs from on or before
+     *         {@code day} to on or after it.
+     */
+    public boolean isOpenOn(long day) {
+        return hasValidPeriod() && openingDay <= day && day <= closingDay;
     }
 
     public int getAvailableOfficerSlots() {
@@ -96,6 +181,7 @@ public class BTOProject {
     }
 
     public void setAvailableOfficerSlots(int availableOfficerSlots) {
+        dirty |= this.availableOfficerSlots != availableOfficerSlots;
         this.availableOfficerSlots = availableOfficerSlots;
     }
 
@@ -104,6 +190,7 @@ public class BTOProject {
     }
 
     public void setVisibility(boolean visibility) {
+        dirty |= this.visibility != visibility;
         this.visibility = visibility;
     }
 
@@ -112,6 +199,7 @@ public class BTOProject {
     }
 
     public void setManagerID(String managerID) {
+        dirty |= !Objects.equals(this.managerID, managerID);
         this.managerID = managerID;
     }
 
@@ -121,6 +209,8 @@ public class BTOProject {
 
     public void setPendingOfficer(List<String> pendingOfficer) {
         this.pendingOfficer = pendingOfficer;
+        // The list may have been edited in place, so always treat it as a change.
+        dirty = true;
     }
 
     public List<String> getApprovedOfficer() {
@@ -129,6 +219,31 @@ public class BTOProject {
 
     public void setApprovedOfficer(List<String> approvedOfficer) {
         this.approvedOfficer = approvedOfficer;
+        dirty = true;
+    }
+
+    /**
+     * Tells whether this entity has changed since it was last read from or
+     * written to storage. New entities start out dirty.
+     *
+     * @return true if the stored row is out of date.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks this entity as matching its stored row.
+     */
+    public void markClean() {
+        dirty = false;
+    }
+
+    /**
+     * Marks this entity as changed, so the next save writes it.
+     */
+    public void markDirty() {
+        dirty = true;
     }
 
     @Override
@@ -150,9 +265,9 @@ public class BTOProject {
                 projectID,
                 projectName,
                 neighborhood,
-                available2Room,
+                getAvailable2Room(),
                 twoRoomPrice,
-                available3Room,
+                getAvailable3Room(),
                 threeRoomPrice,
                 applicationOpeningDate,
                 applicationClosingDate,
@@ -0,0 +1,41 @@
+package entity;
+
+/**
+ * Result of one item of a batch operation, such as one application in a
+ * manager's batch approval.
+ * <p>
+ * A batch reports an outcome for every item it was given, in order, so the
+ * caller can show which items went through and why the others did not.
+ * </p>
+ */
+public class BatchOutcome {
+
+    private final int id;
+    private final boolean success;
+    private final String message;
+
+    /**
+     * Creates an outcome.
+     *
+     * @param id      ID of the item, e.g. the application ID.
+     * @param success Whether the item was applied.
+     * @param message What was done, or why the item was skipped.
+     */
+    public BatchOutcome(int id, boolean success, String message) {
+        this.id = id;
+        this.success = success;
+        this.message = message;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
@@ -1,5 +1,7 @@
 package entity;
 
+import java.util.Objects;
+
 public class Enquiry {
 
     private int enquiryId;
@@ -9,6 +11,9 @@ public class Enquiry {
     private String response;
     private String timestamp;
 
+    /** Whether a field has changed since the entity was last read or saved. */
+    private boolean dirty = true;
+
     // Getters and Setters
 
     public int getEnquiryId() {
@@ -16,6 +21,7 @@ public class Enquiry {
     }
 
     public void setEnquiryId(int enquiryId) {
+        dirty |= this.enquiryId != enquiryId;
         this.enquiryId = enquiryId;
     }
 
@@ -24,6 +30,7 @@ public class Enquiry {
     }
 
     public void setSubmittedByNRIC(String submittedByNRIC) {
+        dirty |= !Objects.equals(this.submittedByNRIC, submittedByNRIC);
         this.submittedByNRIC = submittedByNRIC;
     }
 
@@ -32,6 +39,7 @@ public class Enquiry {
     }
 
     public void setProjectId(int projectID) {
+        dirty |= this.projectID != projectID;
         this.projectID = projectID;
     }
 
@@ -40,6 +48,7 @@ public class Enquiry {
     }
 
     public void setEnquiryText(String enquiryText) {
+        dirty |= !Objects.equals(this.enquiryText, enquiryText);
         this.enquiryText = enquiryText;
     }
 
@@ -48,6 +57,7 @@ public class Enquiry {
     }
 
     public void setResponse(String response) {
+        dirty |= !Objects.equals(this.response, response);
         this.response = response;
     }
 
@@ -56,6 +66,24 @@ public class Enquiry {
     }
 
     public void setTimestamp(String timestamp) {
+        dirty |= !Objects.equals(this.timestamp, timestamp);
         this.timestamp = timestamp;
     }
+
+    /**
+     * Tells whether this entity has changed since it was last read from or
+     * written to storage. New entities start out dirty.
+     *
+     * @return true if the stored row is out of date.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks this entity as matching its stored row.
+     */
+    public void markClean() {
+        dirty = false;
+    }
 }
@@ -0,0 +1,292 @@
+package entity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Full-text index of enquiries, for finding earlier enquiries and their
+ * answers by the words they contain.
+ * <p>
+ * The text and response of each enquiry are split into terms: runs of letters
+ * and digits, lower-cased, leaving out a few very common English words. For
+ * every term the index keeps a postings list of the IDs of the enquiries
+ * containing it, in ascending order, with the number of times it occurs in
+ * each. A search finds the enquiries containing every term of the query by
+ * walking the shortest of their postings lists and looking the others up by
+ * binary search, so its cost depends on how rare the query terms are rather
+ * than on the number of enquiries. Matches are ranked by BM25, which favours
+ * enquiries where the query terms occur often, terms that are rare across all
+ * enquiries, and shorter texts.
+ * </p>
+ * <p>
+ * The index is updated in place when an enquiry is created, edited, answered
+ * or deleted; see {@link entity.repositories.DataStore#enquiryChanged}. It is
+ * not thread-safe.
+ * </p>
+ */
+public class EnquirySearchIndex {
+
+    /** BM25 term-frequency saturation. */
+    private static final double K1 = 1.2;
+    /** BM25 document-length normalisation. */
+    private static final double B = 0.75;
+
+    /** Words too common to be worth indexing. */
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+            "from", "has", "have", "i", "in", "is", "it", "its", "my", "of", "on", "or", "that", "the", "this",
+            "to", "was", "were", "will", "with");
+
+    /** The enquiries containing one term, by ascending enquiry ID. */
+    private static final class Postings {
+        private final String term;
+        private int[] ids = new int[2];
+        private int[] counts = new int[2];
+        private int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        /** Adds an enquiry, which must not be in the list yet. */
+        void add(int id, int count) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            // New enquiries have the highest IDs, so this is almost always an append
+            int at = size == 0 || ids[size - 1] < id ? size : -Arrays.binarySearch(ids, 0, size, id) - 1;
+            System.arraycopy(ids, at, ids, at + 1, size - at);
+            System.arraycopy(counts, at, counts, at + 1, size - at);
+            ids[at] = id;
+            counts[at] = count;
+            size++;
+        }
+
+        void remove(int id) {
+            int at = Arrays.binarySearch(ids, 0, size, id);
+            if (at < 0) {
+                return;
+            }
+            System.arraycopy(ids, at + 1, ids, at, size - at - 1);
+            System.arraycopy(counts, at + 1, counts, at, size - at - 1);
+            size--;
+        }
+    }
+
+    /** What the index holds for one enquiry. */
+    private static final class Entry {
+        private final Enquiry enquiry;
+        /** The postings lists the enquiry is in. */
+        private final Postings[] postings;
+        /** Number of indexed terms in its text and response, counting repeats. */
+        private final int length;
+
+        Entry(Enquiry enquiry, Postings[] postings, int length) {
+            this.enquiry = enquiry;
+            this.postings = postings;
+            this.length = length;
+        }
+    }
+
+    /** One search match. */
+    private static final class Match {
+        private final Enquiry enquiry;
+        private final double score;
+
+        Match(Enquiry enquiry, double score) {
+            this.enquiry = enquiry;
+            this.score = score;
+        }
+    }
+
+    /** Best match first; equal scores by enquiry ID. */
+    private static final Comparator<Match> RANK = Comparator.comparingDouble((Match m) -> -m.score)
+            .thenComparingInt(m -> m.enquiry.getEnquiryId());
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    /** Sum of the lengths of all indexed enquiries. */
+    private long totalLength;
+
+    /**
+     * Builds the index.
+     *
+     * @param enquiries The enquiries to index.
+     */
+    public EnquirySearchIndex(Collection<Enquiry> enquiries) {
+        List<Enquiry> byId = new ArrayList<>(enquiries);
+        // Adding in ID order keeps every postings list append-only while it is built
+        byId.sort(Comparator.comparingInt(Enquiry::getEnquiryId));
+        for (Enquiry enquiry : byId) {
+            put(enquiry);
+        }
+    }
+
+    /**
+     * Gets the number of enquiries indexed.
+     *
+     * @return The number of enquiries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Indexes an enquiry's current text and response, replacing what was
+     * indexed for it before.
+     *
+     * @param enquiry The new, edited or answered enquiry.
+     */
+    public void put(Enquiry enquiry) {
+        remove(enquiry.getEnquiryId());
+        Map<String, Integer> counts = new HashMap<>();
+        int length = addTerms(enquiry.getEnquiryText(), counts) + addTerms(enquiry.getResponse(), counts);
+        Postings[] lists = new Postings[counts.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> term : counts.entrySet()) {
+            Postings list = postings.computeIfAbsent(term.getKey(), Postings::new);
+            list.add(enquiry.getEnquiryId(), term.getValue());
+            lists[i++] = list;
+        }
+        entries.put(enquiry.getEnquiryId(), new Entry(enquiry, lists, length));
+        totalLength += length;
+    }
+
+    /**
+     * Removes an enquiry from the index.
+     *
+     * @param enquiryId The ID of the deleted enquiry.
+     */
+    public void remove(int enquiryId) {
+        Entry entry = entries.remove(enquiryId);
+        if (entry == null) {
+            return;
+        }
+        for (Postings list : entry.postings) {
+            list.remove(enquiryId);
+            if (list.size == 0) {
+                postings.remove(list.term);
+            }
+        }
+        totalLength -= entry.length;
+    }
+
+    /**
+     * Finds the enquiries whose text or response contains every term of a
+     * query, best match first.
+     *
+     * @param query  The words to look for.
+     * @param filter Which enquiries may be returned.
+     * @param limit  Most enquiries to return.
+     * @return The matching enquiries, or an empty list if the query has no
+     *         indexed terms.
+     */
+    public List<Enquiry> search(String query, Predicate<Enquiry> filter, int limit) {
+        List<Enquiry> found = new ArrayList<>();
+        Map<String, Integer> terms = new LinkedHashMap<>();
+        addTerms(query, terms);
+        if (terms.isEmpty() || limit <= 0) {
+            return found;
+        }
+        Postings[] lists = new Postings[terms.size()];
+        int n = 0;
+        for (String term : terms.keySet()) {
+            Postings list = postings.get(term);
+            if (list == null) {
+                return found; // No enquiry contains this term
+            }
+            lists[n++] = list;
+        }
+        Arrays.sort(lists, Comparator.comparingInt((Postings p) -> p.size));
+
+        int count = entries.size();
+        double averageLength = Math.max(1.0, (double) totalLength / count);
+        double[] idf = new double[n];
+        for (int t = 0; t < n; t++) {
+            idf[t] = Math.log(1 + (count - lists[t].size + 0.5) / (lists[t].size + 0.5));
+        }
+
+        // Worst kept match at the head, so a better one can replace it
+        PriorityQueue<Match> best = new PriorityQueue<>(RANK.reversed());
+        // Candidates come in ID order, so each other list is only searched past its last position
+        int[] from = new int[n];
+        int[] at = new int[n];
+        Postings shortest = lists[0];
+        candidates:
+        for (int i = 0; i < shortest.size; i++) {
+            int id = shortest.ids[i];
+            at[0] = i;
+            for (int t = 1; t < n; t++) {
+                int pos = Arrays.binarySearch(lists[t].ids, from[t], lists[t].size, id);
+                if (pos < 0) {
+                    from[t] = -pos - 1;
+                    if (from[t] == lists[t].size) {
+                        break candidates; // Later candidates have higher IDs and cannot match either
+                    }
+                    continue candidates;
+                }
+                from[t] = pos + 1;
+                at[t] = pos;
+            }
+            Entry entry = entries.get(id);
+            if (!filter.test(entry.enquiry)) {
+                continue;
+            }
+            double norm = K1 * (1 - B + B * entry.length / averageLength);
+            double score = 0;
+            for (int t = 0; t < n; t++) {
+                int tf = lists[t].counts[at[t]];
+                score += idf[t] * tf * (K1 + 1) / (tf + norm);
+            }
+            Match match = new Match(entry.enquiry, score);
+            if (best.size() < limit) {
+                best.add(match);
+            } else if (RANK.compare(match, best.peek()) < 0) {
+                best.poll();
+                best.add(match);
+            }
+        }
+        List<Match> ranked = new ArrayList<>(best);
+        ranked.sort(RANK);
+        for (Match match : ranked) {
+            found.add(match.enquiry);
+        }
+        return found;
+    }
+
+    /**
+     * Splits text into terms and counts each one.
+     *
+     * @return The number of terms found, counting repeats.
+     */
+    private static int addTerms(String text, Map<String, Integer> counts) {
+        if (text == null) {
+            return 0;
+        }
+        int length = 0;
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                term.append(Character.toLowerCase(c));
+            } else if (term.length() > 0) {
+                String word = term.toString();
+                term.setLength(0);
+                if (!STOP_WORDS.contains(word)) {
+                    counts.merge(word, 1, Integer::sum);
+                    length++;
+                }
+            }
+        }
+        return length;
+    }
+}
@@ -0,0 +1,68 @@
+package entity;
+
+import java.time.LocalDate;
+
+/**
+ * Converts the dates stored in the data files to numbers.
+ * <p>
+ * Entities decode their date fields once, when they are set, so comparisons
+ * on hot paths (visibility, eligibility, overlap checks) are plain
+ * {@code long} comparisons instead of a {@link LocalDate#parse} per use. The
+ * fixed-width formats are read digit by digit, which is much cheaper than a
+ * {@code DateTimeFormatter} when a large file is loaded. The stored text is
+ * kept as it is, so the file formats do not change.
+ * </p>
+ */
+public final class EpochTime {
+
+    /** Result for a missing or invalid date; lower than any valid value. */
+    public static final long NONE = Long.MIN_VALUE;
+
+    private EpochTime() {
+    }
+
+    /**
+     * Gets today's date as an epoch day, in the system time zone.
+     *
+     * @return Days since 1970-01-01.
+     */
+    public static long today() {
+        return LocalDate.now().toEpochDay();
+    }
+
+    /**
+     * Decodes a {@code yyyy-MM-dd} date.
+     *
+     * @param date The date.
+     * @return Days since 1970-01-01, or {@link #NONE} if the date is missing
+     *         or invalid.
+     */
+    public static long day(String date) {
+        if (date == null || date.length() != 10 || date.charAt(4) != '-' || date.charAt(7) != '-') {
+            return NONE;
+        }
+        int year = digits(date, 0, 4);
+        int month = digits(date, 5, 7);
+        int day = digits(date, 8, 10);
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return NONE;
+        }
+        // Like the yyyy-MM-dd formatter the files were read with, a day past
+        // the end of the month means the month's last day
+        LocalDate first = LocalDate.of(year, month, 1);
+        return first.withDayOfMonth(Math.min(day, first.lengthOfMonth())).toEpochDay();
+    }
+
+    /** Reads the decimal number in {@code text[from, to)}, or -1 if it is not all digits. */
+    private static int digits(String text, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
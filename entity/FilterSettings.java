@@ -1,9 +1,21 @@
 package entity;
 
+import entity.enumerations.FlatType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
 public class FilterSettings {
+    /** Most parsed settings kept; the cache is emptied when it fills up. */
+    private static final int MAX_CACHED = 1024;
+    /** Parsed settings by settings string, shared by every user with the same settings. */
+    private static final Map<String, FilterSettings> CACHE = new ConcurrentHashMap<>();
+
     private String roomType; // e.g. "2‑Room", "3‑Room" or null = any
     private Integer minPrice; // null = no minimum
     private Integer maxPrice; // null = no maximum
+    /** {@link #toPredicate()}, once built. */
+    private Predicate<BTOProject> predicate;
 
     public FilterSettings(String roomType, Integer minPrice, Integer maxPrice) {
         this.roomType = roomType;
@@ -65,4 +77,77 @@ public class FilterSettings {
         Integer mx = (parts.length > 2 && !parts[2].isBlank()) ? Integer.valueOf(parts[2]) : null;
         return new FilterSettings(room, mn, mx);
     }
-}
\ No newline at end of file
+
+    /**
+     * Parses a saved settings string, or returns the settings already parsed
+     * from an equal string. The result, and the filter it compiles to, are
+     * shared, so listing projects does not re-parse a user's settings.
+     *
+     * @param raw The settings, as stored by {@link #toCsv()}.
+     * @return The parsed settings.
+     * @throws NumberFormatException if a price in {@code raw} is not a number.
+     */
+    public static FilterSettings cached(String raw) {
+        String key = raw == null ? "" : raw;
+        FilterSettings settings = CACHE.get(key);
+        if (settings == null) {
+            settings = fromCsv(key);
+            if (CACHE.size() >= MAX_CACHED) {
+                CACHE.clear();
+            }
+            CACHE.put(key, settings);
+        }
+        return settings;
+    }
+
+    /**
+     * Tells whether these settings limit the price, so a listing can start
+     * from a price index instead of every project.
+     *
+     * @return true if a minimum or maximum price is set.
+     */
+    public boolean hasPriceRange() {
+        return minPrice != null || maxPrice != null;
+    }
+
+    /**
+     * Gets the flat type whose price the price range applies to: 3-Room when
+     * the room type is "3-Room", otherwise 2-Room.
+     *
+     * @return The priced flat type.
+     */
+    public FlatType getPricedFlatType() {
+        return "3-Room".equals(roomType) ? FlatType.THREEROOM : FlatType.TWOROOM;
+    }
+
+    /**
+     * Turns these settings into a filter on projects. The room type is
+     * resolved once, so testing a project compares only ints and allocates
+     * nothing.
+     * <p>
+     * With a room type of "2-Room" or "3-Room", a project must have units of
+     * that type left and that type's price is checked against the price
+     * range; otherwise the 2-Room price is checked.
+     * </p>
+     *
+     * @return The filter, built on first use.
+     */
+    public Predicate<BTOProject> toPredicate() {
+        if (predicate == null) {
+            predicate = buildPredicate();
+        }
+        return predicate;
+    }
+
+    private Predicate<BTOProject> buildPredicate() {
+        int min = minPrice == null ? Integer.MIN_VALUE : minPrice;
+        int max = maxPrice == null ? Integer.MAX_VALUE : maxPrice;
+        if ("3-Room".equals(roomType)) {
+            return p -> p.getAvailable3Room() != 0 && p.getThreeRoomPrice() >= min && p.getThreeRoomPrice() <= max;
+        }
+        if ("2-Room".equals(roomType)) {
+            return p -> p.getAvailable2Room() != 0 && p.getTwoRoomPrice() >= min && p.getTwoRoomPrice() <= max;
+        }
+        return p -> p.getTwoRoomPrice() >= min && p.getTwoRoomPrice() <= max;
+    }
+}
@@ -0,0 +1,70 @@
+package entity;
+
+import entity.enumerations.FlatType;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Units still available in one project, per flat type.
+ * <p>
+ * {@link #tryReserve(FlatType)} takes a unit with a compare-and-set loop, so
+ * concurrent bookings of the same project never oversell and never drive a
+ * count below zero, without holding a lock. Each counter sits in its own
+ * slot of an {@link AtomicIntegerArray}; bookings of different projects touch
+ * different arrays and do not contend at all.
+ * </p>
+ */
+public class FlatInventory {
+
+    private final AtomicIntegerArray available = new AtomicIntegerArray(FlatType.values().length);
+
+    /**
+     * Gets the number of units still available.
+     *
+     * @param type Flat type.
+     * @return Units available, never negative.
+     */
+    public int get(FlatType type) {
+        return available.get(type.ordinal());
+    }
+
+    /**
+     * Sets the number of units available, e.g. when a project is loaded or
+     * edited by its manager.
+     *
+     * @param type  Flat type.
+     * @param units Units available.
+     * @return The previous number of units.
+     */
+    public int set(FlatType type, int units) {
+        return available.getAndSet(type.ordinal(), units);
+    }
+
+    /**
+     * Takes one unit if any is left.
+     *
+     * @param type Flat type.
+     * @return true if a unit was taken; false if none was available.
+     */
+    public boolean tryReserve(FlatType type) {
+        int slot = type.ordinal();
+        int units = available.get(slot);
+        while (units > 0) {
+            int witness = available.compareAndExchange(slot, units, units - 1);
+            if (witness == units) {
+                return true;
+            }
+            units = witness;
+        }
+        return false;
+    }
+
+    /**
+     * Returns one unit taken by {@link #tryReserve(FlatType)}, e.g. when a
+     * booking is withdrawn.
+     *
+     * @param type Flat type.
+     */
+    public void release(FlatType type) {
+        available.incrementAndGet(type.ordinal());
+    }
+}
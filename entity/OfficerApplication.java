@@ -1,6 +1,7 @@
 package entity;
 
 import entity.enumerations.RegistrationStatus;
+import java.util.Objects;
 
 public class OfficerApplication {
     private int officerApplicationID;
@@ -12,11 +13,15 @@ public class OfficerApplication {
     private String projectName;
     private String projectLocation;
 
+    /** Whether a field has changed since the entity was last read or saved. */
+    private boolean dirty = true;
+
     public int getOfficerApplicationId() {
         return officerApplicationID;
     }
 
     public void setOfficerApplicationId(int id) {
+        dirty |= this.officerApplicationID != id;
         this.officerApplicationID = id;
     }
 
@@ -25,6 +30,7 @@ public class OfficerApplication {
     }
 
     public void setOfficerNRIC(String nric) {
+        dirty |= !Objects.equals(this.officerNRIC, nric);
         this.officerNRIC = nric;
     }
 
@@ -33,6 +39,7 @@ public class OfficerApplication {
     }
 
     public void setProjectID(int pid) {
+        dirty |= this.projectID != pid;
         this.projectID = pid;
     }
 
@@ -41,6 +48,7 @@ public class OfficerApplication {
     }
 
     public void setStatus(RegistrationStatus s) {
+        dirty |= this.status != s;
         this.status = s;
     }
 
@@ -61,6 +69,23 @@ public class OfficerApplication {
         this.projectLocation = location;
     }
 
+    /**
+     * Tells whether this entity has changed since it was last read from or
+     * written to storage. New entities start out dirty.
+     *
+     * @return true if the stored row is out of date.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks this entity as matching its stored row.
+     */
+    public void markClean() {
+        dirty = false;
+    }
+
     /**
      * The `toString` method overrides the default behavior to return a formatted string representation
      * of an OfficerApplication object's attributes.
@@ -0,0 +1,119 @@
+package entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * The application periods of a set of projects, indexed to find the projects
+ * whose period overlaps a given one.
+ * <p>
+ * The periods are kept as an interval tree: sorted by opening date, with the
+ * implicit balanced tree over that order recording the latest closing date
+ * under each node. A query skips every subtree that closes before the period
+ * asked about and stops at the first project that opens after it, so it costs
+ * O(log n) per overlapping project found instead of a comparison with every
+ * project. Periods include both their opening and closing day.
+ * </p>
+ * <p>
+ * The index is immutable; the {@link entity.repositories.DataStore} builds a
+ * new one after a project is created, edited or deleted, or an officer is
+ * approved. Projects without a valid period are left out.
+ * </p>
+ */
+public class ProjectWindowIndex {
+
+    /** The projects, by opening date. */
+    private final BTOProject[] projects;
+    /** Opening day of each project, as an epoch day. */
+    private final long[] opens;
+    /** Closing day of each project, as an epoch day. */
+    private final long[] closes;
+    /** Latest closing day of the subtree rooted at each position. */
+    private final long[] maxCloses;
+
+    /**
+     * Builds the index in O(n log n).
+     *
+     * @param projects The projects to index.
+     */
+    public ProjectWindowIndex(Collection<BTOProject> projects) {
+        List<BTOProject> valid = new ArrayList<>(projects.size());
+        for (BTOProject project : projects) {
+            if (project.hasValidPeriod()) {
+                valid.add(project);
+            }
+        }
+        valid.sort(Comparator.comparingLong(BTOProject::getOpeningDay));
+
+        int n = valid.size();
+        this.projects = new BTOProject[n];
+        this.opens = new long[n];
+        this.closes = new long[n];
+        this.maxCloses = new long[n];
+        for (int i = 0; i < n; i++) {
+            BTOProject project = valid.get(i);
+            this.projects[i] = project;
+            this.opens[i] = project.getOpeningDay();
+            this.closes[i] = project.getClosingDay();
+        }
+        buildMaxCloses(0, n);
+    }
+
+    /**
+     * Gets the number of projects indexed.
+     *
+     * @return The number of projects with a valid application period.
+     */
+    public int size() {
+        return projects.length;
+    }
+
+    /**
+     * Finds the projects whose application period overlaps the given one.
+     *
+     * @param open  First day of the period, as an epoch day.
+     * @param close Last day of the period, as an epoch day. A period with
+     *              an {@link EpochTime#NONE} day overlaps nothing.
+     * @return The overlapping projects, by opening date.
+     */
+    public List<BTOProject> overlapping(long open, long close) {
+        List<BTOProject> found = new ArrayList<>();
+        if (open == EpochTime.NONE || close == EpochTime.NONE) {
+            return found;
+        }
+        collect(0, projects.length, open, close, found);
+        return found;
+    }
+
+    /** Fills {@link #maxCloses} for positions [from, to) and returns their maximum. */
+    private long buildMaxCloses(int from, int to) {
+        if (from >= to) {
+            return Long.MIN_VALUE;
+        }
+        int mid = (from + to) >>> 1;
+        long max = Math.max(closes[mid], Math.max(buildMaxCloses(from, mid), buildMaxCloses(mid + 1, to)));
+        maxCloses[mid] = max;
+        return max;
+    }
+
+    /** Adds the overlapping projects among positions [from, to) to {@code found}, in order. */
+    private void collect(int from, int to, long open, long close, List<BTOProject> found) {
+        if (from >= to) {
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        if (maxCloses[mid] < open) {
+            return; // Everything here closes before the period opens
+        }
+        collect(from, mid, open, close, found);
+        if (opens[mid] > close) {
+            return; // This project and everything after it opens after the period closes
+        }
+        if (closes[mid] >= open) {
+            found.add(projects[mid]);
+        }
+        collect(mid + 1, to, open, close, found);
+    }
+}
@@ -1,5 +1,6 @@
 package entity;
 import entity.enumerations.*;
+import java.util.Objects;
 
 public class User {
 
@@ -11,6 +12,9 @@ public class User {
 	private String filterSettings;
 	private Role role;
 
+	/** Whether a field has changed since the entity was last read or saved. */
+	private boolean dirty = true;
+
     // Initialize all fields
     public User(String NRIC, String Name, String password, int age, MaritalState maritalStatus, String filterSettings, Role role) {
         this.NRIC = NRIC;
@@ -33,11 +37,30 @@ public class User {
 
     // Setter method for password only
     public void setPassword(String password) {
+        dirty |= !Objects.equals(this.password, password);
         this.password = password;
     }
 
     //setter method for filtersettings
     public void setFilterSettings(String filterSettings) {
+        dirty |= !Objects.equals(this.filterSettings, filterSettings);
         this.filterSettings = filterSettings;
     }
-}
\ No newline at end of file
+
+    /**
+     * Tells whether this entity has changed since it was last read from or
+     * written to storage. New entities start out dirty.
+     *
+     * @return true if the stored row is out of date.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Marks this entity as matching its stored row.
+     */
+    public void markClean() {
+        dirty = false;
+    }
+}
@@ -0,0 +1,70 @@
+package entity.interfaces;
+
+import entity.BTOApplication;
+import entity.enumerations.ApplicationStatus;
+import java.util.List;
+
+/**
+ * Storage for BTO applications.
+ * <p>
+ * Single changes are recorded as they happen through the {@code record*}
+ * methods; {@link #saveApplications(List)} stores the whole list at once.
+ * </p>
+ */
+public interface IApplicationRepository {
+
+    /**
+     * Loads every application with all recorded changes applied.
+     *
+     * @return List of all {@link BTOApplication} objects.
+     */
+    List<BTOApplication> loadApplications();
+
+    /**
+     * Stores the full application list, replacing what was stored before.
+     *
+     * @param applications All applications.
+     */
+    void saveApplications(List<BTOApplication> applications);
+
+    /**
+     * Records a newly created application.
+     *
+     * @param app The new application.
+     */
+    void recordCreated(BTOApplication app);
+
+    /**
+     * Records a status change.
+     *
+     * @param app The application whose status changed.
+     */
+    void recordStatusChange(BTOApplication app);
+
+    /**
+     * Records an application type change.
+     *
+     * @param app The application whose type changed.
+     */
+    void recordTypeChange(BTOApplication app);
+
+    /**
+     * Gets the number of recorded changes not yet folded into the stored list,
+     * which tells the caller when to call {@link #saveApplications(List)}.
+     *
+     * @return The number of outstanding changes; 0 for storage that applies
+     *         changes in place.
+     */
+    int getJournalSize();
+
+    /**
+     * Finds the applications to projects managed by one manager, using the
+     * storage's own indexes.
+     *
+     * @param managerNRIC NRIC of the projects' manager.
+     * @param status      Only applications with this status, or null for all.
+     * @return The matching application IDs in ascending order, or null if this
+     *         storage has no indexes to answer the query with.
+     */
+    List<Integer> findApplicationIdsByManager(String managerNRIC, ApplicationStatus status);
+}
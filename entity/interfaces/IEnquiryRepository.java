@@ -0,0 +1,24 @@
+package entity.interfaces;
+
+import entity.Enquiry;
+import java.util.List;
+
+/**
+ * Storage for enquiries and their responses.
+ */
+public interface IEnquiryRepository {
+
+    /**
+     * Loads every enquiry.
+     *
+     * @return List of all {@link Enquiry} objects.
+     */
+    List<Enquiry> loadEnquiries();
+
+    /**
+     * Stores the full enquiry list, replacing what was stored before.
+     *
+     * @param enquiries All enquiries.
+     */
+    void saveEnquiries(List<Enquiry> enquiries);
+}
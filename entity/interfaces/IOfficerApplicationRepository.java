@@ -0,0 +1,25 @@
+package entity.interfaces;
+
+import entity.OfficerApplication;
+import java.util.List;
+
+/**
+ * Storage for HDB officers' registrations to handle projects.
+ */
+public interface IOfficerApplicationRepository {
+
+    /**
+     * Loads every officer application.
+     *
+     * @return List of all {@link OfficerApplication} objects.
+     */
+    List<OfficerApplication> loadOfficerApplications();
+
+    /**
+     * Stores the full officer application list, replacing what was stored
+     * before.
+     *
+     * @param applications All officer applications.
+     */
+    void saveOfficerApplications(List<OfficerApplication> applications);
+}
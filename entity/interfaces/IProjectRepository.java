@@ -0,0 +1,25 @@
+package entity.interfaces;
+
+import entity.BTOProject;
+import java.util.List;
+
+/**
+ * Storage for BTO projects, including their pending and approved officers.
+ */
+public interface IProjectRepository {
+
+    /**
+     * Loads every project.
+     *
+     * @return List of all {@link BTOProject} objects.
+     */
+    List<BTOProject> loadProjects();
+
+    /**
+     * Stores the full project list, replacing what was stored before.
+     * Projects missing from the list are deleted.
+     *
+     * @param projects All projects.
+     */
+    void saveProjects(List<BTOProject> projects);
+}
@@ -0,0 +1,42 @@
+package entity.interfaces;
+
+import entity.Receipt;
+import java.util.List;
+
+/**
+ * Storage for flat booking receipts. Receipts are only ever added.
+ */
+public interface IReceiptRepository {
+
+    /**
+     * Loads every receipt.
+     *
+     * @return List of all {@link Receipt} objects.
+     */
+    List<Receipt> loadReceipts();
+
+    /**
+     * Adds a new receipt.
+     *
+     * @param receipt The new receipt.
+     */
+    void saveReceipt(Receipt receipt);
+
+    /**
+     * Adds several new receipts at once, e.g. after a bulk booking.
+     *
+     * @param receipts The new receipts, in ID order.
+     */
+    default void saveReceipts(List<Receipt> receipts) {
+        for (Receipt receipt : receipts) {
+            saveReceipt(receipt);
+        }
+    }
+
+    /**
+     * Returns the ID after the highest stored receipt ID.
+     *
+     * @return The highest receipt ID plus 1, or 1 if there are no receipts.
+     */
+    int getNextReceiptID();
+}
@@ -0,0 +1,24 @@
+package entity.interfaces;
+
+import entity.User;
+import java.util.List;
+
+/**
+ * Storage for user accounts.
+ */
+public interface IUserRepository {
+
+    /**
+     * Loads every user.
+     *
+     * @return List of all {@link User} objects.
+     */
+    List<User> loadUsers();
+
+    /**
+     * Stores the full user list, replacing what was stored before.
+     *
+     * @param users All users.
+     */
+    void saveUsers(List<User> users);
+}
@@ -5,8 +5,6 @@ import entity.enumerations.MaritalState;
 import entity.enumerations.Role;
 import entity.interfaces.IApplicantRepository;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -21,13 +19,13 @@ public class ApplicantCSVRepository implements IApplicantRepository {
     public void saveApplicant(Applicant applicant) {
         try (PrintWriter pw = new PrintWriter(new FileWriter(CSV_FILE, true))) {
             pw.printf("%s,%s,%d,%s,%s,%s,%s%n",
-                    applicant.getName(),
+                    CSVTokenizer.escape(applicant.getName()),
                     applicant.getNRIC(),
                     applicant.getAge(),
                     applicant.getMaritalStatus(),
-                    applicant.getPassword(),
+                    CSVTokenizer.escape(applicant.getPassword()),
                     applicant.getRole(),
-                    applicant.getFilterSettings());
+                    CSVTokenizer.escape(applicant.getFilterSettings()));
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -36,11 +34,10 @@ public class ApplicantCSVRepository implements IApplicantRepository {
     @Override
     public List<Applicant> getAllApplicants() {
         List<Applicant> applicants = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(CSV_FILE))) {
-            String line;
-            br.readLine(); // Skip header line if present
-            while ((line = br.readLine()) != null) {
-                String[] tokens = line.split(",", -1);
+        try (CSVTokenizer csv = CSVTokenizer.open(CSV_FILE)) {
+            String[] tokens;
+            csv.readRecord(); // Skip header line if present
+            while ((tokens = csv.readRecord()) != null) {
                 if (tokens.length < 7) continue; // Skip invalid rows
                 String name = tokens[0].trim();
                 String nric = tokens[1].trim();
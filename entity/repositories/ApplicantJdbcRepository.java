@@ -0,0 +1,46 @@
+package entity.repositories;
+
+import entity.Applicant;
+import entity.enumerations.MaritalState;
+import entity.enumerations.Role;
+import entity.interfaces.IApplicantRepository;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Registers new accounts in the {@code users} table of a {@link JdbcDatabase}.
+ */
+public class ApplicantJdbcRepository implements IApplicantRepository {
+
+    private final JdbcDatabase db;
+
+    public ApplicantJdbcRepository(JdbcDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public void saveApplicant(Applicant applicant) {
+        try {
+            db.update("INSERT INTO users (nric, name, password, age, marital_status, role, filter_settings) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    applicant.getNRIC(), applicant.getName(), applicant.getPassword(), applicant.getAge(),
+                    applicant.getMaritalStatus(), applicant.getRole(), applicant.getFilterSettings());
+        } catch (SQLException e) {
+            throw new StorageException("Error saving applicant " + applicant.getNRIC(), e);
+        }
+    }
+
+    @Override
+    public List<Applicant> getAllApplicants() {
+        try {
+            return db.query(UserJdbcRepository.SELECT + " ORDER BY nric",
+                    rs -> new Applicant(rs.getString(1), rs.getString(2), rs.getString(3), rs.getInt(4),
+                            MaritalState.valueOf(rs.getString(5)), UserJdbcRepository.nullToEmpty(rs, 7),
+                            Role.valueOf(rs.getString(6)), this));
+        } catch (SQLException e) {
+            System.out.println("Error reading applicants: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+}
@@ -2,14 +2,89 @@ package entity.repositories;
 
 import java.io.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import entity.BTOApplication;
 import entity.enumerations.ApplicationStatus;
 import entity.enumerations.ApplicationType;
+import entity.interfaces.IApplicationRepository;
 
-public class ApplicationCSVRepository {
+public class ApplicationCSVRepository implements IApplicationRepository {
     private static final String CSV_FILE = "assets/BTOApplication.csv";
+    private static final String JOURNAL_FILE = "assets/BTOApplication.journal";
+
+    /** Journal of changes made since the CSV snapshot was last written. */
+    private final ApplicationJournal journal = new ApplicationJournal(JOURNAL_FILE);
+
+    /**
+     * Loads the current application state: the CSV snapshot with the journal
+     * tail replayed on top of it.
+     *
+     * @return A List of BTOApplication objects reflecting every recorded change.
+     */
+    @Override
+    public List<BTOApplication> loadApplications() {
+        List<BTOApplication> applications = readApplicationFromCSV();
+        Map<Integer, BTOApplication> byId = new HashMap<>();
+        for (BTOApplication app : applications) {
+            byId.put(app.getApplicationId(), app);
+        }
+        journal.replay(applications, byId);
+        return applications;
+    }
+
+    /**
+     * Records a newly created application in the journal.
+     *
+     * @param app The new application.
+     */
+    @Override
+    public void recordCreated(BTOApplication app) {
+        journal.appendCreated(app);
+    }
+
+    /**
+     * Records a status change in the journal.
+     *
+     * @param app The application whose status changed.
+     */
+    @Override
+    public void recordStatusChange(BTOApplication app) {
+        journal.appendStatusChange(app);
+    }
+
+    /**
+     * Records an application type change in the journal.
+     *
+     * @param app The application whose type changed.
+     */
+    @Override
+    public void recordTypeChange(BTOApplication app) {
+        journal.appendTypeChange(app);
+    }
+
+    /**
+     * Gets the number of journal entries not yet folded into the CSV snapshot.
+     *
+     * @return The journal length in entries.
+     */
+    @Override
+    public int getJournalSize() {
+        return journal.size();
+    }
+
+    /**
+     * The CSV files have no indexes, so this query is left to the caller's
+     * in-memory indexes.
+     *
+     * @return Always null.
+     */
+    @Override
+    public List<Integer> findApplicationIdsByManager(String managerNRIC, ApplicationStatus status) {
+        return null;
+    }
 
     /**
      * This Java function reads BTO applications from a CSV file and populates a list of BTOApplication
@@ -19,16 +94,12 @@ public class ApplicationCSVRepository {
      */
     public List<BTOApplication> readApplicationFromCSV() {
         List<BTOApplication> applications = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(CSV_FILE))) {
+        try (CSVTokenizer csv = CSVTokenizer.open(CSV_FILE)) {
             // Skip header
-            br.readLine();
-
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty())
-                    continue;
+            csv.readRecord();
 
-                String[] data = line.split(",");
+            String[] data;
+            while ((data = csv.readRecord()) != null) {
                 BTOApplication app = new BTOApplication();
                 app.setApplicationId(Integer.parseInt(data[0].trim()));
                 app.setApplicantNRIC(data[1].trim());
@@ -46,15 +117,18 @@ public class ApplicationCSVRepository {
     }
 
     /**
-     * The `writeApplicationToCSV` function writes a list of BTO applications to a CSV file with
-     * specific data fields.
+     * The `saveApplications` function writes a list of BTO applications to a CSV file with
+     * specific data fields. The written file becomes the new snapshot, so the journal is emptied
+     * afterwards.
      * 
      * @param applications A list of BTOApplication objects containing application data such as
      * application ID, applicant NRIC, project ID, application type, status, and flat type. The method
-     * `writeApplicationToCSV` writes this application data to a CSV file.
+     * `saveApplications` writes this application data to a CSV file.
      */
-    public void writeApplicationToCSV(List<BTOApplication> applications) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(CSV_FILE))) {
+    @Override
+    public void saveApplications(List<BTOApplication> applications) {
+        try (AtomicFileWriter out = AtomicFileWriter.open(CSV_FILE)) {
+            PrintWriter pw = out.writer();
             // Write header
             pw.println("applicationID,applicantNRIC,projectID,applicationType,status,flatType");
 
@@ -68,6 +142,9 @@ public class ApplicationCSVRepository {
                         app.getStatus(),
                         app.getFlatType());
             }
+            // Only empty the journal once the new snapshot is durably in place.
+            out.onReplaced(journal::truncate);
+            out.commit();
         } catch (IOException e) {
             System.out.println("Error writing applications: " + e.getMessage());
         }
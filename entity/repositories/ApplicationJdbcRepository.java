@@ -0,0 +1,111 @@
+package entity.repositories;
+
+import entity.BTOApplication;
+import entity.enumerations.ApplicationStatus;
+import entity.enumerations.ApplicationType;
+import entity.interfaces.IApplicationRepository;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BTO application storage in the {@code applications} table of a
+ * {@link JdbcDatabase}. Every change is written to its row straight away, so
+ * there is no journal to compact.
+ */
+public class ApplicationJdbcRepository implements IApplicationRepository {
+
+    private static final String[] COLUMNS = { "applicant_nric", "project_id", "application_type", "status",
+            "flat_type" };
+
+    private final JdbcDatabase db;
+
+    public ApplicationJdbcRepository(JdbcDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<BTOApplication> loadApplications() {
+        try {
+            return db.query("SELECT application_id, applicant_nric, project_id, application_type, status, flat_type "
+                    + "FROM applications ORDER BY application_id", rs -> {
+                        BTOApplication app = new BTOApplication();
+                        app.setApplicationId(rs.getInt(1));
+                        app.setApplicantNRIC(rs.getString(2));
+                        app.setProjectID(rs.getInt(3));
+                        app.setApplicationType(ApplicationType.valueOf(rs.getString(4)));
+                        app.setStatus(ApplicationStatus.valueOf(rs.getString(5)));
+                        app.setFlatType(rs.getString(6));
+                        return app;
+                    });
+        } catch (SQLException e) {
+            System.out.println("Error reading applications: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void saveApplications(List<BTOApplication> applications) {
+        try {
+            db.saveAll("applications", "application_id", COLUMNS, applications, BTOApplication::getApplicationId,
+                    app -> true, app -> new Object[] { app.getApplicantNRIC(), app.getProjectID(),
+                            app.getApplicationType(), app.getStatus(), app.getFlatType() });
+        } catch (SQLException e) {
+            throw new StorageException("Error writing applications", e);
+        }
+    }
+
+    @Override
+    public void recordCreated(BTOApplication app) {
+        try {
+            db.update("INSERT INTO applications (application_id, applicant_nric, project_id, application_type, "
+                    + "status, flat_type) VALUES (?, ?, ?, ?, ?, ?)",
+                    app.getApplicationId(), app.getApplicantNRIC(), app.getProjectID(), app.getApplicationType(),
+                    app.getStatus(), app.getFlatType());
+        } catch (SQLException e) {
+            throw new StorageException("Error saving application " + app.getApplicationId(), e);
+        }
+    }
+
+    @Override
+    public void recordStatusChange(BTOApplication app) {
+        try {
+            db.update("UPDATE applications SET status = ? WHERE application_id = ?", app.getStatus(),
+                    app.getApplicationId());
+        } catch (SQLException e) {
+            throw new StorageException("Error saving application " + app.getApplicationId(), e);
+        }
+    }
+
+    @Override
+    public void recordTypeChange(BTOApplication app) {
+        try {
+            db.update("UPDATE applications SET application_type = ? WHERE application_id = ?",
+                    app.getApplicationType(), app.getApplicationId());
+        } catch (SQLException e) {
+            throw new StorageException("Error saving application " + app.getApplicationId(), e);
+        }
+    }
+
+    @Override
+    public int getJournalSize() {
+        return 0;
+    }
+
+    @Override
+    public List<Integer> findApplicationIdsByManager(String managerNRIC, ApplicationStatus status) {
+        // Served by idx_projects_manager and idx_applications_project_status.
+        String sql = "SELECT a.application_id FROM projects p JOIN applications a ON a.project_id = p.project_id "
+                + "WHERE p.manager_nric = ?";
+        try {
+            if (status == null) {
+                return db.query(sql + " ORDER BY a.application_id", rs -> rs.getInt(1), managerNRIC);
+            }
+            return db.query(sql + " AND a.status = ? ORDER BY a.application_id", rs -> rs.getInt(1), managerNRIC,
+                    status);
+        } catch (SQLException e) {
+            System.out.println("Error querying applications: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package entity.repositories;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import entity.BTOApplication;
+import entity.enumerations.ApplicationStatus;
+import entity.enumerations.ApplicationType;
+
+/**
+ * Append-only journal of BTO application mutations.
+ * <p>
+ * Every change to an application is recorded as one short line instead of
+ * rewriting the whole application CSV. The CSV file acts as the snapshot;
+ * on startup the journal is replayed on top of it. Each entry sets absolute
+ * values, so replaying the journal over a snapshot that already contains some
+ * of its entries still yields the latest state.
+ * </p>
+ * <p>
+ * A crash in the middle of an append can leave a last line without its line
+ * break. Such a line is cut off the file before the journal is read or first
+ * appended to, so the next entry starts on a line of its own and is not lost
+ * with the incomplete one.
+ * </p>
+ * Entry formats:
+ * <ul>
+ * <li>{@code C,applicationID,applicantNRIC,projectID,applicationType,status,flatType} - created</li>
+ * <li>{@code S,applicationID,status} - status changed</li>
+ * <li>{@code T,applicationID,applicationType} - application type changed</li>
+ * </ul>
+ */
+public class ApplicationJournal {
+
+    private final String journalFile;
+    /** Number of entries currently in the journal file. */
+    private int entryCount = -1;
+    /** Whether entries have been appended whose sync is deferred to a group commit. */
+    private boolean syncPending;
+    /** Whether an incomplete last line has been looked for since this journal was opened. */
+    private boolean tailChecked;
+
+    /**
+     * Creates a journal backed by the given file.
+     *
+     * @param journalFile Path of the journal file.
+     */
+    public ApplicationJournal(String journalFile) {
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * Records the creation of a new application.
+     *
+     * @param app The newly created application.
+     */
+    public void appendCreated(BTOApplication app) {
+        append(String.format("C,%d,%s,%d,%s,%s,%s",
+                app.getApplicationId(),
+                app.getApplicantNRIC(),
+                app.getProjectID(),
+                app.getApplicationType(),
+                app.getStatus(),
+                app.getFlatType()));
+    }
+
+    /**
+     * Records a change in an application's status.
+     *
+     * @param app The application whose status changed.
+     */
+    public void appendStatusChange(BTOApplication app) {
+        append("S," + app.getApplicationId() + "," + app.getStatus());
+    }
+
+    /**
+     * Records a change in an application's type (e.g. APPLICATION to WITHDRAWAL).
+     *
+     * @param app The application whose type changed.
+     */
+    public void appendTypeChange(BTOApplication app) {
+        append("T," + app.getApplicationId() + "," + app.getApplicationType());
+    }
+
+    /**
+     * Returns the number of entries recorded since the last compaction.
+     *
+     * @return The journal length in entries.
+     */
+    public int size() {
+        if (entryCount < 0) {
+            entryCount = readEntries().size();
+        }
+        return entryCount;
+    }
+
+    /**
+     * Replays the journal on top of a snapshot.
+     *
+     * @param applications The applications read from the snapshot; new
+     *                     applications are appended to this list.
+     * @param byId         Index of the same applications by application ID; kept
+     *                     in step with {@code applications}.
+     */
+    public void replay(List<BTOApplication> applications, Map<Integer, BTOApplication> byId) {
+        List<String> entries = readEntries();
+        entryCount = entries.size();
+        for (String line : entries) {
+            String[] data = line.split(",");
+            try {
+                int id = Integer.parseInt(data[1].trim());
+                switch (data[0]) {
+                    case "C" -> {
+                        BTOApplication app = byId.get(id);
+                        if (app == null) {
+                            app = new BTOApplication();
+                            app.setApplicationId(id);
+                            applications.add(app);
+                            byId.put(id, app);
+                        }
+                        app.setApplicantNRIC(data[2].trim());
+                        app.setProjectID(Integer.parseInt(data[3].trim()));
+                        app.setApplicationType(ApplicationType.valueOf(data[4].trim()));
+                        app.setStatus(ApplicationStatus.valueOf(data[5].trim()));
+                        app.setFlatType(data[6].trim());
+                    }
+                    case "S" -> apply(byId::get, id, app -> app.setStatus(ApplicationStatus.valueOf(data[2].trim())));
+                    case "T" -> apply(byId::get, id,
+                            app -> app.setApplicationType(ApplicationType.valueOf(data[2].trim())));
+                    default -> System.out.println("Skipping unknown journal entry: " + line);
+                }
+            } catch (RuntimeException e) {
+                System.out.println("Skipping malformed journal entry: " + line);
+            }
+        }
+    }
+
+    /**
+     * Empties the journal. Must only be called after a snapshot containing every
+     * journalled change has been written.
+     */
+    public void truncate() {
+        try (FileChannel channel = FileChannel.open(Paths.get(journalFile),
+                StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            channel.truncate(0);
+            channel.force(true);
+            entryCount = 0;
+            tailChecked = true;
+        } catch (IOException e) {
+            System.out.println("Error truncating application journal: " + e.getMessage());
+        }
+    }
+
+    private void apply(IntFunction<BTOApplication> lookup, int id, Consumer<BTOApplication> change) {
+        BTOApplication app = lookup.apply(id);
+        if (app == null) {
+            System.out.println("Skipping journal entry for unknown application " + id);
+            return;
+        }
+        change.accept(app);
+    }
+
+    /**
+     * Appends an entry and syncs it to disk. Inside a group commit the sync is
+     * deferred and done once for all entries when the group commits.
+     */
+    private void append(String entry) {
+        if (!tailChecked) {
+            readEntries();
+        }
+        try (FileOutputStream out = new FileOutputStream(journalFile, true)) {
+            out.write((entry + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+            if (AtomicFileWriter.inGroup()) {
+                if (!syncPending) {
+                    syncPending = true;
+                    AtomicFileWriter.afterCommit(this::sync);
+                }
+            } else {
+                out.getFD().sync();
+            }
+            if (entryCount >= 0) {
+                entryCount++;
+            }
+        } catch (IOException e) {
+            System.out.println("Error writing application journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Flushes entries appended without a sync to disk.
+     */
+    private void sync() {
+        syncPending = false;
+        try (FileOutputStream out = new FileOutputStream(journalFile, true)) {
+            out.getFD().sync();
+        } catch (IOException e) {
+            System.out.println("Error syncing application journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the complete entries, first cutting an incomplete last line off
+     * the file.
+     */
+    private List<String> readEntries() {
+        List<String> entries = new ArrayList<>();
+        Path path = Paths.get(journalFile);
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            tailChecked = true;
+            return entries;
+        } catch (IOException e) {
+            System.out.println("Error reading application journal: " + e.getMessage());
+            return entries;
+        }
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        if (end < bytes.length) {
+            System.out.println("Discarding incomplete journal entry: "
+                    + new String(bytes, end, bytes.length - end, StandardCharsets.UTF_8));
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                channel.truncate(end);
+                channel.force(true);
+                tailChecked = true;
+            } catch (IOException e) {
+                System.out.println("Error truncating application journal: " + e.getMessage());
+            }
+        } else {
+            tailChecked = true;
+        }
+        for (String line : new String(bytes, 0, end, StandardCharsets.UTF_8).split("\\R")) {
+            if (!line.isBlank()) {
+                entries.add(line);
+            }
+        }
+        return entries;
+    }
+}
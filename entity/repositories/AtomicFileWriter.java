@@ -0,0 +1,304 @@
+package entity.repositories;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Replaces a file's contents atomically.
+ * <p>
+ * Data is written to a temporary file in the same directory. On
+ * {@link #commit()} the temporary file is flushed to disk and renamed over the
+ * target, so readers (and the next session after a crash) see either the old
+ * file or the complete new one, never a half-written file. If the writer is
+ * closed without committing, the temporary file is deleted and the target is
+ * left untouched.
+ * </p>
+ * <p>
+ * Between {@link #beginGroup()} and {@link #commitGroup()}, commits on the
+ * same thread are deferred: the temporary files are synced together and renamed
+ * only once every one of them is durable, and each directory is synced once
+ * at the end. Several logical saves then cost one round of disk flushes, and
+ * multi-file changes are replaced together.
+ * </p>
+ */
+public class AtomicFileWriter implements Closeable {
+
+    /** The group of deferred commits open on this thread, if any. */
+    private static final ThreadLocal<Group> CURRENT_GROUP = new ThreadLocal<>();
+
+    private final Path target;
+    private final Path temp;
+    private final FileOutputStream out;
+    private final BufferedOutputStream buffered;
+    private final PrintWriter writer;
+    private boolean committed;
+    private final List<Runnable> onReplaced = new ArrayList<>();
+
+    private AtomicFileWriter(Path target) throws IOException {
+        this.target = target;
+        Path dir = directoryOf(target);
+        this.temp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        copyPermissions(target, temp);
+        this.out = new FileOutputStream(temp.toFile());
+        this.buffered = new BufferedOutputStream(out);
+        this.writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(buffered, StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * Starts writing a new version of a file.
+     *
+     * @param path Path of the file to replace.
+     * @return A writer whose output becomes the file's contents on {@link #commit()}.
+     * @throws IOException If the temporary file cannot be created.
+     */
+    public static AtomicFileWriter open(String path) throws IOException {
+        return new AtomicFileWriter(Paths.get(path));
+    }
+
+    /**
+     * Gets the writer for the new contents (UTF-8).
+     *
+     * @return The {@link PrintWriter} to write to.
+     */
+    public PrintWriter writer() {
+        return writer;
+    }
+
+    /**
+     * Gets the stream for binary contents. Do not mix with {@link #writer()}.
+     *
+     * @return The {@link OutputStream} to write to.
+     */
+    public OutputStream stream() {
+        return buffered;
+    }
+
+    /**
+     * Copies a byte range of another file to the binary stream, letting the
+     * operating system move the data where it can.
+     *
+     * @param source   Channel of the file to copy from.
+     * @param position Offset of the first byte to copy.
+     * @param count    Number of bytes to copy.
+     * @throws IOException If the copy fails.
+     */
+    public void transferFrom(FileChannel source, long position, long count) throws IOException {
+        buffered.flush();
+        FileChannel target = out.getChannel();
+        long done = 0;
+        while (done < count) {
+            long n = source.transferTo(position + done, count - done, target);
+            if (n <= 0) {
+                throw new IOException("Unexpected end of " + source + " while copying");
+            }
+            done += n;
+        }
+    }
+
+    /**
+     * Makes the written contents the file's contents. Inside a group the
+     * replacement happens at {@link #commitGroup()}.
+     *
+     * @throws IOException If the data cannot be written or the file replaced.
+     */
+    public void commit() throws IOException {
+        writer.flush();
+        if (writer.checkError()) {
+            throw new IOException("Error writing " + temp);
+        }
+        buffered.flush();
+        Group group = CURRENT_GROUP.get();
+        if (group != null) {
+            // Keep the stream open; the group syncs and closes it.
+            committed = true;
+            group.pending.add(this);
+            return;
+        }
+        out.getFD().sync();
+        out.close();
+        replace();
+        committed = true;
+        syncDirectory(directoryOf(target));
+        runOnReplaced();
+    }
+
+    /**
+     * Registers an action to run once this file has been replaced, e.g.
+     * truncating a journal whose entries the new file already contains. The
+     * action does not run if the replacement fails.
+     *
+     * @param action The action to run.
+     */
+    public void onReplaced(Runnable action) {
+        onReplaced.add(action);
+    }
+
+    /**
+     * Discards the temporary file unless the writer was committed.
+     */
+    @Override
+    public void close() {
+        if (committed) {
+            return;
+        }
+        writer.close();
+        try {
+            Files.deleteIfExists(temp);
+        } catch (IOException e) {
+            System.out.println("Error deleting temporary file " + temp + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Starts deferring commits made on this thread. Groups nest; only the
+     * outermost {@link #commitGroup()} applies them.
+     */
+    public static void beginGroup() {
+        Group group = CURRENT_GROUP.get();
+        if (group == null) {
+            group = new Group();
+            CURRENT_GROUP.set(group);
+        }
+        group.depth++;
+    }
+
+    /**
+     * Ends a group started by {@link #beginGroup()}. At the outermost level,
+     * every deferred file is synced, then all are renamed into place, then each
+     * directory is synced once, and finally the {@link #onReplaced} and
+     * after-commit actions run.
+     */
+    public static void commitGroup() {
+        Group group = CURRENT_GROUP.get();
+        if (group == null || --group.depth > 0) {
+            return;
+        }
+        CURRENT_GROUP.remove();
+        List<AtomicFileWriter> synced = new ArrayList<>();
+        for (AtomicFileWriter w : group.pending) {
+            try {
+                w.out.getFD().sync();
+                w.out.close();
+                synced.add(w);
+            } catch (IOException e) {
+                System.out.println("Error syncing " + w.temp + ": " + e.getMessage());
+                w.committed = false;
+                w.close();
+            }
+        }
+        Set<Path> dirs = new LinkedHashSet<>();
+        List<AtomicFileWriter> replaced = new ArrayList<>();
+        for (AtomicFileWriter w : synced) {
+            try {
+                w.replace();
+                replaced.add(w);
+                dirs.add(directoryOf(w.target));
+            } catch (IOException e) {
+                System.out.println("Error replacing " + w.target + ": " + e.getMessage());
+            }
+        }
+        for (Path dir : dirs) {
+            syncDirectory(dir);
+        }
+        for (AtomicFileWriter w : replaced) {
+            w.runOnReplaced();
+        }
+        for (Runnable action : group.afterCommit) {
+            action.run();
+        }
+    }
+
+    /**
+     * Tells whether commits on this thread are currently being deferred.
+     *
+     * @return true between {@link #beginGroup()} and the outermost {@link #commitGroup()}.
+     */
+    public static boolean inGroup() {
+        return CURRENT_GROUP.get() != null;
+    }
+
+    /**
+     * Runs an action once the current commit is durable: immediately outside a
+     * group, or at the end of the outermost {@link #commitGroup()}.
+     *
+     * @param action The action, e.g. syncing a journal appended to in the group.
+     */
+    public static void afterCommit(Runnable action) {
+        Group group = CURRENT_GROUP.get();
+        if (group == null) {
+            action.run();
+        } else {
+            group.afterCommit.add(action);
+        }
+    }
+
+    private void runOnReplaced() {
+        for (Runnable action : onReplaced) {
+            action.run();
+        }
+    }
+
+    private void replace() throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Gives the temporary file the target's permissions, since a temporary file
+     * is created readable by its owner only.
+     */
+    private static void copyPermissions(Path from, Path to) {
+        try {
+            if (Files.exists(from)) {
+                Files.setPosixFilePermissions(to, Files.getPosixFilePermissions(from));
+            }
+        } catch (IOException | UnsupportedOperationException e) {
+            // not a POSIX file system; keep the defaults
+        }
+    }
+
+    private static Path directoryOf(Path file) {
+        Path dir = file.toAbsolutePath().getParent();
+        return dir != null ? dir : Paths.get(".").toAbsolutePath();
+    }
+
+    /**
+     * Syncs a directory so a rename inside it survives a crash. Not every
+     * platform allows this, so failures are ignored.
+     */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // best effort
+        }
+    }
+
+    /** Commits deferred by {@link #beginGroup()}. */
+    private static final class Group {
+        private int depth;
+        private final List<AtomicFileWriter> pending = new ArrayList<>();
+        private final List<Runnable> afterCommit = new ArrayList<>();
+    }
+}
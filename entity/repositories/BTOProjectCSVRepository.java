@@ -1,18 +1,23 @@
 package entity.repositories;
 
 import entity.BTOProject;
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
+import entity.interfaces.IProjectRepository;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
 
-public class BTOProjectCSVRepository {
+public class BTOProjectCSVRepository implements IProjectRepository {
 
-    private static final String CSV_FILE = "assets/projectList.csv";
+    private static final String CSV_FILE = "assets/ProjectList.csv";
+    private static final String HEADER = "ID,Project Name,Neighborhood,Type 1,Number of units for Type 1,"
+            + "Selling price for Type 1,Type 2,Number of units for Type 2,"
+            + "Selling price for Type 2,Application opening date,"
+            + "Application closing date,ManagerID,Officer Slot,"
+            + "Pending Officer by NRIC,Approved Officer by NRIC,Visibility";
+
+    /** Rows of {@link #CSV_FILE} by project ID, so saves rewrite only changed rows. */
+    private final CSVRowIndex<Integer> index = new CSVRowIndex<>(CSV_FILE, t -> Integer.valueOf(t[0].trim()));
 
     /**
      * Reads a CSV with columns in the following order:
@@ -38,23 +43,20 @@ public class BTOProjectCSVRepository {
      * and creates a list
      * of BTOProject objects.
      * 
-     * @return The method `readBTOProjectFromCSV` returns a `List` of `BTOProject`
+     * @return The method `loadProjects` returns a `List` of `BTOProject`
      *         objects read from a
      *         CSV file.
      */
-    public List<BTOProject> readBTOProjectFromCSV() {
+    @Override
+    public List<BTOProject> loadProjects() {
         List<BTOProject> list = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(CSV_FILE))) {
+        index.beginRead();
+        try (CSVTokenizer csv = CSVTokenizer.open(CSV_FILE)) {
             // Skip header line
-            br.readLine();
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.isBlank())
-                    continue;
-
-                // Split into 16 parts; empty trailing fields will be preserved.
-                String[] tokens = line.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-
+            csv.readRecord();
+            String[] tokens;
+            while ((tokens = csv.readRecord()) != null) {
+                // 16 fields; quoted fields are already unquoted by the tokenizer.
                 int id = Integer.parseInt(tokens[0].trim());
                 String name = tokens[1].trim();
                 String location = tokens[2].trim();
@@ -72,30 +74,9 @@ public class BTOProjectCSVRepository {
                 String manager = tokens[11].trim();
                 int officerSlots = Integer.parseInt(tokens[12].trim());
 
-                // Pending Officers (can be empty; if not, officers are split by comma)
-                // Update the officer parsing section to properly handle quoted fields
-                String pendingRaw = tokens[13].trim().replaceAll("^\"|\"$", "");
-                List<String> pending = new ArrayList<>();
-                if (!pendingRaw.isEmpty()) {
-                    String[] pendingArray = pendingRaw.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
-                    for (String s : pendingArray) {
-                        if (!s.isBlank()) {
-                            pending.add(s.trim().replace("\"", ""));
-                        }
-                    }
-                }
-
-                // Approved Officers (can be empty; if not, officers are split by comma)
-                String approvedRaw = tokens[14].trim().replaceAll("^\"|\"$", "");
-                List<String> approved = new ArrayList<>();
-                if (!approvedRaw.isEmpty()) {
-                    String[] approvedArray = approvedRaw.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)");
-                    for (String s : approvedArray) {
-                        if (!s.isBlank()) {
-                            approved.add(s.trim().replace("\"", ""));
-                        }
-                    }
-                }
+                // Pending / Approved Officers (can be empty; if not, officers are split by comma)
+                List<String> pending = CSVTokenizer.splitList(tokens[13]);
+                List<String> approved = CSVTokenizer.splitList(tokens[14]);
 
                 boolean isVisible = Boolean.parseBoolean(tokens[15].trim().toLowerCase());
 
@@ -119,8 +100,11 @@ public class BTOProjectCSVRepository {
                 p.setPendingOfficer(pending);
                 p.setApprovedOfficer(approved);
 
+                p.markClean();
                 list.add(p);
+                index.add(id, csv);
             }
+            index.endRead();
         } catch (IOException e) {
             System.out.println("Error reading ProjectList.csv: " + e.getMessage());
         }
@@ -128,11 +112,11 @@ public class BTOProjectCSVRepository {
     }
 
     /**
-     * The `writeBTOProjectToCSV` function writes a list of BTOProject objects to a
+     * The `saveProjects` function writes a list of BTOProject objects to a
      * CSV file in a
      * specific 16-column format.
      * 
-     * @param projects The `writeBTOProjectToCSV` method takes a list of
+     * @param projects The `saveProjects` method takes a list of
      *                 `BTOProject` objects as input
      *                 and writes the data from these objects to a CSV file in a
      *                 specific format. Each `BTOProject`
@@ -140,65 +124,65 @@ public class BTOProjectCSVRepository {
      *                 project ID, project name,
      *                 neighborhood
      */
-    public void writeBTOProjectToCSV(List<BTOProject> projects) {
-        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(CSV_FILE)))) {
-            // header (match your CSV columns exactly)
-            // 1) Write the exact original header
-            pw.println(
-                    "ID,Project Name,Neighborhood,Type 1,Number of units for Type 1,"
-                            + "Selling price for Type 1,Type 2,Number of units for Type 2,"
-                            + "Selling price for Type 2,Application opening date,"
-                            + "Application closing date,ManagerID,Officer Slot,"
-                            + "Pending Officer by NRIC,Approved Officer by NRIC,Visibility");
-
-            // 2) Write each project in the 16‑column format
-            for (BTOProject p : projects) {
-                String pending = p.getPendingOfficer() == null
-                        ? ""
-                        : String.join(",", p.getPendingOfficer());
-                String approved = p.getApprovedOfficer() == null
-                        ? ""
-                        : String.join(",", p.getApprovedOfficer());
-
-                pw.printf(
-                        "%d,%s,%s,%s,%d,%d,%s,%d,%d,%s,%s,%s,%d,\"%s\",\"%s\",%s%n",
-                        // 1. ID
-                        p.getProjectID(),
-                        // 2. Project Name
-                        p.getProjectName(),
-                        // 3. Neighborhood
-                        p.getNeighborhood(),
-                        // 4. Type 1 identifier
-                        "2-Room",
-                        // 5. Number of units for Type 1
-                        p.getAvailable2Room(),
-                        // 6. Price for Type 1
-                        p.getTwoRoomPrice(),
-                        // 7. Type 2 identifier
-                        "3-Room",
-                        // 8. Number of units for Type 2
-                        p.getAvailable3Room(),
-                        // 9. Price for Type 2
-                        p.getThreeRoomPrice(),
-                        // 10. Opening date
-                        p.getApplicationOpeningDate(),
-                        // 11. Closing date
-                        p.getApplicationClosingDate(),
-                        // 12. ManagerID
-                        p.getManagerID(),
-                        // 13. Officer Slot
-                        p.getAvailableOfficerSlots(),
-                        // 14. Pending Officer by NRIC (quoted comma‑list)
-                        pending,
-                        // 15. Approved Officer by NRIC (quoted comma‑list)
-                        approved,
-                        // 16. Visibility (uppercase)
-                        String.valueOf(p.isVisibility()).toUpperCase());
-            }
-
+    @Override
+    public void saveProjects(List<BTOProject> projects) {
+        try {
+            // Unchanged projects keep their existing rows; only dirty or new ones are formatted.
+            index.write(HEADER, projects, BTOProject::getProjectID, BTOProject::isDirty, BTOProject::markClean,
+                    this::formatRow);
         } catch (IOException e) {
             System.err.println("Error writing ProjectList.csv: " + e.getMessage());
         }
     }
 
+    /**
+     * Formats a project as one row in the 16-column format.
+     *
+     * @param p The project.
+     * @return The CSV row, without line break.
+     */
+    private String formatRow(BTOProject p) {
+        String pending = p.getPendingOfficer() == null
+                ? ""
+                : String.join(",", p.getPendingOfficer());
+        String approved = p.getApprovedOfficer() == null
+                ? ""
+                : String.join(",", p.getApprovedOfficer());
+
+        return String.format(
+                "%d,%s,%s,%s,%d,%d,%s,%d,%d,%s,%s,%s,%d,\"%s\",\"%s\",%s",
+                // 1. ID
+                p.getProjectID(),
+                // 2. Project Name (quoted if it holds a comma or quote)
+                CSVTokenizer.escape(p.getProjectName()),
+                // 3. Neighborhood (quoted if it holds a comma or quote)
+                CSVTokenizer.escape(p.getNeighborhood()),
+                // 4. Type 1 identifier
+                "2-Room",
+                // 5. Number of units for Type 1
+                p.getAvailable2Room(),
+                // 6. Price for Type 1
+                p.getTwoRoomPrice(),
+                // 7. Type 2 identifier
+                "3-Room",
+                // 8. Number of units for Type 2
+                p.getAvailable3Room(),
+                // 9. Price for Type 2
+                p.getThreeRoomPrice(),
+                // 10. Opening date
+                p.getApplicationOpeningDate(),
+                // 11. Closing date
+                p.getApplicationClosingDate(),
+                // 12. ManagerID
+                p.getManagerID(),
+                // 13. Officer Slot
+                p.getAvailableOfficerSlots(),
+                // 14. Pending Officer by NRIC (quoted comma‑list)
+                pending,
+                // 15. Approved Officer by NRIC (quoted comma‑list)
+                approved,
+                // 16. Visibility (uppercase)
+                String.valueOf(p.isVisibility()).toUpperCase());
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,514 @@
+package entity.repositories;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import entity.BTOApplication;
+import entity.BTOProject;
+import entity.Enquiry;
+import entity.OfficerApplication;
+import entity.Receipt;
+import entity.User;
+import entity.enumerations.ApplicationStatus;
+import entity.enumerations.ApplicationType;
+import entity.enumerations.MaritalState;
+import entity.enumerations.RegistrationStatus;
+import entity.enumerations.Role;
+
+/**
+ * Compact binary copy of every dataset, used to start up without parsing CSV.
+ * <p>
+ * The CSV files stay the source of truth and the interchange format. The
+ * snapshot records the stamp (modification time and length) of every CSV file
+ * it was built from, and is only used while all of them still match; otherwise
+ * the CSV files are read instead.
+ * </p>
+ * Layout:
+ * <ul>
+ * <li>magic {@code BTOS}, format version, and a hash of the enum constants
+ * (so reordering an enum invalidates old snapshots)</li>
+ * <li>the stamp of each {@link Dataset}, in declaration order</li>
+ * <li>users, projects, applications, officer applications, enquiries and
+ * receipts, each as a count followed by the records</li>
+ * </ul>
+ * Integers are unsigned LEB128 varints (zig-zag encoded where they may be
+ * negative), strings are a varint length followed by UTF-8 bytes, and enums are
+ * stored by ordinal. Nullable strings and enums store 0 for null and the
+ * length/ordinal plus 1 otherwise.
+ */
+public class BinarySnapshot {
+
+    private static final byte[] MAGIC = { 'B', 'T', 'O', 'S' };
+    private static final int VERSION = 1;
+    private static final int SCHEMA_HASH = (Arrays.toString(MaritalState.values())
+            + Arrays.toString(Role.values())
+            + Arrays.toString(ApplicationType.values())
+            + Arrays.toString(ApplicationStatus.values())
+            + Arrays.toString(RegistrationStatus.values())).hashCode();
+
+    private final String snapshotFile;
+
+    /**
+     * Contents of a snapshot: every dataset plus the stamps of the files they
+     * were read from.
+     */
+    static class Contents {
+        final Map<Dataset, long[]> stamps = new EnumMap<>(Dataset.class);
+        List<User> users;
+        List<BTOProject> projects;
+        List<BTOApplication> applications;
+        List<OfficerApplication> officerApplications;
+        List<Enquiry> enquiries;
+        List<Receipt> receipts;
+    }
+
+    /**
+     * Creates a snapshot backed by the given file.
+     *
+     * @param snapshotFile Path of the snapshot file.
+     */
+    public BinarySnapshot(String snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Loads the snapshot if every CSV file still has the stamp it was built from.
+     *
+     * @return The snapshot's contents, or null if it is missing, stale or unreadable.
+     */
+    Contents loadIfCurrent() {
+        File file = new File(snapshotFile);
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            Decoder in = new Decoder(Files.readAllBytes(file.toPath()));
+            Contents contents = new Contents();
+            if (!readHeader(in, contents)) {
+                return null;
+            }
+            for (Dataset dataset : Dataset.values()) {
+                if (!Arrays.equals(contents.stamps.get(dataset), dataset.stamp())) {
+                    return null;
+                }
+            }
+            contents.users = readUsers(in);
+            contents.projects = readProjects(in);
+            contents.applications = readApplications(in);
+            contents.officerApplications = readOfficerApplications(in);
+            contents.enquiries = readEnquiries(in);
+            contents.receipts = readReceipts(in);
+            return contents;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Ignoring unreadable snapshot " + snapshotFile + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Reads only the stamps recorded in the snapshot.
+     *
+     * @return The recorded stamps, or null if there is no usable snapshot.
+     */
+    Map<Dataset, long[]> readStamps() {
+        File file = new File(snapshotFile);
+        if (!file.exists()) {
+            return null;
+        }
+        // The header is small; read just enough of it.
+        byte[] head = new byte[(int) Math.min(file.length(), 4096)];
+        try (FileInputStream in = new FileInputStream(file)) {
+            int n = in.readNBytes(head, 0, head.length);
+            Contents contents = new Contents();
+            return readHeader(new Decoder(Arrays.copyOf(head, n)), contents) ? contents.stamps : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes a new snapshot, replacing the old one atomically.
+     *
+     * @param contents Every dataset, and the stamps of the files they match.
+     */
+    void write(Contents contents) {
+        Encoder out = new Encoder();
+        out.bytes(MAGIC);
+        out.varint(VERSION);
+        out.varint(SCHEMA_HASH);
+        for (Dataset dataset : Dataset.values()) {
+            long[] stamp = contents.stamps.get(dataset);
+            out.varint(stamp.length);
+            for (long value : stamp) {
+                out.varlong(value);
+            }
+        }
+        writeUsers(out, contents.users);
+        writeProjects(out, contents.projects);
+        writeApplications(out, contents.applications);
+        writeOfficerApplications(out, contents.officerApplications);
+        writeEnquiries(out, contents.enquiries);
+        writeReceipts(out, contents.receipts);
+        try (AtomicFileWriter file = AtomicFileWriter.open(snapshotFile)) {
+            out.writeTo(file.stream());
+            file.commit();
+        } catch (IOException e) {
+            System.out.println("Error writing snapshot: " + e.getMessage());
+        }
+    }
+
+    private boolean readHeader(Decoder in, Contents contents) {
+        for (byte b : MAGIC) {
+            if (!in.hasMore() || in.readByte() != b) {
+                return false;
+            }
+        }
+        if (in.varint() != VERSION || in.varint() != SCHEMA_HASH) {
+            return false;
+        }
+        for (Dataset dataset : Dataset.values()) {
+            long[] stamp = new long[in.varint()];
+            for (int i = 0; i < stamp.length; i++) {
+                stamp[i] = in.varlong();
+            }
+            contents.stamps.put(dataset, stamp);
+        }
+        return true;
+    }
+
+    // ---- users ----
+
+    private void writeUsers(Encoder out, List<User> users) {
+        out.varint(users.size());
+        for (User u : users) {
+            out.string(u.getNRIC());
+            out.string(u.getName());
+            out.string(u.getPassword());
+            out.zigzag(u.getAge());
+            out.enumValue(u.getMaritalStatus());
+            out.string(u.getFilterSettings());
+            out.enumValue(u.getRole());
+        }
+    }
+
+    private List<User> readUsers(Decoder in) {
+        int n = in.varint();
+        List<User> users = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            String nric = in.string();
+            String name = in.string();
+            String password = in.string();
+            int age = in.zigzag();
+            MaritalState marital = in.enumValue(MaritalState.values());
+            String filterSettings = in.string();
+            Role role = in.enumValue(Role.values());
+            User user = new User(nric, name, password, age, marital, filterSettings, role);
+            user.markClean();
+            users.add(user);
+        }
+        return users;
+    }
+
+    // ---- projects ----
+
+    private void writeProjects(Encoder out, List<BTOProject> projects) {
+        out.varint(projects.size());
+        for (BTOProject p : projects) {
+            out.zigzag(p.getProjectID());
+            out.string(p.getProjectName());
+            out.string(p.getNeighborhood());
+            out.zigzag(p.getAvailable2Room());
+            out.zigzag(p.getAvailable3Room());
+            out.zigzag(p.getTwoRoomPrice());
+            out.zigzag(p.getThreeRoomPrice());
+            out.string(p.getApplicationOpeningDate());
+            out.string(p.getApplicationClosingDate());
+            out.zigzag(p.getAvailableOfficerSlots());
+            out.varint(p.isVisibility() ? 1 : 0);
+            out.string(p.getManagerID());
+            out.stringList(p.getPendingOfficer());
+            out.stringList(p.getApprovedOfficer());
+        }
+    }
+
+    private List<BTOProject> readProjects(Decoder in) {
+        int n = in.varint();
+        List<BTOProject> projects = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            BTOProject p = new BTOProject();
+            p.setProjectID(in.zigzag());
+            p.setProjectName(in.string());
+            p.setNeighborhood(in.string());
+            p.setAvailable2Room(in.zigzag());
+            p.setAvailable3Room(in.zigzag());
+            p.setTwoRoomPrice(in.zigzag());
+            p.setThreeRoomPrice(in.zigzag());
+            p.setApplicationOpeningDate(in.string());
+            p.setApplicationClosingDate(in.string());
+            p.setAvailableOfficerSlots(in.zigzag());
+            p.setVisibility(in.varint() != 0);
+            p.setManagerID(in.string());
+            p.setPendingOfficer(in.stringList());
+            p.setApprovedOfficer(in.stringList());
+            p.markClean();
+            projects.add(p);
+        }
+        return projects;
+    }
+
+    // ---- BTO applications ----
+
+    private void writeApplications(Encoder out, List<BTOApplication> applications) {
+        out.varint(applications.size());
+        for (BTOApplication a : applications) {
+            out.zigzag(a.getApplicationId());
+            out.string(a.getApplicantNRIC());
+            out.zigzag(a.getProjectID());
+            out.enumValue(a.getApplicationType());
+            out.enumValue(a.getStatus());
+            out.string(a.getFlatType());
+        }
+    }
+
+    private List<BTOApplication> readApplications(Decoder in) {
+        int n = in.varint();
+        List<BTOApplication> applications = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            BTOApplication a = new BTOApplication();
+            a.setApplicationId(in.zigzag());
+            a.setApplicantNRIC(in.string());
+            a.setProjectID(in.zigzag());
+            a.setApplicationType(in.enumValue(ApplicationType.values()));
+            a.setStatus(in.enumValue(ApplicationStatus.values()));
+            a.setFlatType(in.string());
+            applications.add(a);
+        }
+        return applications;
+    }
+
+    // ---- officer applications ----
+
+    private void writeOfficerApplications(Encoder out, List<OfficerApplication> applications) {
+        out.varint(applications.size());
+        for (OfficerApplication a : applications) {
+            out.zigzag(a.getOfficerApplicationId());
+            out.string(a.getOfficerNRIC());
+            out.zigzag(a.getProjectID());
+            out.enumValue(a.getStatus());
+        }
+    }
+
+    private List<OfficerApplication> readOfficerApplications(Decoder in) {
+        int n = in.varint();
+        List<OfficerApplication> applications = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            OfficerApplication a = new OfficerApplication();
+            a.setOfficerApplicationId(in.zigzag());
+            a.setOfficerNRIC(in.string());
+            a.setProjectID(in.zigzag());
+            a.setStatus(in.enumValue(RegistrationStatus.values()));
+            a.markClean();
+            applications.add(a);
+        }
+        return applications;
+    }
+
+    // ---- enquiries ----
+
+    private void writeEnquiries(Encoder out, List<Enquiry> enquiries) {
+        out.varint(enquiries.size());
+        for (Enquiry e : enquiries) {
+            out.zigzag(e.getEnquiryId());
+            out.string(e.getEnquiryText());
+            out.string(e.getSubmittedByNRIC());
+            out.zigzag(e.getProjectId());
+            out.string(e.getResponse());
+            out.string(e.getTimestamp());
+        }
+    }
+
+    private List<Enquiry> readEnquiries(Decoder in) {
+        int n = in.varint();
+        List<Enquiry> enquiries = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Enquiry e = new Enquiry();
+            e.setEnquiryId(in.zigzag());
+            e.setEnquiryText(in.string());
+            e.setSubmittedByNRIC(in.string());
+            e.setProjectId(in.zigzag());
+            e.setResponse(in.string());
+            e.setTimestamp(in.string());
+            e.markClean();
+            enquiries.add(e);
+        }
+        return enquiries;
+    }
+
+    // ---- receipts ----
+
+    private void writeReceipts(Encoder out, List<Receipt> receipts) {
+        out.varint(receipts.size());
+        for (Receipt r : receipts) {
+            out.zigzag(r.getReceiptID());
+            out.string(r.getNRIC());
+            out.string(r.getApplicantName());
+            out.zigzag(r.getAge());
+            out.enumValue(r.getMaritalStatus());
+            out.string(r.getFlatType());
+            out.zigzag(r.getProjectID());
+            out.string(r.getProjectName());
+            out.string(r.getNeighborhood());
+            out.string(r.getApplicationOpeningDate());
+            out.string(r.getApplicationClosingDate());
+            out.string(r.getManager());
+        }
+    }
+
+    private List<Receipt> readReceipts(Decoder in) {
+        int n = in.varint();
+        List<Receipt> receipts = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            Receipt r = new Receipt();
+            r.setReceiptID(in.zigzag());
+            r.setNRIC(in.string());
+            r.setApplicantName(in.string());
+            r.setAge(in.zigzag());
+            r.setMaritalStatus(in.enumValue(MaritalState.values()));
+            r.setFlatType(in.string());
+            r.setProjectID(in.zigzag());
+            r.setProjectName(in.string());
+            r.setNeighborhood(in.string());
+            r.setApplicationOpeningDate(in.string());
+            r.setApplicationClosingDate(in.string());
+            r.setManager(in.string());
+            receipts.add(r);
+        }
+        return receipts;
+    }
+
+    /** Growable output buffer with the snapshot's primitive encodings. */
+    private static final class Encoder extends ByteArrayOutputStream {
+
+        Encoder() {
+            super(64 * 1024);
+        }
+
+        void bytes(byte[] b) {
+            write(b, 0, b.length);
+        }
+
+        void varint(int value) {
+            varlong(value & 0xFFFFFFFFL);
+        }
+
+        void varlong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void zigzag(int value) {
+            varint((value << 1) ^ (value >> 31));
+        }
+
+        void string(String s) {
+            if (s == null) {
+                varint(0);
+                return;
+            }
+            byte[] utf8 = s.getBytes(StandardCharsets.UTF_8);
+            varint(utf8.length + 1);
+            bytes(utf8);
+        }
+
+        void stringList(List<String> list) {
+            int n = list == null ? 0 : list.size();
+            varint(n);
+            for (int i = 0; i < n; i++) {
+                string(list.get(i));
+            }
+        }
+
+        void enumValue(Enum<?> e) {
+            varint(e == null ? 0 : e.ordinal() + 1);
+        }
+    }
+
+    /** Reads the snapshot's primitive encodings from a byte array. */
+    private static final class Decoder {
+        private final byte[] buf;
+        private int pos;
+
+        Decoder(byte[] buf) {
+            this.buf = buf;
+        }
+
+        boolean hasMore() {
+            return pos < buf.length;
+        }
+
+        byte readByte() {
+            return buf[pos++];
+        }
+
+        int varint() {
+            return (int) varlong();
+        }
+
+        long varlong() {
+            long result = 0;
+            int shift = 0;
+            while (true) {
+                byte b = buf[pos++];
+                result |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return result;
+                }
+                shift += 7;
+                if (shift > 63) {
+                    throw new IllegalStateException("varint too long");
+                }
+            }
+        }
+
+        int zigzag() {
+            int v = varint();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String string() {
+            int len = varint();
+            if (len == 0) {
+                return null;
+            }
+            String s = new String(buf, pos, len - 1, StandardCharsets.UTF_8);
+            pos += len - 1;
+            return s;
+        }
+
+        List<String> stringList() {
+            int n = varint();
+            List<String> list = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                list.add(string());
+            }
+            return list;
+        }
+
+        <E extends Enum<E>> E enumValue(E[] values) {
+            int ordinal = varint();
+            return ordinal == 0 ? null : values[ordinal - 1];
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package entity.repositories;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Byte-offset index of the rows of a CSV file, used to save a list of entities
+ * without re-serialising the rows that have not changed.
+ * <p>
+ * Each row is indexed by its key (e.g. project ID) with the byte range it
+ * occupies in the file. On {@link #write}, a save where no entity is dirty and
+ * no row was added or removed is skipped entirely. Otherwise the new file is
+ * assembled from byte ranges of the old file for clean rows (copied by the
+ * operating system, without decoding) and freshly formatted text for dirty or
+ * new rows, and then swapped in atomically by {@link AtomicFileWriter}.
+ * </p>
+ * <p>
+ * The index remembers the modification time and length of the file it
+ * describes. If the file has changed since (another session, or an append by
+ * another repository), the index is rebuilt from the file before it is used.
+ * </p>
+ *
+ * @param <K> Type of the row key.
+ */
+public class CSVRowIndex<K> {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final String path;
+    /** Extracts the key from a parsed row; may throw for malformed rows. */
+    private final Function<String[], K> keyOfRow;
+
+    /** Byte range {start, end} of each row, end including the line break. */
+    private Map<K, long[]> rows;
+    /** Modification time and length of the file when {@link #rows} was built. */
+    private long[] stamp;
+    /** Rows being collected by {@link #beginRead()} / {@link #add}. */
+    private Map<K, long[]> reading;
+    private long[] readingStamp;
+
+    /**
+     * Creates an index for a CSV file whose first line is a header.
+     *
+     * @param path     Path of the CSV file.
+     * @param keyOfRow Extracts a row's key from its fields.
+     */
+    public CSVRowIndex(String path, Function<String[], K> keyOfRow) {
+        this.path = path;
+        this.keyOfRow = keyOfRow;
+    }
+
+    /**
+     * Starts indexing a full read of the file. Call before opening the file.
+     */
+    public void beginRead() {
+        readingStamp = fileStamp();
+        reading = new HashMap<>();
+    }
+
+    /**
+     * Indexes the row just returned by {@code csv.readRecord()}.
+     *
+     * @param key The row's key.
+     * @param csv The tokenizer reading the file.
+     */
+    public void add(K key, CSVTokenizer csv) {
+        if (reading != null) {
+            addRow(reading, key, csv);
+        }
+    }
+
+    /**
+     * Finishes indexing a read started by {@link #beginRead()}.
+     */
+    public void endRead() {
+        rows = reading;
+        stamp = readingStamp;
+        reading = null;
+    }
+
+    /**
+     * Saves a list of entities to the file, rewriting only what has changed.
+     *
+     * @param <T>       Entity type.
+     * @param header    The header line.
+     * @param items     All entities, in file order.
+     * @param keyOf     Key of an entity (must match {@code keyOfRow}).
+     * @param isDirty   Whether an entity differs from its stored row.
+     * @param markClean Called for every re-serialised entity once the file has
+     *                  been replaced.
+     * @param format    Formats an entity as one CSV line, without line break.
+     * @return false if nothing had changed and the file was left untouched.
+     * @throws IOException If the file cannot be read or replaced.
+     */
+    public <T> boolean write(String header, List<T> items, Function<T, K> keyOf, Predicate<T> isDirty,
+            Consumer<T> markClean, Function<T, String> format) throws IOException {
+        boolean exists = new File(path).exists();
+        try (FileChannel source = exists ? FileChannel.open(Paths.get(path), StandardOpenOption.READ) : null) {
+            // Opened first, so the offsets and the copied bytes come from the same file.
+            if (stamp == null || !Arrays.equals(stamp, fileStamp())) {
+                rebuild(source);
+            }
+            if (unchanged(items, keyOf, isDirty)) {
+                return false;
+            }
+            writeChanged(source, header, items, keyOf, isDirty, markClean, format);
+            return true;
+        }
+    }
+
+    private <T> void writeChanged(FileChannel source, String header, List<T> items, Function<T, K> keyOf,
+            Predicate<T> isDirty, Consumer<T> markClean, Function<T, String> format) throws IOException {
+        try (AtomicFileWriter out = AtomicFileWriter.open(path)) {
+            OutputStream stream = out.stream();
+            Map<K, long[]> newRows = new HashMap<>(items.size() * 2);
+            List<T> serialised = new ArrayList<>();
+            byte[] head = (header + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8);
+            stream.write(head);
+            long position = head.length;
+            // Adjacent clean rows are copied in one run.
+            long runStart = -1;
+            long runEnd = -1;
+            for (T item : items) {
+                K key = keyOf.apply(item);
+                long[] old = rows.get(key);
+                if (old != null && !isDirty.test(item) && !newRows.containsKey(key)) {
+                    if (old[0] != runEnd) {
+                        copy(out, source, runStart, runEnd);
+                        runStart = old[0];
+                    }
+                    runEnd = old[1];
+                    newRows.put(key, new long[] { position, position + old[1] - old[0] });
+                    position += old[1] - old[0];
+                } else {
+                    copy(out, source, runStart, runEnd);
+                    runStart = runEnd = -1;
+                    byte[] line = (format.apply(item) + LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8);
+                    stream.write(line);
+                    newRows.put(key, new long[] { position, position + line.length });
+                    position += line.length;
+                    serialised.add(item);
+                }
+            }
+            copy(out, source, runStart, runEnd);
+
+            out.onReplaced(() -> {
+                rows = newRows;
+                stamp = fileStamp();
+                serialised.forEach(markClean);
+            });
+            out.commit();
+        }
+    }
+
+    private <T> boolean unchanged(List<T> items, Function<T, K> keyOf, Predicate<T> isDirty) {
+        if (items.size() != rows.size()) {
+            return false;
+        }
+        for (T item : items) {
+            if (isDirty.test(item) || !rows.containsKey(keyOf.apply(item))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void copy(AtomicFileWriter out, FileChannel source, long start, long end) throws IOException {
+        if (start >= 0 && end > start) {
+            out.transferFrom(source, start, end - start);
+        }
+    }
+
+    /**
+     * Re-indexes the file through an already open channel.
+     */
+    private void rebuild(FileChannel source) throws IOException {
+        long[] before = fileStamp();
+        Map<K, long[]> fresh = new HashMap<>();
+        if (source != null) {
+            source.position(0);
+            // Not closed here: closing it would close the shared channel.
+            CSVTokenizer csv = new CSVTokenizer(Channels.newInputStream(source));
+            csv.readRecord(); // header
+            String[] tokens;
+            while ((tokens = csv.readRecord()) != null) {
+                try {
+                    addRow(fresh, keyOfRow.apply(tokens), csv);
+                } catch (RuntimeException e) {
+                    // Malformed row: not indexed, so it is dropped like on a full rewrite.
+                }
+            }
+        }
+        rows = fresh;
+        stamp = before;
+    }
+
+    private void addRow(Map<K, long[]> target, K key, CSVTokenizer csv) {
+        // A last line without a line break is re-serialised rather than copied.
+        if (csv.isRecordTerminated()) {
+            target.put(key, new long[] { csv.getRecordStart(), csv.getRecordEnd() });
+        } else {
+            target.remove(key);
+        }
+    }
+
+    private long[] fileStamp() {
+        File file = new File(path);
+        return new long[] { file.lastModified(), file.length() };
+    }
+}
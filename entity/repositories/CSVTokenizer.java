@@ -0,0 +1,260 @@
+package entity.repositories;
+
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Streaming, single-pass CSV tokenizer shared by all CSV repositories.
+ * <p>
+ * Follows RFC 4180: fields are separated by commas, records by LF or CRLF,
+ * and a field wrapped in double quotes may contain commas, line breaks and
+ * doubled quotes ({@code ""}), which are returned as a single quote. Each byte
+ * of input is inspected exactly once, so cost is linear in the file size no
+ * matter how many commas or quotes a line contains.
+ * </p>
+ * <p>
+ * The tokenizer works on raw UTF-8 bytes. All delimiters are ASCII, which never
+ * occur inside a multi-byte UTF-8 sequence, so field boundaries can be found
+ * without decoding, and the byte offsets of each record are known exactly.
+ * </p>
+ */
+public class CSVTokenizer implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final InputStream in;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int bufferPos;
+    private int bufferLen;
+    /** Absolute byte offset of {@code buffer[0]} in the stream. */
+    private long bufferOffset;
+
+    /** Bytes of the field currently being read. */
+    private byte[] field = new byte[256];
+    private int fieldLen;
+
+    private long recordStart;
+    private long recordEnd;
+    /** Whether the last record read ended with a line break (rather than end of input). */
+    private boolean recordTerminated;
+
+    /**
+     * Creates a tokenizer over the given stream.
+     *
+     * @param in UTF-8 encoded CSV input; closed by {@link #close()}.
+     */
+    public CSVTokenizer(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Opens a tokenizer on a file.
+     *
+     * @param path Path of the CSV file.
+     * @return A tokenizer positioned at the start of the file.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static CSVTokenizer open(String path) throws IOException {
+        return new CSVTokenizer(new FileInputStream(path));
+    }
+
+    /**
+     * Reads the next record. Blank lines are skipped.
+     *
+     * @return The record's fields with quotes removed, or null at end of input.
+     * @throws IOException If the underlying stream fails.
+     */
+    public String[] readRecord() throws IOException {
+        while (true) {
+            recordStart = position();
+            int c = peek();
+            if (c < 0) {
+                return null;
+            }
+            if (c == '\n' || c == '\r') {
+                consumeLineBreak();
+                continue;
+            }
+            List<String> fields = new ArrayList<>(16);
+            recordTerminated = false;
+            boolean more = true;
+            while (more) {
+                more = readField();
+                fields.add(new String(field, 0, fieldLen, StandardCharsets.UTF_8));
+            }
+            recordEnd = position();
+            return fields.toArray(new String[0]);
+        }
+    }
+
+    /**
+     * Gets the byte offset at which the last record returned by
+     * {@link #readRecord()} starts.
+     *
+     * @return Offset of the record's first byte.
+     */
+    public long getRecordStart() {
+        return recordStart;
+    }
+
+    /**
+     * Gets the byte offset just past the last record returned by
+     * {@link #readRecord()}, including its line break.
+     *
+     * @return Offset of the first byte after the record.
+     */
+    public long getRecordEnd() {
+        return recordEnd;
+    }
+
+    /**
+     * Tells whether the last record returned by {@link #readRecord()} ended
+     * with a line break, which is false only for a final line without one.
+     *
+     * @return true if the record's byte range includes its line break.
+     */
+    public boolean isRecordTerminated() {
+        return recordTerminated;
+    }
+
+    /**
+     * Escapes a value for CSV output: values containing a comma, quote or line
+     * break are wrapped in quotes with inner quotes doubled.
+     *
+     * @param value The raw value; null is written as an empty field.
+     * @return The value as it should appear in a CSV file.
+     */
+    public static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Splits a field that itself holds a comma-separated list (such as the
+     * officer NRIC columns of the project file).
+     *
+     * @param value The already unquoted field value.
+     * @return The trimmed, non-blank list items.
+     */
+    public static List<String> splitList(String value) {
+        List<String> items = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == ',') {
+                String item = value.substring(start, i).trim();
+                if (!item.isEmpty()) {
+                    items.add(item);
+                }
+                start = i + 1;
+            }
+        }
+        return items;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * Reads one field into {@link #field}.
+     *
+     * @return true if another field follows in the same record.
+     */
+    private boolean readField() throws IOException {
+        fieldLen = 0;
+        if (peek() == '"') {
+            next();
+            while (true) {
+                int c = next();
+                if (c < 0) {
+                    return false; // unterminated quote: take what we have
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        next();
+                        append('"');
+                    } else {
+                        break;
+                    }
+                } else {
+                    append(c);
+                }
+            }
+            // Anything between the closing quote and the delimiter is kept as-is.
+        }
+        while (true) {
+            int c = peek();
+            if (c < 0) {
+                return false;
+            }
+            if (c == ',') {
+                next();
+                return true;
+            }
+            if (c == '\n' || c == '\r') {
+                consumeLineBreak();
+                recordTerminated = true;
+                return false;
+            }
+            append(next());
+        }
+    }
+
+    private void consumeLineBreak() throws IOException {
+        if (next() == '\r' && peek() == '\n') {
+            next();
+        }
+    }
+
+    private void append(int b) {
+        if (fieldLen == field.length) {
+            field = Arrays.copyOf(field, field.length * 2);
+        }
+        field[fieldLen++] = (byte) b;
+    }
+
+    private long position() {
+        return bufferOffset + bufferPos;
+    }
+
+    private int peek() throws IOException {
+        if (bufferPos == bufferLen && !fill()) {
+            return -1;
+        }
+        return buffer[bufferPos] & 0xFF;
+    }
+
+    private int next() throws IOException {
+        if (bufferPos == bufferLen && !fill()) {
+            return -1;
+        }
+        return buffer[bufferPos++] & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        bufferOffset += bufferLen;
+        bufferPos = 0;
+        bufferLen = 0;
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) {
+            return false;
+        }
+        bufferLen = n;
+        return true;
+    }
+}
@@ -0,0 +1,1199 @@
+package entity.repositories;
+
+import entity.BTOApplication;
+import entity.BTOProject;
+import entity.Enquiry;
+import entity.EnquirySearchIndex;
+import entity.OfficerApplication;
+import entity.ProjectStats;
+import entity.ProjectWindowIndex;
+import entity.Receipt;
+import entity.User;
+import entity.enumerations.ApplicationStatus;
+import entity.enumerations.FlatType;
+import entity.interfaces.IApplicantRepository;
+import entity.interfaces.IApplicationRepository;
+import entity.interfaces.IEnquiryRepository;
+import entity.interfaces.IOfficerApplicationRepository;
+import entity.interfaces.IProjectRepository;
+import entity.interfaces.IReceiptRepository;
+import entity.interfaces.IUserRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+/**
+ * Process-wide, in-memory store of all BTO data.
+ * <p>
+ * Each dataset is read at most once per process, the first time its data is
+ * requested, through the repositories of the configured backend (see
+ * {@link Repositories}). Every controller works on the same live lists and entity objects,
+ * so a change made through one controller is immediately visible to the others
+ * and a save never overwrites another controller's changes with a stale copy.
+ * All persistence goes through the {@code save*} methods of this class.
+ * </p>
+ * <p>
+ * Files are replaced atomically through {@link AtomicFileWriter}. Saves made
+ * inside {@link #batch(Runnable)} are coalesced: each dataset is written at most
+ * once, and all files of the batch are synced and replaced together at the end.
+ * With the database backend a batch is one transaction.
+ * </p>
+ * <p>
+ * Queries that only read can run in parallel inside {@link #read(Supplier)};
+ * a batch waits for them and excludes them while it runs. Locks are taken in
+ * the order: project locks ({@link #lockProjects(int...)}), then applicant
+ * locks ({@link #lockApplicants(Collection)}), then the read/write lock, then
+ * this store's monitor.
+ * </p>
+ * <p>
+ * With the CSV backend, on first use the store tries the binary snapshot
+ * ({@link BinarySnapshot}) and only parses the CSV files if it is missing or
+ * out of date. On
+ * {@link #close()} the snapshot is rewritten if the CSV files have changed.
+ * </p>
+ */
+public final class DataStore {
+
+    /** The single shared instance. */
+    private static DataStore instance;
+    /**
+     * Minimum number of journal entries before the application CSV snapshot is
+     * rewritten. Above this, compaction happens once the journal is as long as
+     * the dataset, so the rewrite cost is amortised to O(1) per change.
+     */
+    private static final int MIN_JOURNAL_ENTRIES_BEFORE_COMPACTION = 1024;
+
+    /** The configured storage backend. */
+    private final Repositories repositories = Repositories.fromConfiguration();
+    /** Repository for reading/writing user data. */
+    private final IUserRepository userRepo = repositories.users();
+    /** Repository for reading/writing BTO project data. */
+    private final IProjectRepository projectRepo = repositories.projects();
+    /** Repository for reading/writing BTO application data. */
+    private final IApplicationRepository applicationRepo = repositories.applications();
+    /** Repository for reading/writing officer application data. */
+    private final IOfficerApplicationRepository officerApplicationRepo = repositories.officerApplications();
+    /** Repository for reading/writing enquiry data. */
+    private final IEnquiryRepository enquiryRepo = repositories.enquiries();
+    /** Repository for reading/appending receipts. */
+    private final IReceiptRepository receiptRepo = repositories.receipts();
+    /** Locks for check-then-act changes to one project; see {@link #lockProjects(int...)}. */
+    private final ProjectLocks projectLocks = new ProjectLocks(ProjectLocks.DEFAULT_STRIPES);
+    /** Locks for rules that span projects, keyed by applicant; see {@link #lockApplicants(Collection)}. */
+    private final ProjectLocks applicantLocks = new ProjectLocks(ProjectLocks.DEFAULT_STRIPES);
+    /** Binary copy of all datasets for fast startup. */
+    private final BinarySnapshot snapshot = new BinarySnapshot("assets/snapshot.bin");
+
+    /** Application IDs; seeded from the loaded applications on first use. */
+    private final IdSequence applicationIds = new IdSequence("assets/BTOApplication.seq",
+            IdSequence.DEFAULT_BLOCK_SIZE, () -> maxId(getApplications(), BTOApplication::getApplicationId) + 1);
+    /** Officer application IDs. */
+    private final IdSequence officerApplicationIds = new IdSequence("assets/officerApplication.seq",
+            IdSequence.DEFAULT_BLOCK_SIZE,
+            () -> maxId(getOfficerApplications(), OfficerApplication::getOfficerApplicationId) + 1);
+    /** Enquiry IDs. */
+    private final IdSequence enquiryIds = new IdSequence("assets/enquiryList.seq",
+            IdSequence.DEFAULT_BLOCK_SIZE, () -> maxId(getEnquiries(), Enquiry::getEnquiryId) + 1);
+    /** Project IDs. */
+    private final IdSequence projectIds = new IdSequence("assets/ProjectList.seq",
+            IdSequence.DEFAULT_BLOCK_SIZE, () -> maxId(getProjects(), BTOProject::getProjectID) + 1);
+    /** Receipt IDs. */
+    private final IdSequence receiptIds = new IdSequence("assets/receipt.seq",
+            IdSequence.DEFAULT_BLOCK_SIZE, receiptRepo::getNextReceiptID);
+
+    /** All users, or null if not loaded yet. */
+    private List<User> users;
+    /** All BTO projects, or null if not loaded yet. */
+    private List<BTOProject> projects;
+    /** All BTO applications, or null if not loaded yet. */
+    private List<BTOApplication> applications;
+    /** All officer applications, or null if not loaded yet. */
+    private List<OfficerApplication> officerApplications;
+    /** All enquiries, or null if not loaded yet. */
+    private List<Enquiry> enquiries;
+    /** All receipts, or null if not loaded yet. */
+    private List<Receipt> receipts;
+
+    /** Index of {@link #applications} by application ID, or null if not built yet. */
+    private Map<Integer, BTOApplication> applicationsById;
+    /** Index of {@link #applications} by upper-case applicant NRIC, or null if not built yet. */
+    private Map<String, List<BTOApplication>> applicationsByApplicant;
+    /** Index of {@link #applications} by project ID, built with {@link #applicationsById}. */
+    private Map<Integer, List<BTOApplication>> applicationsByProject;
+    /** Index of {@link #projects} by project ID, or null if not built yet. */
+    private Map<Integer, BTOProject> projectsById;
+    /** Live application counts by project ID, or null if not built yet. */
+    private Map<Integer, ProjectStats> statsByProject;
+    /** {@link #projects} by flat type and price of that flat type, or null if not built yet. */
+    private Map<FlatType, TreeMap<Integer, List<BTOProject>>> projectsByPrice;
+    /** The 2-Room and 3-Room prices each project is filed under in {@link #projectsByPrice}, by project ID. */
+    private Map<Integer, int[]> indexedPrices;
+    /** Full-text index of {@link #enquiries}, or null if not built yet. */
+    private EnquirySearchIndex enquiryIndex;
+    /** Application periods of all {@link #projects}, or null if not built yet. */
+    private ProjectWindowIndex projectWindows;
+    /** Application periods by upper-case manager NRIC, built with {@link #projectWindows}. */
+    private Map<String, ProjectWindowIndex> windowsByManager;
+    /**
+     * Application periods of the projects each officer is approved for, by
+     * upper-case officer NRIC, built with {@link #projectWindows}.
+     */
+    private Map<String, ProjectWindowIndex> windowsByOfficer;
+    /**
+     * Index of {@link #users} by upper-case NRIC, or null if not built yet.
+     * Read without this store's lock, so lookups from many threads (e.g. a
+     * parallel report) do not contend.
+     */
+    private volatile Map<String, User> usersByNRIC;
+
+    /** Whether the binary snapshot has been tried yet. */
+    private boolean snapshotChecked;
+    /**
+     * Stamp of each loaded dataset's files as of the last time this store read
+     * or wrote them; the in-memory data matches the files only while these hold.
+     */
+    private final Map<Dataset, long[]> knownStamps = new EnumMap<>(Dataset.class);
+    /** Datasets written during the current batch, re-stamped when it commits. */
+    private final EnumSet<Dataset> writtenInBatch = EnumSet.noneOf(Dataset.class);
+
+    /** Datasets whose save has been deferred to the end of the current batch. */
+    private final EnumSet<Dataset> pendingSaves = EnumSet.noneOf(Dataset.class);
+    /** Nesting depth of {@link #batch(Runnable)} calls. */
+    private int batchDepth;
+    /** Shared by {@link #read(Supplier)} queries, held exclusively by {@link #batch(Supplier)}. */
+    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+
+    private DataStore() {
+    }
+
+    /**
+     * Returns the shared store, creating it on first use.
+     *
+     * @return The process-wide {@link DataStore}.
+     */
+    public static synchronized DataStore getInstance() {
+        if (instance == null) {
+            instance = new DataStore();
+        }
+        return instance;
+    }
+
+    /**
+     * Gets the live list of all users, loading it on first use.
+     *
+     * @return List of {@link User} objects shared by all controllers.
+     */
+    public synchronized List<User> getUsers() {
+        loadSnapshot();
+        if (users == null) {
+            knownStamps.put(Dataset.USERS, Dataset.USERS.stamp());
+            users = userRepo.loadUsers();
+        }
+        return users;
+    }
+
+    /**
+     * Gets the live list of all BTO projects, loading it on first use.
+     *
+     * @return List of {@link BTOProject} objects shared by all controllers.
+     */
+    public synchronized List<BTOProject> getProjects() {
+        loadSnapshot();
+        if (projects == null) {
+            knownStamps.put(Dataset.PROJECTS, Dataset.PROJECTS.stamp());
+            projects = projectRepo.loadProjects();
+        }
+        return projects;
+    }
+
+    /**
+     * Gets the live list of all BTO applications, loading it on first use.
+     *
+     * @return List of {@link BTOApplication} objects shared by all controllers.
+     */
+    public synchronized List<BTOApplication> getApplications() {
+        loadSnapshot();
+        if (applications == null) {
+            knownStamps.put(Dataset.APPLICATIONS, Dataset.APPLICATIONS.stamp());
+            applications = applicationRepo.loadApplications();
+        }
+        return applications;
+    }
+
+    /**
+     * Gets the live list of all officer applications, loading it on first use.
+     *
+     * @return List of {@link OfficerApplication} objects shared by all controllers.
+     */
+    public synchronized List<OfficerApplication> getOfficerApplications() {
+        loadSnapshot();
+        if (officerApplications == null) {
+            knownStamps.put(Dataset.OFFICER_APPLICATIONS, Dataset.OFFICER_APPLICATIONS.stamp());
+            officerApplications = officerApplicationRepo.loadOfficerApplications();
+        }
+        return officerApplications;
+    }
+
+    /**
+     * Gets the live list of all enquiries, loading it on first use.
+     *
+     * @return List of {@link Enquiry} objects shared by all controllers.
+     */
+    public synchronized List<Enquiry> getEnquiries() {
+        loadSnapshot();
+        if (enquiries == null) {
+            knownStamps.put(Dataset.ENQUIRIES, Dataset.ENQUIRIES.stamp());
+            enquiries = enquiryRepo.loadEnquiries();
+        }
+        return enquiries;
+    }
+
+    /**
+     * Gets the live list of all receipts, loading it on first use.
+     *
+     * @return List of {@link Receipt} objects.
+     */
+    public synchronized List<Receipt> getReceipts() {
+        loadSnapshot();
+        if (receipts == null) {
+            knownStamps.put(Dataset.RECEIPTS, Dataset.RECEIPTS.stamp());
+            receipts = receiptRepo.loadReceipts();
+        }
+        return receipts;
+    }
+
+    /**
+     * Appends a new receipt to the receipt file.
+     *
+     * @param receipt The new {@link Receipt}.
+     */
+    public synchronized void addReceipt(Receipt receipt) {
+        receiptRepo.saveReceipt(receipt);
+        if (receipts != null) {
+            receipts.add(receipt);
+        }
+        written(Dataset.RECEIPTS);
+    }
+
+    /**
+     * Appends several new receipts to the receipt file in one write.
+     *
+     * @param newReceipts The new {@link Receipt} objects, in ID order.
+     */
+    public synchronized void addReceipts(List<Receipt> newReceipts) {
+        receiptRepo.saveReceipts(newReceipts);
+        if (receipts != null) {
+            receipts.addAll(newReceipts);
+        }
+        written(Dataset.RECEIPTS);
+    }
+
+    /**
+     * Looks up a user by NRIC in O(1). Once the index is built this does not
+     * take the store's lock, so it may be called from any thread.
+     *
+     * @param nric The NRIC (case-insensitive).
+     * @return The {@link User}, or null if there is none.
+     */
+    public User getUser(String nric) {
+        if (nric == null) {
+            return null;
+        }
+        Map<String, User> index = usersByNRIC;
+        if (index == null) {
+            index = usersByNRIC();
+        }
+        return index.get(nric.toUpperCase());
+    }
+
+    private synchronized Map<String, User> usersByNRIC() {
+        if (usersByNRIC == null) {
+            List<User> list = getUsers();
+            Map<String, User> index = new ConcurrentHashMap<>(list.size() * 2);
+            for (User user : list) {
+                // The first user with an NRIC wins, as with a linear search
+                index.putIfAbsent(user.getNRIC().toUpperCase(), user);
+            }
+            usersByNRIC = index;
+        }
+        return usersByNRIC;
+    }
+
+    /**
+     * Looks up an application by its ID in O(1).
+     *
+     * @param applicationId The application ID.
+     * @return The {@link BTOApplication}, or null if there is none.
+     */
+    public synchronized BTOApplication getApplication(int applicationId) {
+        return applicationsById().get(applicationId);
+    }
+
+    /**
+     * Gets every application made by one applicant in O(1).
+     *
+     * @param nric The applicant's NRIC (case-insensitive).
+     * @return A copy of the applicant's applications, oldest first; empty if
+     *         there are none.
+     */
+    public synchronized List<BTOApplication> getApplicationsByApplicant(String nric) {
+        applicationsById();
+        List<BTOApplication> apps = applicationsByApplicant.get(nric.toUpperCase());
+        return apps == null ? Collections.emptyList() : List.copyOf(apps);
+    }
+
+    /**
+     * Gets the applications to projects managed by one manager. The backend's
+     * indexes answer the query where it has them; otherwise the projects are
+     * scanned and their applications taken from the in-memory index, without
+     * scanning the application list.
+     *
+     * @param managerNRIC NRIC of the manager.
+     * @param status      Only applications with this status, or null for all.
+     * @return The matching applications, in ascending ID order.
+     */
+    public synchronized List<BTOApplication> getApplicationsForManager(String managerNRIC, ApplicationStatus status) {
+        List<BTOApplication> result = new ArrayList<>();
+        List<Integer> ids = applicationRepo.findApplicationIdsByManager(managerNRIC, status);
+        if (ids != null) {
+            for (int id : ids) {
+                BTOApplication app = getApplication(id);
+                // The in-memory status is the latest, even if a write to the backend failed
+                if (app != null && (status == null || app.getStatus() == status)) {
+                    result.add(app);
+                }
+            }
+            return result;
+        }
+        applicationsById();
+        for (BTOProject project : getProjects()) {
+            if (!managerNRIC.equals(project.getManagerID())) {
+                continue;
+            }
+            for (BTOApplication app : applicationsByProject.getOrDefault(project.getProjectID(),
+                    Collections.emptyList())) {
+                if (status == null || app.getStatus() == status) {
+                    result.add(app);
+                }
+            }
+        }
+        result.sort(Comparator.comparingInt(BTOApplication::getApplicationId));
+        return result;
+    }
+
+    /**
+     * Gets the applications to projects where an officer is approved, from the
+     * in-memory index, without scanning the application list.
+     *
+     * @param officerNRIC NRIC of the officer (case-insensitive).
+     * @return The matching applications, in ascending ID order.
+     */
+    public synchronized List<BTOApplication> getApplicationsForOfficer(String officerNRIC) {
+        List<BTOApplication> result = new ArrayList<>();
+        applicationsById();
+        for (BTOProject project : getProjects()) {
+            List<String> officers = project.getApprovedOfficer();
+            if (officers != null && officers.stream().anyMatch(officerNRIC::equalsIgnoreCase)) {
+                result.addAll(applicationsByProject.getOrDefault(project.getProjectID(), Collections.emptyList()));
+            }
+        }
+        result.sort(Comparator.comparingInt(BTOApplication::getApplicationId));
+        return result;
+    }
+
+    /**
+     * Locks projects for a check-then-act change, e.g. booking a flat. Changes
+     * to different projects run in parallel; several projects are locked in a
+     * fixed order, so callers cannot deadlock. Must not be called while holding
+     * this store's lock (inside {@link #batch}).
+     *
+     * @param projectIds IDs of the projects to lock.
+     * @return Handle that unlocks them, for use in try-with-resources.
+     */
+    public ProjectLocks.Held lockProjects(int... projectIds) {
+        return projectLocks.lock(projectIds);
+    }
+
+    /**
+     * Locks projects for a check-then-act change; see {@link #lockProjects(int...)}.
+     *
+     * @param projectIds IDs of the projects to lock.
+     * @return Handle that unlocks them, for use in try-with-resources.
+     */
+    public ProjectLocks.Held lockProjects(Collection<Integer> projectIds) {
+        return projectLocks.lock(projectIds);
+    }
+
+    /**
+     * Locks applicants for a check-then-act change governed by a rule across
+     * all their applications, e.g. that an applicant books at most one flat.
+     * Applicants are striped by NRIC like projects by ID, and several are
+     * locked in a fixed order. Take after the project locks the change needs,
+     * and not inside {@link #batch}.
+     *
+     * @param nrics NRICs of the applicants (case-insensitive).
+     * @return Handle that unlocks them, for use in try-with-resources.
+     */
+    public ProjectLocks.Held lockApplicants(Collection<String> nrics) {
+        return applicantLocks.lock(nrics.stream().mapToInt(nric -> nric.toUpperCase().hashCode()).toArray());
+    }
+
+    /**
+     * Looks up a project by its ID in O(1).
+     *
+     * @param projectId The project ID.
+     * @return The {@link BTOProject}, or null if there is none.
+     */
+    public synchronized BTOProject getProject(int projectId) {
+        return projectsById().get(projectId);
+    }
+
+    /**
+     * Adds a new project and persists the project list.
+     *
+     * @param project The new {@link BTOProject}.
+     */
+    public synchronized void addProject(BTOProject project) {
+        getProjects().add(project);
+        projectsById().put(project.getProjectID(), project);
+        indexProjectPrices(project);
+        projectWindowsChanged();
+        saveProjects();
+    }
+
+    /**
+     * Removes a project and persists the project list.
+     *
+     * @param projectId The ID of the project to remove.
+     * @return true if the project existed and was removed.
+     */
+    public synchronized boolean removeProject(int projectId) {
+        BTOProject project = projectsById().remove(projectId);
+        if (project == null) {
+            return false;
+        }
+        getProjects().remove(project);
+        unindexProjectPrices(project);
+        projectWindowsChanged();
+        saveProjects();
+        return true;
+    }
+
+    /**
+     * Records that a project's fields were edited, updating the indexes that
+     * depend on its prices, application period and officers.
+     *
+     * @param project The edited project.
+     */
+    public synchronized void projectEdited(BTOProject project) {
+        indexProjectPrices(project);
+        projectWindowsChanged();
+    }
+
+    /**
+     * Finds the projects whose price for a flat type is in a range, with a
+     * sub-map lookup in O(log n + k) instead of a scan of every project. The
+     * index is built on first use and kept up to date by {@link #addProject},
+     * {@link #removeProject} and {@link #projectEdited}.
+     *
+     * @param flatType The flat type whose price is checked.
+     * @param minPrice Lowest price, inclusive.
+     * @param maxPrice Highest price, inclusive.
+     * @return The matching projects, by price.
+     */
+    public synchronized List<BTOProject> getProjectsInPriceRange(FlatType flatType, int minPrice, int maxPrice) {
+        List<BTOProject> found = new ArrayList<>();
+        if (minPrice > maxPrice) {
+            return found;
+        }
+        for (List<BTOProject> atPrice : projectsByPrice().get(flatType).subMap(minPrice, true, maxPrice, true)
+                .values()) {
+            found.addAll(atPrice);
+        }
+        return found;
+    }
+
+    private Map<FlatType, TreeMap<Integer, List<BTOProject>>> projectsByPrice() {
+        if (projectsByPrice == null) {
+            projectsByPrice = new EnumMap<>(FlatType.class);
+            projectsByPrice.put(FlatType.TWOROOM, new TreeMap<>());
+            projectsByPrice.put(FlatType.THREEROOM, new TreeMap<>());
+            indexedPrices = new HashMap<>();
+            for (BTOProject project : getProjects()) {
+                indexProjectPrices(project);
+            }
+        }
+        return projectsByPrice;
+    }
+
+    /**
+     * Files a project under its current prices, moving it from the prices it
+     * was filed under before, if the price index has been built.
+     */
+    private void indexProjectPrices(BTOProject project) {
+        if (projectsByPrice == null) {
+            return;
+        }
+        int[] prices = { project.getTwoRoomPrice(), project.getThreeRoomPrice() };
+        int[] old = indexedPrices.get(project.getProjectID());
+        if (old != null && Arrays.equals(old, prices)) {
+            return;
+        }
+        unindexProjectPrices(project);
+        projectsByPrice.get(FlatType.TWOROOM).computeIfAbsent(prices[0], k -> new ArrayList<>(1)).add(project);
+        projectsByPrice.get(FlatType.THREEROOM).computeIfAbsent(prices[1], k -> new ArrayList<>(1)).add(project);
+        indexedPrices.put(project.getProjectID(), prices);
+    }
+
+    /**
+     * Removes a project from the price index, if it has been built.
+     */
+    private void unindexProjectPrices(BTOProject project) {
+        if (projectsByPrice == null) {
+            return;
+        }
+        int[] old = indexedPrices.remove(project.getProjectID());
+        if (old == null) {
+            return;
+        }
+        removeAtPrice(projectsByPrice.get(FlatType.TWOROOM), old[0], project);
+        removeAtPrice(projectsByPrice.get(FlatType.THREEROOM), old[1], project);
+    }
+
+    private static void removeAtPrice(TreeMap<Integer, List<BTOProject>> byPrice, int price, BTOProject project) {
+        List<BTOProject> atPrice = byPrice.get(price);
+        if (atPrice != null && atPrice.remove(project) && atPrice.isEmpty()) {
+            byPrice.remove(price);
+        }
+    }
+
+    /**
+     * Searches the text and responses of all enquiries. The index is built on
+     * first use and kept up to date by {@link #enquiryChanged} and
+     * {@link #enquiryRemoved}.
+     *
+     * @param query  The words to look for; every one must occur.
+     * @param filter Which enquiries may be returned.
+     * @param limit  Most enquiries to return.
+     * @return The matching enquiries, best match first.
+     */
+    public synchronized List<Enquiry> searchEnquiries(String query, Predicate<Enquiry> filter, int limit) {
+        if (enquiryIndex == null) {
+            enquiryIndex = new EnquirySearchIndex(getEnquiries());
+        }
+        return enquiryIndex.search(query, filter, limit);
+    }
+
+    /**
+     * Records that an enquiry was created, or its text or response changed,
+     * re-indexing it if the search index has been built.
+     *
+     * @param enquiry The new or changed enquiry.
+     */
+    public synchronized void enquiryChanged(Enquiry enquiry) {
+        if (enquiryIndex != null) {
+            enquiryIndex.put(enquiry);
+        }
+    }
+
+    /**
+     * Records that an enquiry was deleted, removing it from the search index
+     * if that has been built.
+     *
+     * @param enquiry The deleted enquiry.
+     */
+    public synchronized void enquiryRemoved(Enquiry enquiry) {
+        if (enquiryIndex != null) {
+            enquiryIndex.remove(enquiry.getEnquiryId());
+        }
+    }
+
+    /**
+     * Finds the projects whose application period overlaps the given one.
+     *
+     * @param open  Opening day, as an epoch day.
+     * @param close Closing day, as an epoch day.
+     * @return The overlapping projects, by opening date.
+     */
+    public synchronized List<BTOProject> getProjectsOverlapping(long open, long close) {
+        buildProjectWindows();
+        return projectWindows.overlapping(open, close);
+    }
+
+    /**
+     * Finds the projects of one manager whose application period overlaps the
+     * given one.
+     *
+     * @param managerNRIC The manager's NRIC.
+     * @param open        Opening day, as an epoch day.
+     * @param close       Closing day, as an epoch day.
+     * @return The overlapping projects, by opening date.
+     */
+    public synchronized List<BTOProject> getManagedProjectsOverlapping(String managerNRIC, long open,
+            long close) {
+        buildProjectWindows();
+        ProjectWindowIndex windows = windowsByManager.get(managerNRIC.toUpperCase());
+        return windows == null ? new ArrayList<>() : windows.overlapping(open, close);
+    }
+
+    /**
+     * Finds the projects an officer is approved for whose application period
+     * overlaps the given one.
+     *
+     * @param officerNRIC The officer's NRIC.
+     * @param open        Opening day, as an epoch day.
+     * @param close       Closing day, as an epoch day.
+     * @return The overlapping projects, by opening date.
+     */
+    public synchronized List<BTOProject> getOfficerProjectsOverlapping(String officerNRIC, long open,
+            long close) {
+        buildProjectWindows();
+        ProjectWindowIndex windows = windowsByOfficer.get(officerNRIC.toUpperCase());
+        return windows == null ? new ArrayList<>() : windows.overlapping(open, close);
+    }
+
+    /**
+     * Records that a project's application period, manager or approved
+     * officers have changed. The period indexes are rebuilt on the next
+     * overlap query.
+     */
+    public synchronized void projectWindowsChanged() {
+        projectWindows = null;
+        windowsByManager = null;
+        windowsByOfficer = null;
+    }
+
+    /**
+     * Builds the period indexes, if needed, with one pass over the projects
+     * to group them by manager and by approved officer.
+     */
+    private void buildProjectWindows() {
+        if (projectWindows != null) {
+            return;
+        }
+        List<BTOProject> list = getProjects();
+        Map<String, List<BTOProject>> byManager = new HashMap<>();
+        Map<String, List<BTOProject>> byOfficer = new HashMap<>();
+        for (BTOProject project : list) {
+            if (project.getManagerID() != null) {
+                byManager.computeIfAbsent(project.getManagerID().toUpperCase(), k -> new ArrayList<>())
+                        .add(project);
+            }
+            if (project.getApprovedOfficer() != null) {
+                for (String officer : project.getApprovedOfficer()) {
+                    byOfficer.computeIfAbsent(officer.toUpperCase(), k -> new ArrayList<>()).add(project);
+                }
+            }
+        }
+        windowsByManager = new HashMap<>(byManager.size() * 2);
+        byManager.forEach((nric, projects) -> windowsByManager.put(nric, new ProjectWindowIndex(projects)));
+        windowsByOfficer = new HashMap<>(byOfficer.size() * 2);
+        byOfficer.forEach((nric, projects) -> windowsByOfficer.put(nric, new ProjectWindowIndex(projects)));
+        projectWindows = new ProjectWindowIndex(list);
+    }
+
+    private Map<Integer, BTOApplication> applicationsById() {
+        if (applicationsById == null) {
+            List<BTOApplication> apps = getApplications();
+            applicationsById = new HashMap<>(apps.size() * 2);
+            applicationsByApplicant = new HashMap<>();
+            applicationsByProject = new HashMap<>();
+            for (BTOApplication app : apps) {
+                indexApplication(app);
+            }
+        }
+        return applicationsById;
+    }
+
+    /**
+     * Adds one application to the indexes, if they have been built.
+     */
+    private void indexApplication(BTOApplication app) {
+        if (applicationsById == null) {
+            return;
+        }
+        applicationsById.put(app.getApplicationId(), app);
+        applicationsByApplicant
+                .computeIfAbsent(app.getApplicantNRIC().toUpperCase(), k -> new ArrayList<>(2))
+                .add(app);
+        applicationsByProject.computeIfAbsent(app.getProjectID(), k -> new ArrayList<>()).add(app);
+    }
+
+    /**
+     * Gets the live application counts of one project. The counters are built
+     * with one scan of the applications on first use, and from then on kept
+     * up to date by {@link #addApplication}, {@link #recordApplicationStatusChange}
+     * and {@link #recordApplicationTypeChange}, so reading them is O(1).
+     *
+     * @param projectId The project ID.
+     * @return The project's counters; all zero if it has no applications.
+     */
+    public synchronized ProjectStats getProjectStats(int projectId) {
+        if (statsByProject == null) {
+            statsByProject = new HashMap<>();
+            for (BTOApplication app : getApplications()) {
+                app.setStatsSlot(-1);
+                countApplication(app);
+            }
+        }
+        return statsByProject.computeIfAbsent(projectId, k -> new ProjectStats());
+    }
+
+    /**
+     * Moves an application to the counter matching its current type, status,
+     * flat type and applicant, if the counters have been built.
+     */
+    private void countApplication(BTOApplication app) {
+        if (statsByProject == null) {
+            return;
+        }
+        FlatType flatType;
+        try {
+            flatType = FlatType.valueOf(app.getFlatType().trim().toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            flatType = null;
+        }
+        User applicant = getUser(app.getApplicantNRIC());
+        int slot = ProjectStats.slot(app.getApplicationType(), app.getStatus(), flatType,
+                applicant == null ? null : applicant.getMaritalStatus());
+        int counted = app.getStatsSlot();
+        if (slot == counted) {
+            return;
+        }
+        ProjectStats stats = statsByProject.computeIfAbsent(app.getProjectID(), k -> new ProjectStats());
+        if (counted >= 0) {
+            stats.add(counted, -1);
+        }
+        stats.add(slot, 1);
+        app.setStatsSlot(slot);
+    }
+
+    private Map<Integer, BTOProject> projectsById() {
+        if (projectsById == null) {
+            List<BTOProject> list = getProjects();
+            projectsById = new HashMap<>(list.size() * 2);
+            for (BTOProject project : list) {
+                projectsById.put(project.getProjectID(), project);
+            }
+        }
+        return projectsById;
+    }
+
+    /**
+     * Gets the repository used to register new accounts.
+     *
+     * @return The configured backend's {@link IApplicantRepository}.
+     */
+    public IApplicantRepository getApplicantRepository() {
+        return repositories.applicants();
+    }
+
+    /**
+     * Adds a user that has already been persisted elsewhere (e.g. appended by
+     * {@link ApplicantCSVRepository}) to the in-memory user list.
+     *
+     * @param user The newly registered {@link User}.
+     */
+    public synchronized void addUser(User user) {
+        getUsers().add(user);
+        if (usersByNRIC != null) {
+            usersByNRIC.putIfAbsent(user.getNRIC().toUpperCase(), user);
+        }
+        written(Dataset.USERS);
+    }
+
+    /**
+     * Persists the current user list.
+     */
+    public synchronized void saveUsers() {
+        if (deferred(Dataset.USERS)) {
+            return;
+        }
+        if (users != null) {
+            userRepo.saveUsers(users);
+            written(Dataset.USERS);
+        }
+    }
+
+    /**
+     * Persists the current project list.
+     */
+    public synchronized void saveProjects() {
+        if (deferred(Dataset.PROJECTS)) {
+            return;
+        }
+        if (projects != null) {
+            projectRepo.saveProjects(projects);
+            written(Dataset.PROJECTS);
+        }
+    }
+
+    /**
+     * Persists the project list after a change made to one project outside
+     * this store's lock, such as a flat reserved under a project lock. The
+     * project is marked changed under the lock, so a save by another thread
+     * that ran concurrently with the change cannot leave it marked clean.
+     *
+     * @param project The changed project.
+     */
+    public synchronized void saveProject(BTOProject project) {
+        project.markDirty();
+        saveProjects();
+    }
+
+    /**
+     * Persists the current BTO application list as a full snapshot, which also
+     * empties the application journal.
+     */
+    public synchronized void saveApplications() {
+        if (deferred(Dataset.APPLICATIONS)) {
+            return;
+        }
+        if (applications != null) {
+            applicationRepo.saveApplications(applications);
+            written(Dataset.APPLICATIONS);
+        }
+    }
+
+    /**
+     * Runs a group of changes as one commit. Saves requested inside the batch
+     * are deferred; when the outermost batch ends, each affected dataset is
+     * written once and all files (and the application journal) are synced and
+     * replaced together.
+     *
+     * @param changes The changes to make, typically several {@code save*} or
+     *                {@code record*} calls for one user action.
+     */
+    public void batch(Runnable changes) {
+        batch(() -> {
+            changes.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs a group of changes as one commit, like {@link #batch(Runnable)}, and
+     * returns their result. No other batch or {@link #read(Supplier)} query
+     * runs until it returns, so a check and the change that depends on it
+     * (e.g. an eligibility check and the application it allows) happen as one
+     * step.
+     *
+     * @param <T>     Result type.
+     * @param changes The changes to make.
+     * @return The result of {@code changes}.
+     * @throws IllegalStateException If called inside {@link #read(Supplier)},
+     *                               whose lock cannot be upgraded.
+     */
+    public <T> T batch(Supplier<T> changes) {
+        if (readWriteLock.getReadHoldCount() > 0) {
+            throw new IllegalStateException("Cannot change data inside a read-only query");
+        }
+        readWriteLock.writeLock().lock();
+        try {
+            synchronized (this) {
+                return runBatch(changes);
+            }
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Runs a query that only reads. Queries run in parallel with each other
+     * but never while a {@link #batch(Supplier)} is changing data, so each
+     * sees a consistent state. Copy what the result needs inside the query;
+     * the entities may change once it returns.
+     *
+     * @param <T>   Result type.
+     * @param query The query; must not change data or take project locks.
+     * @return The result of {@code query}.
+     */
+    public <T> T read(Supplier<T> query) {
+        readWriteLock.readLock().lock();
+        try {
+            return query.get();
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    private <T> T runBatch(Supplier<T> changes) {
+        if (batchDepth++ == 0) {
+            AtomicFileWriter.beginGroup();
+            repositories.beginTransaction();
+        }
+        try {
+            return changes.get();
+        } finally {
+            if (--batchDepth == 0) {
+                try {
+                    EnumSet<Dataset> toSave = EnumSet.copyOf(pendingSaves);
+                    pendingSaves.clear();
+                    for (Dataset dataset : toSave) {
+                        switch (dataset) {
+                            case USERS -> saveUsers();
+                            case PROJECTS -> saveProjects();
+                            case APPLICATIONS -> saveApplications();
+                            case OFFICER_APPLICATIONS -> saveOfficerApplications();
+                            case ENQUIRIES -> saveEnquiries();
+                        }
+                    }
+                } finally {
+                    repositories.commitTransaction();
+                    AtomicFileWriter.commitGroup();
+                    for (Dataset dataset : writtenInBatch) {
+                        restamp(dataset);
+                    }
+                    writtenInBatch.clear();
+                }
+            }
+        }
+    }
+
+    /**
+     * Notes that this store has changed a dataset's files, so the in-memory
+     * copy still matches them.
+     */
+    private void written(Dataset dataset) {
+        if (batchDepth > 0 || AtomicFileWriter.inGroup()) {
+            writtenInBatch.add(dataset);
+        } else {
+            restamp(dataset);
+        }
+    }
+
+    private void restamp(Dataset dataset) {
+        if (knownStamps.containsKey(dataset)) {
+            knownStamps.put(dataset, dataset.stamp());
+        }
+    }
+
+    /**
+     * Loads every dataset from the binary snapshot the first time any data is
+     * needed, if the snapshot still matches the CSV files.
+     */
+    private void loadSnapshot() {
+        if (snapshotChecked) {
+            return;
+        }
+        snapshotChecked = true;
+        if (!repositories.isCSV()) {
+            return;
+        }
+        BinarySnapshot.Contents contents = snapshot.loadIfCurrent();
+        if (contents == null) {
+            return;
+        }
+        users = contents.users;
+        projects = contents.projects;
+        applications = contents.applications;
+        officerApplications = contents.officerApplications;
+        enquiries = contents.enquiries;
+        receipts = contents.receipts;
+        knownStamps.putAll(contents.stamps);
+    }
+
+    /**
+     * Rewrites the binary snapshot from memory, unless it is already current or
+     * another session has changed the CSV files since this store read them.
+     */
+    private void writeSnapshot() {
+        if (!repositories.isCSV()) {
+            return;
+        }
+        BinarySnapshot.Contents contents = new BinarySnapshot.Contents();
+        contents.users = getUsers();
+        contents.projects = getProjects();
+        contents.applications = getApplications();
+        contents.officerApplications = getOfficerApplications();
+        contents.enquiries = getEnquiries();
+        contents.receipts = getReceipts();
+        for (Dataset dataset : Dataset.values()) {
+            long[] known = knownStamps.get(dataset);
+            if (!Arrays.equals(known, dataset.stamp())) {
+                return;
+            }
+            contents.stamps.put(dataset, known);
+        }
+        Map<Dataset, long[]> existing = snapshot.readStamps();
+        if (existing != null && Arrays.deepEquals(existing.values().toArray(), contents.stamps.values().toArray())) {
+            return;
+        }
+        snapshot.write(contents);
+    }
+
+    /**
+     * Defers a save while a batch is open.
+     *
+     * @return true if the save was deferred and must not be done now.
+     */
+    private boolean deferred(Dataset dataset) {
+        if (batchDepth > 0) {
+            pendingSaves.add(dataset);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds a new application to the shared list and journals its creation.
+     *
+     * @param app The new {@link BTOApplication}.
+     */
+    public synchronized void addApplication(BTOApplication app) {
+        getApplications().add(app);
+        indexApplication(app);
+        countApplication(app);
+        applicationRepo.recordCreated(app);
+        written(Dataset.APPLICATIONS);
+        compactApplicationsIfNeeded();
+    }
+
+    /**
+     * Journals a status change made to a shared application.
+     *
+     * @param app The {@link BTOApplication} whose status was changed.
+     */
+    public synchronized void recordApplicationStatusChange(BTOApplication app) {
+        applicationRepo.recordStatusChange(app);
+        countApplication(app);
+        written(Dataset.APPLICATIONS);
+        compactApplicationsIfNeeded();
+    }
+
+    /**
+     * Journals an application type change made to a shared application.
+     *
+     * @param app The {@link BTOApplication} whose type was changed.
+     */
+    public synchronized void recordApplicationTypeChange(BTOApplication app) {
+        applicationRepo.recordTypeChange(app);
+        countApplication(app);
+        written(Dataset.APPLICATIONS);
+        compactApplicationsIfNeeded();
+    }
+
+    /**
+     * Folds the journal into a fresh CSV snapshot once it has grown as long as
+     * the application list itself.
+     */
+    private void compactApplicationsIfNeeded() {
+        int threshold = Math.max(MIN_JOURNAL_ENTRIES_BEFORE_COMPACTION, getApplications().size());
+        if (applicationRepo.getJournalSize() >= threshold) {
+            saveApplications();
+        }
+    }
+
+    /**
+     * Persists the current officer application list.
+     */
+    public synchronized void saveOfficerApplications() {
+        if (deferred(Dataset.OFFICER_APPLICATIONS)) {
+            return;
+        }
+        if (officerApplications != null) {
+            officerApplicationRepo.saveOfficerApplications(officerApplications);
+            written(Dataset.OFFICER_APPLICATIONS);
+        }
+    }
+
+    /**
+     * Persists the current enquiry list.
+     */
+    public synchronized void saveEnquiries() {
+        if (deferred(Dataset.ENQUIRIES)) {
+            return;
+        }
+        if (enquiries != null) {
+            enquiryRepo.saveEnquiries(enquiries);
+            written(Dataset.ENQUIRIES);
+        }
+    }
+
+    /**
+     * Allocates a new BTO application ID.
+     *
+     * @return A unique application ID.
+     */
+    public int nextApplicationId() {
+        return applicationIds.next();
+    }
+
+    /**
+     * Allocates a new officer application ID.
+     *
+     * @return A unique officer application ID.
+     */
+    public int nextOfficerApplicationId() {
+        return officerApplicationIds.next();
+    }
+
+    /**
+     * Allocates a new enquiry ID.
+     *
+     * @return A unique enquiry ID.
+     */
+    public int nextEnquiryId() {
+        return enquiryIds.next();
+    }
+
+    /**
+     * Allocates a new project ID.
+     *
+     * @return A unique project ID.
+     */
+    public int nextProjectId() {
+        return projectIds.next();
+    }
+
+    /**
+     * Allocates a new receipt ID.
+     *
+     * @return A unique receipt ID.
+     */
+    public int nextReceiptId() {
+        return receiptIds.next();
+    }
+
+    /**
+     * Allocates a block of consecutive receipt IDs, e.g. for a bulk booking.
+     *
+     * @param count Number of IDs needed.
+     * @return The first ID; the block is {@code [first, first + count)}.
+     */
+    public int nextReceiptIds(int count) {
+        return receiptIds.nextBlock(count);
+    }
+
+    /**
+     * Releases resources held by the store. Called once when the program exits:
+     * the binary snapshot is brought up to date, and unused leased IDs are
+     * handed back so the next session continues without gaps.
+     */
+    public synchronized void close() {
+        writeSnapshot();
+        applicationIds.release();
+        officerApplicationIds.release();
+        enquiryIds.release();
+        projectIds.release();
+        receiptIds.release();
+        repositories.close();
+    }
+
+    private static <T> int maxId(List<T> items, ToIntFunction<T> id) {
+        return items.stream().mapToInt(id).max().orElse(0);
+    }
+}
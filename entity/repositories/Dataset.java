@@ -0,0 +1,42 @@
+package entity.repositories;
+
+import java.io.File;
+
+/**
+ * The persisted datasets and the files that hold them.
+ * <p>
+ * A dataset's stamp (last-modified time and length of each of its files) tells
+ * whether the files still hold what was last read or written, which is how the
+ * binary snapshot decides if it can be trusted.
+ * </p>
+ */
+enum Dataset {
+    USERS("assets/userList.csv"),
+    PROJECTS("assets/ProjectList.csv"),
+    APPLICATIONS("assets/BTOApplication.csv", "assets/BTOApplication.journal"),
+    OFFICER_APPLICATIONS("assets/officerApplication.csv"),
+    ENQUIRIES("assets/enquiryList.csv"),
+    RECEIPTS("assets/receipt.csv");
+
+    private final String[] files;
+
+    Dataset(String... files) {
+        this.files = files;
+    }
+
+    /**
+     * Reads the current stamp of this dataset's files.
+     *
+     * @return Last-modified time and length of each file, in order; both are 0
+     *         for a missing file.
+     */
+    long[] stamp() {
+        long[] stamp = new long[files.length * 2];
+        for (int i = 0; i < files.length; i++) {
+            File file = new File(files[i]);
+            stamp[2 * i] = file.lastModified();
+            stamp[2 * i + 1] = file.length();
+        }
+        return stamp;
+    }
+}
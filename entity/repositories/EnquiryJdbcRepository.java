@@ -0,0 +1,58 @@
+package entity.repositories;
+
+import entity.Enquiry;
+import entity.interfaces.IEnquiryRepository;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enquiry storage in the {@code enquiries} table of a {@link JdbcDatabase}.
+ */
+public class EnquiryJdbcRepository implements IEnquiryRepository {
+
+    private static final String[] COLUMNS = { "enquiry_text", "submitted_by_nric", "project_id", "response",
+            "submitted_at" };
+
+    private final JdbcDatabase db;
+
+    public EnquiryJdbcRepository(JdbcDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<Enquiry> loadEnquiries() {
+        try {
+            return db.query("SELECT enquiry_id, enquiry_text, submitted_by_nric, project_id, response, submitted_at "
+                    + "FROM enquiries ORDER BY enquiry_id", rs -> {
+                        Enquiry enquiry = new Enquiry();
+                        enquiry.setEnquiryId(rs.getInt(1));
+                        enquiry.setEnquiryText(UserJdbcRepository.nullToEmpty(rs, 2));
+                        enquiry.setSubmittedByNRIC(rs.getString(3));
+                        enquiry.setProjectId(rs.getInt(4));
+                        enquiry.setResponse(UserJdbcRepository.nullToEmpty(rs, 5));
+                        enquiry.setTimestamp(UserJdbcRepository.nullToEmpty(rs, 6));
+                        enquiry.markClean();
+                        return enquiry;
+                    });
+        } catch (SQLException e) {
+            System.out.println("Error reading enquiries: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void saveEnquiries(List<Enquiry> enquiries) {
+        try {
+            db.inTransaction(c -> {
+                List<Enquiry> written = db.saveAll("enquiries", "enquiry_id", COLUMNS, enquiries,
+                        Enquiry::getEnquiryId, Enquiry::isDirty,
+                        e -> new Object[] { e.getEnquiryText(), e.getSubmittedByNRIC(), e.getProjectId(),
+                                e.getResponse(), e.getTimestamp() });
+                db.afterCommit(() -> written.forEach(Enquiry::markClean));
+            });
+        } catch (SQLException e) {
+            throw new StorageException("Error writing enquiries", e);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package entity.repositories;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.function.IntSupplier;
+
+/**
+ * Durable allocator of unique, increasing integer IDs.
+ * <p>
+ * The state file holds a single number: the lowest ID that no session has been
+ * given yet (the high-water mark). Instead of writing it on every call, a
+ * session leases a block of IDs at once under an exclusive file lock, so
+ * {@link #next()} is O(1) and touches the disk only once per block. Sessions in
+ * other processes lease their own, disjoint blocks from the same file.
+ * </p>
+ * <p>
+ * IDs leased but never used are skipped. {@link #release()} hands the unused
+ * tail of the current block back if no other session has leased since, so a
+ * single session leaves no gaps.
+ * </p>
+ * <p>
+ * An ID is only handed out once its block is recorded in the state file; if
+ * the file cannot be updated the allocation fails rather than risk giving
+ * another session the same ID.
+ * </p>
+ */
+public class IdSequence {
+
+    /** Default number of IDs leased per disk write. */
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+
+    private final String stateFile;
+    private final int blockSize;
+    /** Supplies the first ID when the state file does not exist yet. */
+    private final IntSupplier seed;
+    /** Value of {@link #seed}, or 0 until first needed. */
+    private volatile int seedValue;
+
+    /** Next ID to hand out from the current lease. */
+    private int nextId;
+    /** First ID past the current lease. */
+    private int leaseEnd;
+
+    /**
+     * Creates a sequence backed by the given state file.
+     *
+     * @param stateFile Path of the file holding the high-water mark.
+     * @param blockSize Number of IDs leased per disk write.
+     * @param seed      Called once, before the first lease and without holding
+     *                  any lock of this sequence, to find the first ID for when
+     *                  the state file is missing, e.g. max existing ID + 1.
+     */
+    public IdSequence(String stateFile, int blockSize, IntSupplier seed) {
+        this.stateFile = stateFile;
+        this.blockSize = Math.max(1, blockSize);
+        this.seed = seed;
+    }
+
+    /**
+     * Returns the next unused ID.
+     *
+     * @return A unique ID.
+     * @throws UncheckedIOException If a new block cannot be leased.
+     */
+    public int next() {
+        int first = seed();
+        synchronized (this) {
+            if (nextId == leaseEnd) {
+                lease(blockSize, first);
+            }
+            return nextId++;
+        }
+    }
+
+    /**
+     * Reserves {@code count} consecutive IDs.
+     *
+     * @param count Number of IDs needed.
+     * @return The first ID of the block; the block is {@code [first, first + count)}.
+     * @throws UncheckedIOException If a new block cannot be leased.
+     */
+    public int nextBlock(int count) {
+        int seeded = seed();
+        synchronized (this) {
+            if (leaseEnd - nextId < count) {
+                lease(Math.max(count, blockSize), seeded);
+            }
+            int first = nextId;
+            nextId += count;
+            return first;
+        }
+    }
+
+    /**
+     * Returns the unused part of the current lease to the state file, provided
+     * no other session has leased IDs after it.
+     */
+    @SuppressWarnings("try") // the file lock is held for the whole block
+    public synchronized void release() {
+        if (nextId == leaseEnd) {
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(stateFile, "rw");
+                FileChannel channel = raf.getChannel();
+                FileLock lock = channel.lock()) {
+            if (readMark(channel) == leaseEnd) {
+                writeMark(channel, nextId);
+            }
+            leaseEnd = nextId;
+        } catch (IOException e) {
+            System.out.println("Error releasing ID sequence " + stateFile + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Gets the first ID for an empty state file, computing it on first use.
+     * Called outside this sequence's monitor: the seed may read a store whose
+     * lock is held by callers of {@link #next()}, so computing it under the
+     * monitor could deadlock.
+     */
+    private int seed() {
+        int value = seedValue;
+        if (value == 0) {
+            value = Math.max(1, seed.getAsInt());
+            seedValue = value;
+        }
+        return value;
+    }
+
+    /**
+     * Leases a new block of IDs by advancing the high-water mark on disk.
+     *
+     * @param count Size of the block.
+     * @param first First ID to use if the state file is missing or empty.
+     * @throws UncheckedIOException If the state file cannot be updated.
+     */
+    @SuppressWarnings("try") // the file lock is held for the whole block
+    private void lease(int count, int first) {
+        try (RandomAccessFile raf = new RandomAccessFile(stateFile, "rw");
+                FileChannel channel = raf.getChannel();
+                FileLock lock = channel.lock()) {
+            int start = readMark(channel);
+            if (start <= 0) {
+                start = first;
+            }
+            writeMark(channel, start + count);
+            nextId = start;
+            leaseEnd = start + count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error leasing IDs from " + stateFile, e);
+        }
+    }
+
+    /**
+     * Reads the high-water mark.
+     *
+     * @return The stored mark, or 0 if the file is empty or unreadable.
+     */
+    private int readMark(FileChannel channel) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate((int) Math.min(channel.size(), 32));
+        channel.read(buf, 0);
+        String text = new String(buf.array(), 0, buf.position(), StandardCharsets.US_ASCII).trim();
+        try {
+            return text.isEmpty() ? 0 : Integer.parseInt(text);
+        } catch (NumberFormatException e) {
+            System.out.println("Ignoring corrupt ID sequence " + stateFile + ": " + text);
+            return 0;
+        }
+    }
+
+    private void writeMark(FileChannel channel, int mark) throws IOException {
+        channel.truncate(0);
+        channel.write(ByteBuffer.wrap((mark + "\n").getBytes(StandardCharsets.US_ASCII)), 0);
+        channel.force(true);
+    }
+}
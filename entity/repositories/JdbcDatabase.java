@@ -0,0 +1,402 @@
+package entity.repositories;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Connection to the embedded database behind the JDBC repositories.
+ * <p>
+ * Any in-process database with a JDBC driver on the class path will do, e.g.
+ * H2 in file mode ({@code jdbc:h2:./assets/bto}) or SQLite
+ * ({@code jdbc:sqlite:assets/bto.db}). The schema is created on first
+ * connection, with indexes on the NRIC, project ID and status columns that
+ * the lookups filter on.
+ * </p>
+ * <p>
+ * Between {@link #beginTransaction()} and {@link #commitTransaction()} every
+ * statement runs in one transaction, the database counterpart of an
+ * {@link AtomicFileWriter} group. If any statement in it fails, the whole
+ * transaction is rolled back, so a group of changes is never stored in part.
+ * Repositories therefore mark the entities they wrote as clean through
+ * {@link #afterCommit(Runnable)}: after a rollback those entities stay dirty
+ * and are written again by the next save.
+ * </p>
+ */
+public class JdbcDatabase {
+
+    /** Tables and indexes; every statement can be re-run on an existing database. */
+    private static final String[] SCHEMA = {
+            "CREATE TABLE IF NOT EXISTS users ("
+                    + "nric VARCHAR(16) PRIMARY KEY, name VARCHAR(255), password VARCHAR(255), age INTEGER, "
+                    + "marital_status VARCHAR(16), role VARCHAR(16), filter_settings VARCHAR(1024))",
+            "CREATE TABLE IF NOT EXISTS projects ("
+                    + "project_id INTEGER PRIMARY KEY, name VARCHAR(255), neighborhood VARCHAR(255), "
+                    + "two_room_units INTEGER, two_room_price INTEGER, three_room_units INTEGER, "
+                    + "three_room_price INTEGER, opening_date VARCHAR(16), closing_date VARCHAR(16), "
+                    + "manager_nric VARCHAR(16), officer_slots INTEGER, visible INTEGER)",
+            "CREATE INDEX IF NOT EXISTS idx_projects_manager ON projects (manager_nric)",
+            "CREATE TABLE IF NOT EXISTS project_officers ("
+                    + "project_id INTEGER, list_index INTEGER, nric VARCHAR(16), approved INTEGER)",
+            "CREATE INDEX IF NOT EXISTS idx_project_officers_project ON project_officers (project_id)",
+            "CREATE INDEX IF NOT EXISTS idx_project_officers_nric ON project_officers (nric)",
+            "CREATE TABLE IF NOT EXISTS applications ("
+                    + "application_id INTEGER PRIMARY KEY, applicant_nric VARCHAR(16), project_id INTEGER, "
+                    + "application_type VARCHAR(16), status VARCHAR(16), flat_type VARCHAR(16))",
+            "CREATE INDEX IF NOT EXISTS idx_applications_applicant ON applications (applicant_nric)",
+            "CREATE INDEX IF NOT EXISTS idx_applications_project_status ON applications (project_id, status)",
+            "CREATE INDEX IF NOT EXISTS idx_applications_status ON applications (status)",
+            "CREATE TABLE IF NOT EXISTS officer_applications ("
+                    + "officer_application_id INTEGER PRIMARY KEY, officer_nric VARCHAR(16), project_id INTEGER, "
+                    + "status VARCHAR(16))",
+            "CREATE INDEX IF NOT EXISTS idx_officer_applications_officer ON officer_applications (officer_nric)",
+            "CREATE INDEX IF NOT EXISTS idx_officer_applications_project ON officer_applications (project_id, status)",
+            "CREATE TABLE IF NOT EXISTS enquiries ("
+                    + "enquiry_id INTEGER PRIMARY KEY, enquiry_text VARCHAR(4096), submitted_by_nric VARCHAR(16), "
+                    + "project_id INTEGER, response VARCHAR(4096), submitted_at VARCHAR(32))",
+            "CREATE INDEX IF NOT EXISTS idx_enquiries_submitter ON enquiries (submitted_by_nric)",
+            "CREATE INDEX IF NOT EXISTS idx_enquiries_project ON enquiries (project_id)",
+            "CREATE TABLE IF NOT EXISTS receipts ("
+                    + "receipt_id INTEGER PRIMARY KEY, nric VARCHAR(16), applicant_name VARCHAR(255), age INTEGER, "
+                    + "marital_status VARCHAR(16), flat_type VARCHAR(16), project_id INTEGER, "
+                    + "project_name VARCHAR(255), neighborhood VARCHAR(255), opening_date VARCHAR(16), "
+                    + "closing_date VARCHAR(16), manager VARCHAR(255))",
+            "CREATE INDEX IF NOT EXISTS idx_receipts_nric ON receipts (nric)",
+    };
+
+    private final String url;
+    private final String user;
+    private final String password;
+
+    private Connection connection;
+    /** Whether the schema did not exist before this connection created it. */
+    private boolean created;
+    /** Nesting depth of {@link #beginTransaction()} calls. */
+    private int transactionDepth;
+    /** Set when a statement inside the open transaction failed. */
+    private boolean rollbackOnly;
+    /** Actions to run once the open transaction has committed. */
+    private final List<Runnable> afterCommit = new ArrayList<>();
+
+    /**
+     * Creates a database handle; nothing is opened until first use.
+     *
+     * @param url      JDBC URL of the database.
+     * @param user     User name, or null.
+     * @param password Password, or null.
+     */
+    public JdbcDatabase(String url, String user, String password) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * Gets the connection, opening it and creating the schema on first use.
+     *
+     * @return The open {@link Connection}.
+     * @throws SQLException If the database cannot be opened, e.g. because its
+     *                      driver is not on the class path.
+     */
+    public synchronized Connection connection() throws SQLException {
+        if (connection == null) {
+            Connection c = DriverManager.getConnection(url, user, password);
+            created = !hasSchema(c);
+            try (Statement st = c.createStatement()) {
+                for (String ddl : SCHEMA) {
+                    st.executeUpdate(ddl);
+                }
+            }
+            connection = c;
+        }
+        return connection;
+    }
+
+    /**
+     * Tells whether the schema was created by this session, i.e. the database
+     * was empty.
+     *
+     * @return true if the tables did not exist before.
+     * @throws SQLException If the database cannot be opened.
+     */
+    public synchronized boolean isNew() throws SQLException {
+        connection();
+        return created;
+    }
+
+    private static boolean hasSchema(Connection c) {
+        try (Statement st = c.createStatement()) {
+            st.executeQuery("SELECT COUNT(*) FROM users").close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Starts a transaction. Transactions nest; only the outermost
+     * {@link #commitTransaction()} commits.
+     */
+    public synchronized void beginTransaction() {
+        try {
+            if (transactionDepth == 0) {
+                connection().setAutoCommit(false);
+                rollbackOnly = false;
+            }
+            transactionDepth++;
+        } catch (SQLException e) {
+            System.out.println("Error starting database transaction: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Ends a transaction started by {@link #beginTransaction()}. At the
+     * outermost level the changes are committed, or rolled back if any
+     * statement failed.
+     */
+    public synchronized void commitTransaction() {
+        if (transactionDepth == 0 || --transactionDepth > 0) {
+            return;
+        }
+        List<Runnable> committed = new ArrayList<>(afterCommit);
+        afterCommit.clear();
+        try {
+            if (rollbackOnly) {
+                connection.rollback();
+                System.out.println("Database changes rolled back after an error.");
+            } else {
+                connection.commit();
+                committed.forEach(Runnable::run);
+            }
+        } catch (SQLException e) {
+            System.out.println("Error committing database transaction: " + e.getMessage());
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } catch (SQLException e) {
+                System.out.println("Error ending database transaction: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Runs an action once the changes made so far are committed: at the end
+     * of the outermost transaction, or at once if none is open. The action is
+     * dropped if the transaction is rolled back or fails to commit.
+     *
+     * @param action The action, e.g. marking the written entities clean.
+     */
+    public synchronized void afterCommit(Runnable action) {
+        if (transactionDepth == 0) {
+            action.run();
+        } else {
+            afterCommit.add(action);
+        }
+    }
+
+    /**
+     * Runs statements in one transaction, joining the open one if any.
+     *
+     * @param work The statements to run.
+     * @throws SQLException If a statement fails; the transaction is then
+     *                      rolled back.
+     */
+    public synchronized void inTransaction(SqlWork work) throws SQLException {
+        beginTransaction();
+        try {
+            work.run(connection());
+        } catch (SQLException | RuntimeException e) {
+            rollbackOnly = true;
+            throw e;
+        } finally {
+            commitTransaction();
+        }
+    }
+
+    /**
+     * Runs a query and maps every row.
+     *
+     * @param <T>    Row type.
+     * @param sql    The query, with {@code ?} placeholders.
+     * @param mapper Maps the current row of the result set.
+     * @param params Values for the placeholders.
+     * @return The mapped rows, in result order.
+     * @throws SQLException If the query fails.
+     */
+    public synchronized <T> List<T> query(String sql, RowMapper<T> mapper, Object... params) throws SQLException {
+        List<T> rows = new ArrayList<>();
+        try (PreparedStatement ps = connection().prepareStatement(sql)) {
+            bind(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Runs an insert, update or delete.
+     *
+     * @param sql    The statement, with {@code ?} placeholders.
+     * @param params Values for the placeholders.
+     * @return The number of rows affected.
+     * @throws SQLException If the statement fails; the open transaction, if
+     *                      any, is then rolled back.
+     */
+    public synchronized int update(String sql, Object... params) throws SQLException {
+        try (PreparedStatement ps = connection().prepareStatement(sql)) {
+            bind(ps, params);
+            return ps.executeUpdate();
+        } catch (SQLException e) {
+            if (transactionDepth > 0) {
+                rollbackOnly = true;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Runs one insert, update or delete for each set of values, as a single
+     * batch in one transaction.
+     *
+     * @param sql  The statement, with {@code ?} placeholders.
+     * @param rows Values for the placeholders, one array per execution.
+     * @throws SQLException If a statement fails; nothing is changed then.
+     */
+    public synchronized void updateAll(String sql, List<Object[]> rows) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                for (Object[] values : rows) {
+                    bind(ps, values);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+    }
+
+    /**
+     * Makes a table hold exactly the given items: rows for new items are
+     * inserted, rows for dirty items updated, rows for missing items deleted,
+     * and rows of clean items left alone.
+     *
+     * @param <T>       Entity type.
+     * @param table     Table name.
+     * @param key       Primary key column.
+     * @param columns   The other columns, in the order {@code valuesOf} returns them.
+     * @param items     All entities.
+     * @param keyOf     Primary key of an entity.
+     * @param isDirty   Whether an entity differs from its stored row.
+     * @param valuesOf  Column values of an entity (enums as names, booleans as 0/1).
+     * @return The entities that were inserted or updated. They are still dirty;
+     *         the caller marks them clean through {@link #afterCommit(Runnable)}.
+     * @throws SQLException If a statement fails; nothing is changed then.
+     */
+    public synchronized <T> List<T> saveAll(String table, String key, String[] columns, List<T> items,
+            Function<T, Object> keyOf, Predicate<T> isDirty, Function<T, Object[]> valuesOf) throws SQLException {
+        List<T> written = new ArrayList<>();
+        inTransaction(c -> {
+            // Stored keys by their text form, so Integer and Long keys compare equal.
+            Map<String, Object> stored = new HashMap<>();
+            for (Object k : query("SELECT " + key + " FROM " + table, rs -> rs.getObject(1))) {
+                stored.put(String.valueOf(k), k);
+            }
+            String update = "UPDATE " + table + " SET " + String.join(" = ?, ", columns) + " = ? WHERE " + key
+                    + " = ?";
+            String insert = "INSERT INTO " + table + " (" + String.join(", ", columns) + ", " + key + ") VALUES ("
+                    + "?, ".repeat(columns.length) + "?)";
+            try (PreparedStatement up = c.prepareStatement(update);
+                    PreparedStatement in = c.prepareStatement(insert);
+                    PreparedStatement del = c.prepareStatement("DELETE FROM " + table + " WHERE " + key + " = ?")) {
+                Set<String> seen = new HashSet<>();
+                for (T item : items) {
+                    Object k = keyOf.apply(item);
+                    String text = String.valueOf(k);
+                    if (!seen.add(text)) {
+                        continue; // duplicate key: the first one wins, as on reload
+                    }
+                    boolean exists = stored.remove(text) != null;
+                    if (exists && !isDirty.test(item)) {
+                        continue;
+                    }
+                    PreparedStatement ps = exists ? up : in;
+                    Object[] values = valuesOf.apply(item);
+                    bind(ps, values);
+                    bindValue(ps, values.length + 1, k);
+                    ps.addBatch();
+                    written.add(item);
+                }
+                for (Object k : stored.values()) {
+                    bindValue(del, 1, k);
+                    del.addBatch();
+                }
+                up.executeBatch();
+                in.executeBatch();
+                del.executeBatch();
+            }
+        });
+        return written;
+    }
+
+    /**
+     * Closes the connection.
+     */
+    public synchronized void close() {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            System.out.println("Error closing database: " + e.getMessage());
+        }
+        connection = null;
+    }
+
+    private static void bind(PreparedStatement ps, Object[] values) throws SQLException {
+        for (int i = 0; i < values.length; i++) {
+            bindValue(ps, i + 1, values[i]);
+        }
+    }
+
+    private static void bindValue(PreparedStatement ps, int index, Object value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else if (value instanceof Enum<?> e) {
+            ps.setString(index, e.name());
+        } else if (value instanceof Boolean b) {
+            ps.setInt(index, b ? 1 : 0);
+        } else {
+            ps.setObject(index, value);
+        }
+    }
+
+    /** Statements run by {@link #inTransaction(SqlWork)}. */
+    @FunctionalInterface
+    public interface SqlWork {
+        void run(Connection connection) throws SQLException;
+    }
+
+    /** Maps the current row of a {@link ResultSet}. */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+}
@@ -1,20 +1,21 @@
 package entity.repositories;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
 
 import entity.OfficerApplication;
 import entity.enumerations.RegistrationStatus;
+import entity.interfaces.IOfficerApplicationRepository;
 
-public class OfficerApplicationCSVRepository {
+public class OfficerApplicationCSVRepository implements IOfficerApplicationRepository {
 
     private static final String CSV_FILE = "assets/officerApplication.csv";
+    private static final String HEADER = "officerApplicationID,officerNRIC,projectID,status";
+
+    /** Rows of {@link #CSV_FILE} by application ID, so saves rewrite only changed rows. */
+    private final CSVRowIndex<Integer> index = new CSVRowIndex<>(CSV_FILE, t -> Integer.valueOf(t[0].trim()));
 
     /**
      * Reads a CSV with columns in the following order:
@@ -30,17 +31,15 @@ public class OfficerApplicationCSVRepository {
      * 
      * @return A List of OfficerApplication objects read from a CSV file.
      */
-    public List<OfficerApplication> readOfficerApplicationsFromCSV() {
+    @Override
+    public List<OfficerApplication> loadOfficerApplications() {
         List<OfficerApplication> list = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(CSV_FILE))) {
+        index.beginRead();
+        try (CSVTokenizer csv = CSVTokenizer.open(CSV_FILE)) {
             // Skip header line
-            br.readLine();
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.isBlank())
-                    continue;
-
-                String[] tokens = line.split(",", -1);
+            csv.readRecord();
+            String[] tokens;
+            while ((tokens = csv.readRecord()) != null) {
                 int id = Integer.parseInt(tokens[0].trim());
                 String nric = tokens[1].trim();
                 int projectId = Integer.parseInt(tokens[2].trim());
@@ -53,8 +52,11 @@ public class OfficerApplicationCSVRepository {
                 app.setProjectID(projectId);
                 app.setStatus(status);
 
+                app.markClean();
                 list.add(app);
+                index.add(id, csv);
             }
+            index.endRead();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -69,19 +71,16 @@ public class OfficerApplicationCSVRepository {
      *                     officer applications. Each `OfficerApplication` object
      *                     has the following attributes:
      */
-    public void writeOfficerApplicationsToCSV(List<OfficerApplication> applications) {
-        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(CSV_FILE)))) {
-            // Write header
-            pw.println("officerApplicationID,officerNRIC,projectID,status");
-
-            // Write each application
-            for (OfficerApplication app : applications) {
-                pw.printf("%d,%s,%d,%s%n",
-                        app.getOfficerApplicationId(),
-                        app.getOfficerNRIC(),
-                        app.getProjectID(),
-                        app.getStatus());
-            }
+    @Override
+    public void saveOfficerApplications(List<OfficerApplication> applications) {
+        try {
+            index.write(HEADER, applications, OfficerApplication::getOfficerApplicationId,
+                    OfficerApplication::isDirty, OfficerApplication::markClean,
+                    app -> String.format("%d,%s,%d,%s",
+                            app.getOfficerApplicationId(),
+                            app.getOfficerNRIC(),
+                            app.getProjectID(),
+                            app.getStatus()));
         } catch (IOException e) {
             System.err.println("Error writing officerApplication.csv: " + e.getMessage());
         }
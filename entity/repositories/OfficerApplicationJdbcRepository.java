@@ -0,0 +1,57 @@
+package entity.repositories;
+
+import entity.OfficerApplication;
+import entity.enumerations.RegistrationStatus;
+import entity.interfaces.IOfficerApplicationRepository;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Officer application storage in the {@code officer_applications} table of a
+ * {@link JdbcDatabase}.
+ */
+public class OfficerApplicationJdbcRepository implements IOfficerApplicationRepository {
+
+    private static final String[] COLUMNS = { "officer_nric", "project_id", "status" };
+
+    private final JdbcDatabase db;
+
+    public OfficerApplicationJdbcRepository(JdbcDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<OfficerApplication> loadOfficerApplications() {
+        try {
+            return db.query("SELECT officer_application_id, officer_nric, project_id, status "
+                    + "FROM officer_applications ORDER BY officer_application_id", rs -> {
+                        OfficerApplication app = new OfficerApplication();
+                        app.setOfficerApplicationId(rs.getInt(1));
+                        app.setOfficerNRIC(rs.getString(2));
+                        app.setProjectID(rs.getInt(3));
+                        app.setStatus(RegistrationStatus.valueOf(rs.getString(4)));
+                        app.markClean();
+                        return app;
+                    });
+        } catch (SQLException e) {
+            System.out.println("Error reading officer applications: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void saveOfficerApplications(List<OfficerApplication> applications) {
+        try {
+            db.inTransaction(c -> {
+                List<OfficerApplication> written = db.saveAll("officer_applications", "officer_application_id",
+                        COLUMNS, applications, OfficerApplication::getOfficerApplicationId,
+                        OfficerApplication::isDirty,
+                        app -> new Object[] { app.getOfficerNRIC(), app.getProjectID(), app.getStatus() });
+                db.afterCommit(() -> written.forEach(OfficerApplication::markClean));
+            });
+        } catch (SQLException e) {
+            throw new StorageException("Error writing officer applications", e);
+        }
+    }
+}
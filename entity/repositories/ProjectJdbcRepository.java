@@ -0,0 +1,132 @@
+package entity.repositories;
+
+import entity.BTOProject;
+import entity.interfaces.IProjectRepository;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Project storage in the {@code projects} table of a {@link JdbcDatabase}.
+ * Pending and approved officers are kept one per row in
+ * {@code project_officers}, indexed by NRIC.
+ */
+public class ProjectJdbcRepository implements IProjectRepository {
+
+    private static final String[] COLUMNS = { "name", "neighborhood", "two_room_units", "two_room_price",
+            "three_room_units", "three_room_price", "opening_date", "closing_date", "manager_nric",
+            "officer_slots", "visible" };
+
+    private final JdbcDatabase db;
+
+    public ProjectJdbcRepository(JdbcDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<BTOProject> loadProjects() {
+        try {
+            Map<Integer, List<String>> pending = new HashMap<>();
+            Map<Integer, List<String>> approved = new HashMap<>();
+            db.query("SELECT project_id, nric, approved FROM project_officers ORDER BY project_id, list_index", rs -> {
+                Map<Integer, List<String>> target = rs.getInt(3) != 0 ? approved : pending;
+                return target.computeIfAbsent(rs.getInt(1), k -> new ArrayList<>()).add(rs.getString(2));
+            });
+            return db.query("SELECT project_id, name, neighborhood, two_room_units, two_room_price, "
+                    + "three_room_units, three_room_price, opening_date, closing_date, manager_nric, "
+                    + "officer_slots, visible FROM projects ORDER BY project_id", rs -> {
+                        BTOProject p = new BTOProject();
+                        p.setProjectID(rs.getInt(1));
+                        p.setProjectName(rs.getString(2));
+                        p.setNeighborhood(rs.getString(3));
+                        p.setAvailable2Room(rs.getInt(4));
+                        p.setTwoRoomPrice(rs.getInt(5));
+                        p.setAvailable3Room(rs.getInt(6));
+                        p.setThreeRoomPrice(rs.getInt(7));
+                        p.setApplicationOpeningDate(rs.getString(8));
+                        p.setApplicationClosingDate(rs.getString(9));
+                        p.setManagerID(rs.getString(10));
+                        p.setAvailableOfficerSlots(rs.getInt(11));
+                        p.setVisibility(rs.getInt(12) != 0);
+                        p.setPendingOfficer(pending.getOrDefault(p.getProjectID(), new ArrayList<>()));
+                        p.setApprovedOfficer(approved.getOrDefault(p.getProjectID(), new ArrayList<>()));
+                        p.markClean();
+                        return p;
+                    });
+        } catch (SQLException e) {
+            System.out.println("Error reading projects: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Writes the new and changed projects and their officers.
+     * <p>
+     * The projects written are marked clean only once the outermost
+     * transaction commits. Flats are reserved and released outside the store
+     * batch, so a project may change again between its write and the commit;
+     * it is marked clean first and then compared with what was written, and
+     * marked dirty again if it differs, so that change is written by the next
+     * save.
+     * </p>
+     */
+    @Override
+    public void saveProjects(List<BTOProject> projects) {
+        try {
+            db.inTransaction(c -> {
+                List<BTOProject> changed = db.saveAll("projects", "project_id", COLUMNS, projects,
+                        BTOProject::getProjectID, BTOProject::isDirty, ProjectJdbcRepository::values);
+                List<List<Object>> written = new ArrayList<>(changed.size());
+                for (BTOProject p : changed) {
+                    db.update("DELETE FROM project_officers WHERE project_id = ?", p.getProjectID());
+                    insertOfficers(p.getProjectID(), p.getPendingOfficer(), false);
+                    insertOfficers(p.getProjectID(), p.getApprovedOfficer(), true);
+                    written.add(state(p));
+                }
+                db.update("DELETE FROM project_officers WHERE project_id NOT IN (SELECT project_id FROM projects)");
+                db.afterCommit(() -> {
+                    for (int i = 0; i < changed.size(); i++) {
+                        BTOProject p = changed.get(i);
+                        p.markClean();
+                        if (!state(p).equals(written.get(i))) {
+                            p.markDirty();
+                        }
+                    }
+                });
+            });
+        } catch (SQLException e) {
+            throw new StorageException("Error writing projects", e);
+        }
+    }
+
+    private static Object[] values(BTOProject p) {
+        return new Object[] { p.getProjectName(), p.getNeighborhood(), p.getAvailable2Room(), p.getTwoRoomPrice(),
+                p.getAvailable3Room(), p.getThreeRoomPrice(), p.getApplicationOpeningDate(),
+                p.getApplicationClosingDate(), p.getManagerID(), p.getAvailableOfficerSlots(), p.isVisibility() };
+    }
+
+    /** Everything stored for a project: its column values and officer lists. */
+    private static List<Object> state(BTOProject p) {
+        List<Object> state = new ArrayList<>(Arrays.asList(values(p)));
+        state.add(copyOf(p.getPendingOfficer()));
+        state.add(copyOf(p.getApprovedOfficer()));
+        return state;
+    }
+
+    private static List<String> copyOf(List<String> officers) {
+        return officers == null ? null : new ArrayList<>(officers);
+    }
+
+    private void insertOfficers(int projectId, List<String> officers, boolean approved) throws SQLException {
+        if (officers == null) {
+            return;
+        }
+        for (int i = 0; i < officers.size(); i++) {
+            db.update("INSERT INTO project_officers (project_id, list_index, nric, approved) VALUES (?, ?, ?, ?)",
+                    projectId, i, officers.get(i), approved);
+        }
+    }
+}
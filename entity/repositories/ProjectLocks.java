@@ -0,0 +1,121 @@
+package entity.repositories;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped locks keyed by project ID.
+ * <p>
+ * {@link DataStore} keeps a second set keyed by the hash of an applicant's
+ * NRIC, for rules that span an applicant's applications in several projects.
+ * </p>
+ * <p>
+ * Operations that check and then change a project and the records attached to
+ * it (booking a flat, deciding an officer registration) lock that project, so
+ * they exclude each other on the same project but run in parallel on
+ * different ones. Project IDs are spread over a fixed number of stripes, so
+ * memory does not grow with the number of projects; two projects that share a
+ * stripe only cost some extra contention.
+ * </p>
+ * <p>
+ * {@link #lock} takes several projects at once by locking their stripes in
+ * ascending stripe order, so two operations that need overlapping sets of
+ * projects can never deadlock. The locks are reentrant. Project locks must be
+ * taken before, never while holding, the {@link DataStore} lock.
+ * </p>
+ */
+public final class ProjectLocks {
+
+    /** Default number of stripes. */
+    public static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+    private final int shift;
+
+    /**
+     * Creates a set of striped locks.
+     *
+     * @param stripes Number of stripes; rounded up to a power of two.
+     */
+    public ProjectLocks(int stripes) {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(2, stripes) - 1);
+        this.stripes = new ReentrantLock[1 << bits];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.shift = 32 - bits;
+    }
+
+    /**
+     * Locks the given projects until the returned handle is closed.
+     *
+     * @param projectIds IDs of the projects; duplicates are allowed.
+     * @return Handle that unlocks them, for use in try-with-resources.
+     */
+    public Held lock(int... projectIds) {
+        int[] order = new int[projectIds.length];
+        for (int i = 0; i < projectIds.length; i++) {
+            order[i] = stripeOf(projectIds[i]);
+        }
+        Arrays.sort(order);
+        int count = 0;
+        for (int i = 0; i < order.length; i++) {
+            if (i == 0 || order[i] != order[i - 1]) {
+                order[count++] = order[i];
+            }
+        }
+        int[] held = Arrays.copyOf(order, count);
+        int locked = 0;
+        try {
+            for (; locked < held.length; locked++) {
+                stripes[held[locked]].lock();
+            }
+        } finally {
+            if (locked < held.length) {
+                unlock(held, locked);
+            }
+        }
+        return new Held(held);
+    }
+
+    /**
+     * Locks the given projects until the returned handle is closed.
+     *
+     * @param projectIds IDs of the projects; duplicates are allowed.
+     * @return Handle that unlocks them, for use in try-with-resources.
+     */
+    public Held lock(Collection<Integer> projectIds) {
+        return lock(projectIds.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /** Fibonacci hashing, so consecutive IDs land on different stripes. */
+    private int stripeOf(int projectId) {
+        return (projectId * 0x9E3779B9) >>> shift;
+    }
+
+    private void unlock(int[] held, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            stripes[held[i]].unlock();
+        }
+    }
+
+    /** Locks held by one {@link #lock} call. */
+    public final class Held implements AutoCloseable {
+
+        private int[] held;
+
+        private Held(int[] held) {
+            this.held = held;
+        }
+
+        /** Unlocks, in reverse order. Only the first call has an effect. */
+        @Override
+        public void close() {
+            if (held != null) {
+                unlock(held, held.length);
+                held = null;
+            }
+        }
+    }
+}
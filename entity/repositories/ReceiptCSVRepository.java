@@ -1,9 +1,7 @@
 package entity.repositories;
 
-import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
@@ -11,8 +9,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import entity.Receipt;
+import entity.interfaces.IReceiptRepository;
 
-public class ReceiptCSVRepository {
+public class ReceiptCSVRepository implements IReceiptRepository {
 
 	private static final String CSV_FILE = "assets/receipt.csv";
 
@@ -25,6 +24,7 @@ public class ReceiptCSVRepository {
 	 *         from a CSV file. If
 	 *         the file does not exist, an empty list is returned.
 	 */
+	@Override
 	public List<Receipt> loadReceipts() {
 		List<Receipt> receipts = new ArrayList<>();
 		File file = new File(CSV_FILE);
@@ -32,19 +32,17 @@ public class ReceiptCSVRepository {
 			// File doesn't exist yet; return empty list.
 			return receipts;
 		}
-		try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-			String line;
+		try (CSVTokenizer csv = CSVTokenizer.open(CSV_FILE)) {
+			String[] parts;
 			boolean firstLine = true;
-			while ((line = br.readLine()) != null) {
+			while ((parts = csv.readRecord()) != null) {
 				// Skip header line if present
 				if (firstLine) {
 					firstLine = false;
-					String trimmed = line.trim();
-					if (trimmed.startsWith("receiptID")) {
+					if (parts[0].trim().startsWith("receiptID")) {
 						continue;
 					}
 				}
-				String[] parts = line.split(",");
 				if (parts.length < 12) {
 					continue; // skip invalid lines
 				}
@@ -81,7 +79,7 @@ public class ReceiptCSVRepository {
 					receipt.setManager(parts[11].trim());
 					receipts.add(receipt);
 				} catch (Exception e) {
-					System.err.println("Error processing line: " + line + " >> " + e.getMessage());
+					System.err.println("Error processing line: " + String.join(",", parts) + " >> " + e.getMessage());
 				}
 			}
 		} catch (IOException e) {
@@ -92,16 +90,31 @@ public class ReceiptCSVRepository {
 	}
 
 	/**
-	 * The `writeReceiptCSV` function writes receipt information to a CSV file,
+	 * The `saveReceipt` function writes receipt information to a CSV file,
 	 * including a header if the
 	 * file is empty or does not exist.
 	 * 
-	 * @param receipt The `writeReceiptCSV` method you provided is used to write
+	 * @param receipt The `saveReceipt` method you provided is used to write
 	 *                receipt information to a
 	 *                CSV file. The parameters of the `Receipt` object that are
 	 *                being written to the CSV file include:
 	 */
-	public void writeReceiptCSV(Receipt receipt) {
+	@Override
+	public void saveReceipt(Receipt receipt) {
+		saveReceipts(List.of(receipt));
+	}
+
+	/**
+	 * Appends several receipts with one buffered write, writing the header
+	 * first if the file is empty or does not exist.
+	 * 
+	 * @param receipts The new receipts, in ID order.
+	 */
+	@Override
+	public void saveReceipts(List<Receipt> receipts) {
+		if (receipts.isEmpty()) {
+			return;
+		}
 		File file = new File(CSV_FILE);
 		boolean fileExists = file.exists();
 		try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(file, true)))) {
@@ -110,39 +123,39 @@ public class ReceiptCSVRepository {
 				pw.println(
 						"receiptID,NRIC,applicantName,age,maritalStatus,flatType,projectID,projectName,neighborhood,applicationOpeningDate,applicationClosingDate,manager");
 			}
-			// Build the row using comma-separated values.
-			String newLine = String.join(",",
-					String.valueOf(receipt.getReceiptID()),
-					receipt.getNRIC(),
-					receipt.getApplicantName(),
-					String.valueOf(receipt.getAge()),
-					(receipt.getMaritalStatus() == null ? "" : receipt.getMaritalStatus().name()),
-					receipt.getFlatType(),
-					String.valueOf(receipt.getProjectID()),
-					receipt.getProjectName(),
-					receipt.getNeighborhood(),
-					receipt.getApplicationOpeningDate(),
-					receipt.getApplicationClosingDate(),
-					receipt.getManager());
-			pw.println(newLine);
+			for (Receipt receipt : receipts) {
+				// Build the row using comma-separated values.
+				String newLine = String.join(",",
+						String.valueOf(receipt.getReceiptID()),
+						receipt.getNRIC(),
+						CSVTokenizer.escape(receipt.getApplicantName()),
+						String.valueOf(receipt.getAge()),
+						(receipt.getMaritalStatus() == null ? "" : receipt.getMaritalStatus().name()),
+						receipt.getFlatType(),
+						String.valueOf(receipt.getProjectID()),
+						CSVTokenizer.escape(receipt.getProjectName()),
+						CSVTokenizer.escape(receipt.getNeighborhood()),
+						receipt.getApplicationOpeningDate(),
+						receipt.getApplicationClosingDate(),
+						CSVTokenizer.escape(receipt.getManager()));
+				pw.println(newLine);
+			}
 		} catch (IOException e) {
 			System.err.println("Error writing to receipt.csv: " + e.getMessage());
 		}
 	}
 
 	/**
-	 * The function getNextReceiptID() returns the next available receipt ID by
-	 * loading existing receipts
-	 * and incrementing the maximum ID by 1.
+	 * Returns the ID after the highest receipt ID in the file. This reads the
+	 * whole file, so it is only used to seed the receipt ID sequence the first
+	 * time; new IDs come from {@link DataStore#nextReceiptId()}.
 	 * 
-	 * @return The `getNextReceiptID` method returns the next available receipt ID
-	 *         by loading existing
-	 *         receipts, extracting the maximum receipt ID, and incrementing it by
-	 *         1. If there are no existing
-	 *         receipts, it will return 1 as the initial receipt ID.
+	 * @return The highest existing receipt ID plus 1, or 1 if there are no
+	 *         receipts.
 	 */
+	@Override
 	public int getNextReceiptID() {
-		List<Receipt> receipts = loadReceipts(); // you must implement loadReceipts() to read and return the receipts
+		List<Receipt> receipts = loadReceipts();
 		return receipts.stream()
 				.mapToInt(Receipt::getReceiptID)
 				.max()
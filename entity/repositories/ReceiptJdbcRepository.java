@@ -0,0 +1,81 @@
+package entity.repositories;
+
+import entity.Receipt;
+import entity.enumerations.MaritalState;
+import entity.interfaces.IReceiptRepository;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Receipt storage in the {@code receipts} table of a {@link JdbcDatabase}.
+ */
+public class ReceiptJdbcRepository implements IReceiptRepository {
+
+    private final JdbcDatabase db;
+
+    public ReceiptJdbcRepository(JdbcDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<Receipt> loadReceipts() {
+        try {
+            return db.query("SELECT receipt_id, nric, applicant_name, age, marital_status, flat_type, project_id, "
+                    + "project_name, neighborhood, opening_date, closing_date, manager FROM receipts "
+                    + "ORDER BY receipt_id", rs -> {
+                        Receipt r = new Receipt();
+                        r.setReceiptID(rs.getInt(1));
+                        r.setNRIC(rs.getString(2));
+                        r.setApplicantName(rs.getString(3));
+                        r.setAge(rs.getInt(4));
+                        String marital = rs.getString(5);
+                        r.setMaritalStatus(marital == null ? null : MaritalState.valueOf(marital));
+                        r.setFlatType(rs.getString(6));
+                        r.setProjectID(rs.getInt(7));
+                        r.setProjectName(rs.getString(8));
+                        r.setNeighborhood(rs.getString(9));
+                        r.setApplicationOpeningDate(rs.getString(10));
+                        r.setApplicationClosingDate(rs.getString(11));
+                        r.setManager(rs.getString(12));
+                        return r;
+                    });
+        } catch (SQLException e) {
+            System.out.println("Error reading receipts: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void saveReceipt(Receipt r) {
+        saveReceipts(List.of(r));
+    }
+
+    @Override
+    public void saveReceipts(List<Receipt> receipts) {
+        List<Object[]> rows = new ArrayList<>(receipts.size());
+        for (Receipt r : receipts) {
+            rows.add(new Object[] { r.getReceiptID(), r.getNRIC(), r.getApplicantName(), r.getAge(),
+                    r.getMaritalStatus(), r.getFlatType(), r.getProjectID(), r.getProjectName(), r.getNeighborhood(),
+                    r.getApplicationOpeningDate(), r.getApplicationClosingDate(), r.getManager() });
+        }
+        try {
+            db.updateAll("INSERT INTO receipts (receipt_id, nric, applicant_name, age, marital_status, flat_type, "
+                    + "project_id, project_name, neighborhood, opening_date, closing_date, manager) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+        } catch (SQLException e) {
+            throw new StorageException("Error saving " + receipts.size() + " receipt(s)", e);
+        }
+    }
+
+    @Override
+    public int getNextReceiptID() {
+        try {
+            List<Integer> max = db.query("SELECT MAX(receipt_id) FROM receipts", rs -> rs.getInt(1));
+            return (max.isEmpty() ? 0 : max.get(0)) + 1;
+        } catch (SQLException e) {
+            System.out.println("Error reading receipts: " + e.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package entity.repositories;
+
+import entity.Receipt;
+import entity.interfaces.IApplicantRepository;
+import entity.interfaces.IApplicationRepository;
+import entity.interfaces.IEnquiryRepository;
+import entity.interfaces.IOfficerApplicationRepository;
+import entity.interfaces.IProjectRepository;
+import entity.interfaces.IReceiptRepository;
+import entity.interfaces.IUserRepository;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * The set of repositories for one storage backend.
+ * <p>
+ * The backend is chosen by configuration: the {@code repository} key of
+ * {@value #CONFIG_FILE}, overridden by the {@code bto.repository} system
+ * property. {@code csv} (the default) uses the CSV files in {@code assets/};
+ * {@code jdbc} uses an embedded database given by {@code jdbc.url} (and
+ * optionally {@code jdbc.user} / {@code jdbc.password}, or the matching
+ * {@code bto.jdbc.*} system properties), e.g.:
+ * </p>
+ * <pre>
+ * repository=jdbc
+ * jdbc.url=jdbc:h2:./assets/bto
+ * </pre>
+ * <p>
+ * The database driver must be on the class path. A new, empty database is
+ * filled from the CSV files the first time it is opened. If the database
+ * cannot be opened, the CSV backend is used instead.
+ * </p>
+ */
+public final class Repositories {
+
+    /** Optional configuration file. */
+    public static final String CONFIG_FILE = "assets/repository.properties";
+
+    private final IUserRepository users;
+    private final IApplicantRepository applicants;
+    private final IProjectRepository projects;
+    private final IApplicationRepository applications;
+    private final IOfficerApplicationRepository officerApplications;
+    private final IEnquiryRepository enquiries;
+    private final IReceiptRepository receipts;
+    /** The database behind the JDBC backend; null for CSV. */
+    private final JdbcDatabase database;
+
+    private Repositories(IUserRepository users, IApplicantRepository applicants, IProjectRepository projects,
+            IApplicationRepository applications, IOfficerApplicationRepository officerApplications,
+            IEnquiryRepository enquiries, IReceiptRepository receipts, JdbcDatabase database) {
+        this.users = users;
+        this.applicants = applicants;
+        this.projects = projects;
+        this.applications = applications;
+        this.officerApplications = officerApplications;
+        this.enquiries = enquiries;
+        this.receipts = receipts;
+        this.database = database;
+    }
+
+    /**
+     * Creates the repositories for the CSV files in {@code assets/}.
+     *
+     * @return The CSV backend.
+     */
+    public static Repositories csv() {
+        return new Repositories(new UserCSVRepository(), new ApplicantCSVRepository(), new BTOProjectCSVRepository(),
+                new ApplicationCSVRepository(), new OfficerApplicationCSVRepository(), new EnquiryCSVRepository(),
+                new ReceiptCSVRepository(), null);
+    }
+
+    /**
+     * Creates the repositories for an embedded database.
+     *
+     * @param database The database.
+     * @return The JDBC backend.
+     */
+    public static Repositories jdbc(JdbcDatabase database) {
+        return new Repositories(new UserJdbcRepository(database), new ApplicantJdbcRepository(database),
+                new ProjectJdbcRepository(database), new ApplicationJdbcRepository(database),
+                new OfficerApplicationJdbcRepository(database), new EnquiryJdbcRepository(database),
+                new ReceiptJdbcRepository(database), database);
+    }
+
+    /**
+     * Creates the repositories for the configured backend.
+     *
+     * @return The configured backend, or the CSV backend if none is configured
+     *         or the database cannot be opened.
+     */
+    public static Repositories fromConfiguration() {
+        Properties config = new Properties();
+        File file = new File(CONFIG_FILE);
+        if (file.exists()) {
+            try (InputStream in = new FileInputStream(file)) {
+                config.load(in);
+            } catch (IOException e) {
+                System.out.println("Error reading " + CONFIG_FILE + ": " + e.getMessage());
+            }
+        }
+        String backend = setting(config, "repository", "csv");
+        if (!backend.equalsIgnoreCase("jdbc")) {
+            return csv();
+        }
+        String url = setting(config, "jdbc.url", null);
+        if (url == null) {
+            System.out.println("No jdbc.url configured; using the CSV files.");
+            return csv();
+        }
+        JdbcDatabase database = new JdbcDatabase(url, setting(config, "jdbc.user", null),
+                setting(config, "jdbc.password", null));
+        try {
+            boolean empty = database.isNew();
+            Repositories repositories = jdbc(database);
+            if (empty) {
+                repositories.importFrom(csv());
+            }
+            return repositories;
+        } catch (SQLException e) {
+            System.out.println("Error opening database " + url + ": " + e.getMessage() + "; using the CSV files.");
+            database.close();
+            return csv();
+        }
+    }
+
+    private static String setting(Properties config, String key, String defaultValue) {
+        return System.getProperty("bto." + key, config.getProperty(key, defaultValue));
+    }
+
+    /**
+     * Copies every dataset of another backend into this one, in one transaction.
+     */
+    private void importFrom(Repositories source) {
+        beginTransaction();
+        try {
+            users.saveUsers(source.users.loadUsers());
+            projects.saveProjects(source.projects.loadProjects());
+            applications.saveApplications(source.applications.loadApplications());
+            officerApplications.saveOfficerApplications(source.officerApplications.loadOfficerApplications());
+            enquiries.saveEnquiries(source.enquiries.loadEnquiries());
+            for (Receipt receipt : source.receipts.loadReceipts()) {
+                receipts.saveReceipt(receipt);
+            }
+        } finally {
+            commitTransaction();
+        }
+    }
+
+    /**
+     * Tells whether this is the CSV backend, whose files the binary snapshot
+     * mirrors.
+     *
+     * @return true for the CSV backend.
+     */
+    public boolean isCSV() {
+        return database == null;
+    }
+
+    /**
+     * Starts a group of changes that are stored together; see
+     * {@link JdbcDatabase#beginTransaction()}. Does nothing for CSV files,
+     * which are grouped by {@link AtomicFileWriter} instead.
+     */
+    public void beginTransaction() {
+        if (database != null) {
+            database.beginTransaction();
+        }
+    }
+
+    /**
+     * Ends a group started by {@link #beginTransaction()}.
+     */
+    public void commitTransaction() {
+        if (database != null) {
+            database.commitTransaction();
+        }
+    }
+
+    /**
+     * Releases the database connection, if any.
+     */
+    public void close() {
+        if (database != null) {
+            database.close();
+        }
+    }
+
+    public IUserRepository users() {
+        return users;
+    }
+
+    public IApplicantRepository applicants() {
+        return applicants;
+    }
+
+    public IProjectRepository projects() {
+        return projects;
+    }
+
+    public IApplicationRepository applications() {
+        return applications;
+    }
+
+    public IOfficerApplicationRepository officerApplications() {
+        return officerApplications;
+    }
+
+    public IEnquiryRepository enquiries() {
+        return enquiries;
+    }
+
+    public IReceiptRepository receipts() {
+        return receipts;
+    }
+}
@@ -0,0 +1,24 @@
+package entity.repositories;
+
+/**
+ * Thrown when a change cannot be written to the database.
+ * <p>
+ * The change is then not stored, and the open transaction is rolled back, so
+ * the caller must not report it as saved. The menus show the message of the
+ * exception to the user.
+ * </p>
+ */
+public class StorageException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Creates an exception for a failed write.
+     *
+     * @param message What could not be written.
+     * @param cause   The underlying database error.
+     */
+    public StorageException(String message, Throwable cause) {
+        super(message + ": " + cause.getMessage(), cause);
+    }
+}
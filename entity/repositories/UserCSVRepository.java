@@ -3,44 +3,42 @@ package entity.repositories;
 import entity.User;
 import entity.enumerations.MaritalState;
 import entity.enumerations.Role;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import entity.interfaces.IUserRepository;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-public class UserCSVRepository {
+public class UserCSVRepository implements IUserRepository {
 
     private static final String CSV_FILE = "assets/userList.csv";
+    private static final String HEADER = "Name,NRIC,Age,Marital Status,Password,role,filterSettings";
+
+    /** Rows of {@link #CSV_FILE} by NRIC, so saves rewrite only changed rows. */
+    private final CSVRowIndex<String> index = new CSVRowIndex<>(CSV_FILE, t -> t[1].trim());
 
     /**
      * The function reads user data from a CSV file, parses the data, and creates
      * User objects based on
      * the information read.
      * 
-     * @return The method `readUserFromCSV` returns a `List<User>` containing user
+     * @return The method `loadUsers` returns a `List<User>` containing user
      *         objects read from a
      *         CSV file.
      */
-    public List<User> readUserFromCSV() {
+    @Override
+    public List<User> loadUsers() {
         List<User> users = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(CSV_FILE))) {
-            String line;
+        index.beginRead();
+        try (CSVTokenizer csv = CSVTokenizer.open(CSV_FILE)) {
             // Skip the header:
-            if ((line = br.readLine()) != null) {
-                // header line read
-            }
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty())
-                    continue;
-                String[] tokens = line.split(",", 7); // im trying sth
-                // String[] tokens = line.split(",", -1); // Filter Settings is default as blank
-                // so -1 to prevent field getting deleted
+            csv.readRecord();
+            String[] tokens;
+            while ((tokens = csv.readRecord()) != null) {
                 // Ensure tokens length is correct
                 if (tokens.length < 7) {
-                    System.out.println("Skipping invalid record: " + line);
+                    System.out.println("Skipping invalid record: " + String.join(",", tokens));
                     continue;
                 }
                 // Parse tokens (make sure enum values match your CSV data)
@@ -51,13 +49,16 @@ public class UserCSVRepository {
                 MaritalState maritalStatus = MaritalState.valueOf(tokens[3].trim().toUpperCase());
                 String password = tokens[4].trim();
                 Role role = Role.valueOf(tokens[5].trim().toUpperCase());
-                String filterSettings = tokens[6].trim();
-                if (filterSettings.startsWith("\"") && filterSettings.endsWith("\"") && filterSettings.length() >= 2) {
-                    filterSettings = filterSettings.substring(1, filterSettings.length() - 1);
-                }
+                // Filter settings may hold commas; older files left them unquoted,
+                // so any extra fields belong to the last column.
+                String filterSettings = tokens.length == 7 ? tokens[6].trim()
+                        : String.join(",", Arrays.copyOfRange(tokens, 6, tokens.length)).trim();
                 User user = new User(nric, name, password, age, maritalStatus, filterSettings, role);
+                user.markClean();
                 users.add(user);
+                index.add(nric, csv);
             }
+            index.endRead();
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -66,7 +67,7 @@ public class UserCSVRepository {
     }
 
     /**
-     * The `writeUserToCSV` function writes a list of User objects to a CSV file,
+     * The `saveUsers` function writes a list of User objects to a CSV file,
      * handling special
      * cases like commas in the filter settings.
      * 
@@ -74,31 +75,30 @@ public class UserCSVRepository {
      *              NRIC, age, marital
      *              status, password, role, and filter settings.
      */
-    public void writeUserToCSV(List<User> users) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(CSV_FILE))) {
-            // 1) Header
-            pw.println("Name,NRIC,Age,Marital Status,Password,role,filterSettings");
-            // 2) Each user
-            for (User user : users) {
-                String fs = user.getFilterSettings();
-                if (fs == null) {
-                    fs = "";
-                } else if (fs.contains(",")) {
-                    // wrap in quotes so your commas stay in one cell
-                    fs = "\"" + fs + "\"";
-                }
-                pw.printf("%s,%s,%d,%s,%s,%s,%s%n",
-                        user.getName(),
-                        user.getNRIC(),
-                        user.getAge(),
-                        user.getMaritalStatus(),
-                        user.getPassword(),
-                        user.getRole(),
-                        fs // <- use the local filtersettings
-                );
-            }
+    @Override
+    public void saveUsers(List<User> users) {
+        try {
+            index.write(HEADER, users, User::getNRIC, User::isDirty, User::markClean, this::formatRow);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Formats a user as one CSV row.
+     *
+     * @param user The user.
+     * @return The CSV row, without line break.
+     */
+    private String formatRow(User user) {
+        // quote free text if needed so commas and quotes stay in one cell
+        return String.format("%s,%s,%d,%s,%s,%s,%s",
+                CSVTokenizer.escape(user.getName()),
+                user.getNRIC(),
+                user.getAge(),
+                user.getMaritalStatus(),
+                CSVTokenizer.escape(user.getPassword()),
+                user.getRole(),
+                CSVTokenizer.escape(user.getFilterSettings()));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package entity.repositories;
+
+import entity.User;
+import entity.enumerations.MaritalState;
+import entity.enumerations.Role;
+import entity.interfaces.IUserRepository;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * User storage in the {@code users} table of a {@link JdbcDatabase}.
+ */
+public class UserJdbcRepository implements IUserRepository {
+
+    static final String SELECT = "SELECT nric, name, password, age, marital_status, role, filter_settings FROM users";
+    private static final String[] COLUMNS = { "name", "password", "age", "marital_status", "role",
+            "filter_settings" };
+
+    private final JdbcDatabase db;
+
+    public UserJdbcRepository(JdbcDatabase db) {
+        this.db = db;
+    }
+
+    @Override
+    public List<User> loadUsers() {
+        try {
+            return db.query(SELECT + " ORDER BY nric", rs -> {
+                User user = new User(rs.getString(1), rs.getString(2), rs.getString(3), rs.getInt(4),
+                        MaritalState.valueOf(rs.getString(5)), nullToEmpty(rs, 7), Role.valueOf(rs.getString(6)));
+                user.markClean();
+                return user;
+            });
+        } catch (SQLException e) {
+            System.out.println("Error reading users: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public void saveUsers(List<User> users) {
+        try {
+            db.inTransaction(c -> {
+                List<User> written = db.saveAll("users", "nric", COLUMNS, users, User::getNRIC, User::isDirty,
+                        u -> new Object[] { u.getName(), u.getPassword(), u.getAge(), u.getMaritalStatus(),
+                                u.getRole(), u.getFilterSettings() });
+                db.afterCommit(() -> written.forEach(User::markClean));
+            });
+        } catch (SQLException e) {
+            throw new StorageException("Error writing users", e);
+        }
+    }
+
+    static String nullToEmpty(ResultSet rs, int column) throws SQLException {
+        String value = rs.getString(column);
+        return value == null ? "" : value;
+    }
+}
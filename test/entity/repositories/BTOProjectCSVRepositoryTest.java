@@ -0,0 +1,84 @@
+package entity.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import entity.BTOProject;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Saving and reloading the project file, which the repository reads from
+ * {@code assets/ProjectList.csv} under the working directory.
+ */
+class BTOProjectCSVRepositoryTest {
+
+    private static final Path FILE = Path.of("assets", "ProjectList.csv");
+
+    @BeforeEach
+    void writeFile() throws IOException {
+        Files.createDirectories(FILE.getParent());
+        Files.writeString(FILE, "ID,Project Name,Neighborhood,Type 1,Number of units for Type 1,"
+                + "Selling price for Type 1,Type 2,Number of units for Type 2,Selling price for Type 2,"
+                + "Application opening date,Application closing date,ManagerID,Officer Slot,"
+                + "Pending Officer by NRIC,Approved Officer by NRIC,Visibility\n"
+                + "1,Acacia,Yishun,2-Room,2,350000,3-Room,3,450000,2030-01-01,2030-02-01,T1234567E,5,"
+                + "\"\",\"T1234567C,T7654321C\",TRUE\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void namesWithCommasAndQuotesRoundTrip() {
+        BTOProjectCSVRepository repo = new BTOProjectCSVRepository();
+        List<BTOProject> projects = repo.loadProjects();
+        projects.get(0).setProjectName("Acacia, \"Phase 2\"");
+        projects.get(0).setNeighborhood("Yishun, North");
+        BTOProject added = copyOf(projects.get(0));
+        added.setProjectID(2);
+        added.setProjectName("\"Quoted\"");
+        added.setNeighborhood("Tengah,West,,");
+        projects.add(added);
+        repo.saveProjects(projects);
+
+        List<BTOProject> reloaded = new BTOProjectCSVRepository().loadProjects();
+        assertEquals(2, reloaded.size());
+        assertEquals("Acacia, \"Phase 2\"", reloaded.get(0).getProjectName());
+        assertEquals("Yishun, North", reloaded.get(0).getNeighborhood());
+        assertEquals(List.of("T1234567C", "T7654321C"), reloaded.get(0).getApprovedOfficer());
+        assertEquals("\"Quoted\"", reloaded.get(1).getProjectName());
+        assertEquals("Tengah,West,,", reloaded.get(1).getNeighborhood());
+        assertEquals(450000, reloaded.get(1).getThreeRoomPrice());
+        assertEquals(true, reloaded.get(1).isVisibility());
+    }
+
+    @Test
+    void plainNamesAreWrittenUnquoted() throws IOException {
+        BTOProjectCSVRepository repo = new BTOProjectCSVRepository();
+        List<BTOProject> projects = repo.loadProjects();
+        projects.get(0).setProjectName("Acacia Grove");
+        repo.saveProjects(projects);
+
+        String row = Files.readAllLines(FILE, StandardCharsets.UTF_8).get(1);
+        assertEquals("1,Acacia Grove,Yishun,", row.substring(0, "1,Acacia Grove,Yishun,".length()));
+    }
+
+    private static BTOProject copyOf(BTOProject p) {
+        BTOProject copy = new BTOProject();
+        copy.setNeighborhood(p.getNeighborhood());
+        copy.setAvailable2Room(p.getAvailable2Room());
+        copy.setTwoRoomPrice(p.getTwoRoomPrice());
+        copy.setAvailable3Room(p.getAvailable3Room());
+        copy.setThreeRoomPrice(p.getThreeRoomPrice());
+        copy.setApplicationOpeningDate(p.getApplicationOpeningDate());
+        copy.setApplicationClosingDate(p.getApplicationClosingDate());
+        copy.setManagerID(p.getManagerID());
+        copy.setAvailableOfficerSlots(p.getAvailableOfficerSlots());
+        copy.setPendingOfficer(List.of());
+        copy.setApprovedOfficer(List.of());
+        copy.setVisibility(p.isVisibility());
+        return copy;
+    }
+}
@@ -0,0 +1,117 @@
+package entity.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import entity.BTOProject;
+import entity.User;
+import entity.enumerations.MaritalState;
+import entity.enumerations.Role;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Saving and reloading through the JDBC repositories, against an in-memory
+ * H2 database, and keeping entities dirty when their transaction rolls back.
+ */
+class JdbcRepositoryTest {
+
+    private JdbcDatabase db;
+
+    @BeforeEach
+    void openDatabase() {
+        db = new JdbcDatabase("jdbc:h2:mem:", null, null);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        db.close();
+    }
+
+    @Test
+    void projectsAndUsersRoundTrip() {
+        BTOProject project = project(1);
+        project.setPendingOfficer(new ArrayList<>(List.of("T1234567C")));
+        project.setApprovedOfficer(new ArrayList<>(List.of("T7654321D", "T1111111E")));
+        User user = new User("T1234567A", "Tan, \"Ah Beng\"", "p,w", 36, MaritalState.SINGLE, "", Role.APPLICANT);
+
+        new ProjectJdbcRepository(db).saveProjects(List.of(project));
+        new UserJdbcRepository(db).saveUsers(List.of(user));
+        assertFalse(project.isDirty());
+        assertFalse(user.isDirty());
+
+        List<BTOProject> projects = new ProjectJdbcRepository(db).loadProjects();
+        assertEquals(1, projects.size());
+        BTOProject reloaded = projects.get(0);
+        assertEquals("Acacia Breeze", reloaded.getProjectName());
+        assertEquals(2, reloaded.getAvailable2Room());
+        assertEquals(List.of("T1234567C"), reloaded.getPendingOfficer());
+        assertEquals(List.of("T7654321D", "T1111111E"), reloaded.getApprovedOfficer());
+        assertTrue(reloaded.isVisibility());
+        assertFalse(reloaded.isDirty());
+
+        List<User> users = new UserJdbcRepository(db).loadUsers();
+        assertEquals(1, users.size());
+        assertEquals("Tan, \"Ah Beng\"", users.get(0).getName());
+        assertEquals("p,w", users.get(0).getPassword());
+    }
+
+    @Test
+    void rolledBackWritesStayDirtyAndAreWrittenAgain() throws SQLException {
+        User user = new User("T1234567A", "Daniel", "a", 36, MaritalState.SINGLE, "", Role.APPLICANT);
+        UserJdbcRepository users = new UserJdbcRepository(db);
+
+        db.beginTransaction();
+        users.saveUsers(List.of(user));
+        assertThrows(SQLException.class, () -> db.update("INSERT INTO no_such_table VALUES (1)"));
+        db.commitTransaction();
+
+        assertTrue(user.isDirty());
+        assertEquals(0, users.loadUsers().size());
+
+        users.saveUsers(List.of(user));
+        assertFalse(user.isDirty());
+        assertEquals("Daniel", users.loadUsers().get(0).getName());
+    }
+
+    @Test
+    void projectChangedBeforeCommitStaysDirty() {
+        BTOProject project = project(1);
+        ProjectJdbcRepository projects = new ProjectJdbcRepository(db);
+
+        db.beginTransaction();
+        projects.saveProjects(List.of(project));
+        project.setAvailable2Room(1);
+        db.commitTransaction();
+
+        assertTrue(project.isDirty());
+        projects.saveProjects(List.of(project));
+        assertFalse(project.isDirty());
+        assertEquals(1, projects.loadProjects().get(0).getAvailable2Room());
+    }
+
+    private static BTOProject project(int id) {
+        BTOProject p = new BTOProject();
+        p.setProjectID(id);
+        p.setProjectName("Acacia Breeze");
+        p.setNeighborhood("Yishun");
+        p.setAvailable2Room(2);
+        p.setTwoRoomPrice(350000);
+        p.setAvailable3Room(3);
+        p.setThreeRoomPrice(450000);
+        p.setApplicationOpeningDate("2025-02-15");
+        p.setApplicationClosingDate("2025-03-20");
+        p.setManagerID("T8765432F");
+        p.setAvailableOfficerSlots(3);
+        p.setVisibility(true);
+        p.setPendingOfficer(new ArrayList<>());
+        p.setApprovedOfficer(new ArrayList<>());
+        return p;
+    }
+}
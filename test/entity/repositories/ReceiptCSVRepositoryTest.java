@@ -0,0 +1,50 @@
+package entity.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import entity.Receipt;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Appending and reloading receipts, which the repository keeps in
+ * {@code assets/receipt.csv} under the working directory.
+ */
+class ReceiptCSVRepositoryTest {
+
+    private static final Path FILE = Path.of("assets", "receipt.csv");
+
+    @BeforeEach
+    void removeFile() throws IOException {
+        Files.createDirectories(FILE.getParent());
+        Files.deleteIfExists(FILE);
+    }
+
+    @Test
+    void freeTextWithCommasAndQuotesRoundTrips() {
+        Receipt receipt = new Receipt();
+        receipt.setReceiptID(1);
+        receipt.setNRIC("T1234567B");
+        receipt.setApplicantName("Tan, \"Ah Beng\"");
+        receipt.setAge(40);
+        receipt.setFlatType("2-Room");
+        receipt.setProjectID(3);
+        receipt.setProjectName("Acacia, Phase 2");
+        receipt.setNeighborhood("Yishun");
+        receipt.setApplicationOpeningDate("2030-01-01");
+        receipt.setApplicationClosingDate("2030-02-01");
+        receipt.setManager("Lim, \"Jessica\"");
+        new ReceiptCSVRepository().saveReceipts(List.of(receipt));
+
+        List<Receipt> reloaded = new ReceiptCSVRepository().loadReceipts();
+        assertEquals(1, reloaded.size());
+        assertEquals("Tan, \"Ah Beng\"", reloaded.get(0).getApplicantName());
+        assertEquals("Acacia, Phase 2", reloaded.get(0).getProjectName());
+        assertEquals("2030-02-01", reloaded.get(0).getApplicationClosingDate());
+        assertEquals("Lim, \"Jessica\"", reloaded.get(0).getManager());
+    }
+}
@@ -0,0 +1,51 @@
+package entity.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import entity.User;
+import entity.enumerations.MaritalState;
+import entity.enumerations.Role;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Saving and reloading the user file, which the repository reads from
+ * {@code assets/userList.csv} under the working directory.
+ */
+class UserCSVRepositoryTest {
+
+    private static final Path FILE = Path.of("assets", "userList.csv");
+
+    @BeforeEach
+    void writeFile() throws IOException {
+        Files.createDirectories(FILE.getParent());
+        Files.writeString(FILE, "Name,NRIC,Age,Marital Status,Password,role,filterSettings\n"
+                + "Daniel,T1234567A,36,SINGLE,a,APPLICANT,\",0,1\"\n", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void freeTextWithCommasAndQuotesRoundTrips() {
+        UserCSVRepository repo = new UserCSVRepository();
+        List<User> users = repo.loadUsers();
+        users.get(0).setPassword("p,a\"ss");
+        users.add(new User("T7654321B", "Tan, \"Ah Beng\"", "x,y", 40, MaritalState.MARRIED, "Yishun,0,1",
+                Role.APPLICANT));
+        repo.saveUsers(users);
+
+        List<User> reloaded = new UserCSVRepository().loadUsers();
+        assertEquals(2, reloaded.size());
+        assertEquals("Daniel", reloaded.get(0).getName());
+        assertEquals("p,a\"ss", reloaded.get(0).getPassword());
+        assertEquals(",0,1", reloaded.get(0).getFilterSettings());
+        assertEquals("Tan, \"Ah Beng\"", reloaded.get(1).getName());
+        assertEquals("T7654321B", reloaded.get(1).getNRIC());
+        assertEquals("x,y", reloaded.get(1).getPassword());
+        assertEquals(Role.APPLICANT, reloaded.get(1).getRole());
+        assertEquals("Yishun,0,1", reloaded.get(1).getFilterSettings());
+    }
+}
@@ -0,0 +1,485 @@
+package tools;
+
+import entity.enumerations.ApplicationStatus;
+import entity.repositories.CSVTokenizer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+/**
+ * Generates a consistent synthetic data set for load tests and benchmarks.
+ * <p>
+ * Usage: {@code java tools.DatasetGenerator <scale> [outputDir] [seed]}. A
+ * scale factor of 1 is {@value #ROWS_PER_SCALE} users; 10000 gives 10 million.
+ * The six CSV files are written to {@code outputDir} (default {@code assets})
+ * in the repositories' formats:
+ * </p>
+ * <ul>
+ * <li>users: one manager per five projects, one officer per fifty users, the
+ * rest applicants, with NRICs in the {@code S/T + 7 digits + letter} format;</li>
+ * <li>projects: one per thousand users (at least ten), in overlapping
+ * application windows, each with approved and pending officers;</li>
+ * <li>BTO applications: one per applicant, for a flat type the applicant is
+ * eligible for, spread over every {@link ApplicationStatus} and including
+ * withdrawals;</li>
+ * <li>officer applications matching the projects' officer lists, plus
+ * rejected ones;</li>
+ * <li>enquiries: one per user, half of them answered;</li>
+ * <li>receipts: one per BOOKED application.</li>
+ * </ul>
+ * <p>
+ * Every value is a pure function of the seed and the row number, so the same
+ * arguments always give byte-identical files. Rows are formatted in parallel
+ * chunks and written in order through a {@link FileChannel}.
+ * </p>
+ */
+public final class DatasetGenerator {
+
+    /** Users per unit of scale factor. */
+    public static final int ROWS_PER_SCALE = 1000;
+    /** Seed used when none is given. */
+    public static final long DEFAULT_SEED = 2002L;
+    /** Password of every generated account. */
+    public static final String PASSWORD = "password";
+
+    /** Rows formatted per parallel task. */
+    private static final int CHUNK_ROWS = 16_384;
+    private static final String NL = System.lineSeparator();
+    /** Approved and pending officers per project, and total officer slots. */
+    private static final int APPROVED_PER_PROJECT = 3;
+    private static final int PENDING_PER_PROJECT = 2;
+    private static final int OFFICER_SLOTS = 10;
+    /** First day of the earliest application window. */
+    private static final LocalDate START = LocalDate.of(2026, 1, 1);
+
+    private static final String[] FIRST_NAMES = { "Aaron", "Aisha", "Amir", "Bella", "Benjamin", "Chloe", "Daniel",
+            "Darren", "Emily", "Ethan", "Farah", "Grace", "Hafiz", "Hannah", "Isaac", "Jasmine", "Jessica", "John",
+            "Kumar", "Lina", "Marcus", "Mei", "Nadia", "Nicholas", "Priya", "Rachel", "Ravi", "Sarah", "Siti",
+            "Wei" };
+    private static final String[] LAST_NAMES = { "Tan", "Lim", "Lee", "Ng", "Ong", "Wong", "Goh", "Chua", "Koh",
+            "Teo", "Rahman", "Ismail", "Kumar", "Pillai", "Chen", "Ho", "Low", "Yeo", "Sim", "Tay" };
+    private static final String[] TOWNS = { "Ang Mo Kio", "Bedok", "Bishan", "Boon Lay", "Bukit Batok",
+            "Bukit Merah", "Choa Chu Kang", "Clementi", "Geylang", "Hougang", "Jurong East", "Jurong West",
+            "Kallang", "Pasir Ris", "Punggol", "Queenstown", "Sembawang", "Sengkang", "Serangoon", "Tampines",
+            "Tengah", "Toa Payoh", "Woodlands", "Yishun" };
+    private static final String[] PROJECT_SUFFIXES = { "Grove", "Vista", "Residences", "Court", "Heights",
+            "Gardens", "Edge", "Spring" };
+    private static final String[] QUESTIONS = {
+            "Is the project near an MRT station?",
+            "When is the expected completion date?",
+            "Are there schools, markets or clinics nearby?",
+            "Can I choose the \"block\" and floor I want?",
+            "What is the lease period?",
+            "Are pets allowed in the flats?" };
+    private static final String[] ANSWERS = {
+            "Yes, it is a 5-minute walk to the nearest station.",
+            "Completion is expected in about 4 years.",
+            "Yes, a primary school, a market and a polyclinic are nearby.",
+            "Units are chosen at booking, subject to availability.",
+            "The lease is 99 years." };
+
+    // Independent random streams, one per attribute.
+    private static final int S_NAME = 1, S_AGE = 2, S_MARRIED = 3, S_FILTER = 4, S_STATUS = 5, S_FLAT = 6,
+            S_PROJECT = 7, S_OPEN = 8, S_LENGTH = 9, S_UNITS = 10, S_PRICE = 11, S_QUESTION = 12, S_ANSWER = 13,
+            S_TOWN = 14, S_VISIBLE = 15, S_WITHDRAW = 16, S_HOUR = 17;
+
+    private final long seed;
+    private final int users;
+    private final int projects;
+    private final int managers;
+    private final int officers;
+    private final int applicants;
+
+    /**
+     * Describes a data set of the given size.
+     *
+     * @param users Total number of users.
+     * @param seed  Seed for every generated value.
+     */
+    public DatasetGenerator(int users, long seed) {
+        this.seed = seed;
+        this.projects = Math.max(10, users / 1000);
+        this.managers = Math.max(2, projects / 5);
+        this.officers = Math.max(APPROVED_PER_PROJECT + PENDING_PER_PROJECT + 1, users / 50);
+        if (users < managers + officers + 1 || users > 20_000_000) {
+            throw new IllegalArgumentException("Number of users must be between " + (managers + officers + 1)
+                    + " and 20000000: " + users);
+        }
+        this.users = users;
+        this.applicants = users - managers - officers;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java tools.DatasetGenerator <scale> [outputDir] [seed]");
+            System.out.println("  scale 1 = " + ROWS_PER_SCALE + " users; fractions are allowed.");
+            return;
+        }
+        int rows = (int) Math.round(Double.parseDouble(args[0]) * ROWS_PER_SCALE);
+        Path dir = Paths.get(args.length > 1 ? args[1] : "assets");
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_SEED;
+        long start = System.nanoTime();
+        new DatasetGenerator(rows, seed).writeTo(dir);
+        System.out.printf("Wrote %d users to %s in %.1f s%n", rows, dir, (System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * Writes all six CSV files, replacing any existing ones, and removes the
+     * binary snapshot, journal, ID sequences and list of projects hidden until
+     * they open that belonged to the old files.
+     *
+     * @param dir Directory to write to; created if missing.
+     * @throws IOException If a file cannot be written.
+     */
+    public void writeTo(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        for (String stale : new String[] { "snapshot.bin", "BTOApplication.journal", "BTOApplication.seq",
+                "officerApplication.seq", "enquiryList.seq", "ProjectList.seq", "receipt.seq",
+                "ProjectList.hidden" }) {
+            Files.deleteIfExists(dir.resolve(stale));
+        }
+        writeUsers(dir.resolve("userList.csv"));
+        writeProjects(dir.resolve("ProjectList.csv"));
+        writeApplications(dir.resolve("BTOApplication.csv"));
+        writeOfficerApplications(dir.resolve("officerApplication.csv"));
+        writeEnquiries(dir.resolve("enquiryList.csv"));
+        writeReceipts(dir.resolve("receipt.csv"));
+    }
+
+    // ---- layout ----
+
+    public int getUserCount() {
+        return users;
+    }
+
+    public int getProjectCount() {
+        return projects;
+    }
+
+    public int getManagerCount() {
+        return managers;
+    }
+
+    public int getOfficerCount() {
+        return officers;
+    }
+
+    /**
+     * NRIC of a user: 'S' for the first ten million, then 'T', followed by the
+     * index as 7 digits and a check letter.
+     *
+     * @param user User index, 0-based.
+     * @return The NRIC.
+     */
+    public static String nric(int user) {
+        char prefix = user < 10_000_000 ? 'S' : 'T';
+        int digits = user % 10_000_000;
+        char letter = (char) ('A' + (digits * 7 + user / 10_000_000) % 26);
+        StringBuilder sb = new StringBuilder(9).append(prefix);
+        String number = Integer.toString(digits);
+        for (int i = number.length(); i < 7; i++) {
+            sb.append('0');
+        }
+        return sb.append(number).append(letter).toString();
+    }
+
+    /** NRIC of the m-th manager. */
+    public String managerNRIC(int m) {
+        return nric(m);
+    }
+
+    /** NRIC of the o-th officer. */
+    public String officerNRIC(int o) {
+        return nric(managers + o);
+    }
+
+    /** NRIC of the a-th applicant. */
+    public String applicantNRIC(int a) {
+        return nric(managers + officers + a);
+    }
+
+    // ---- users ----
+
+    private void writeUsers(Path file) throws IOException {
+        writeFile(file, "Name,NRIC,Age,Marital Status,Password,role,filterSettings", users, (sb, from, to, chunk) -> {
+            for (int u = from; u < to; u++) {
+                String role = u < managers ? "HDBMANAGER" : u < managers + officers ? "HDBOFFICER" : "APPLICANT";
+                sb.append(name(u)).append(',').append(nric(u)).append(',').append(age(u)).append(',')
+                        .append(married(u) ? "MARRIED" : "SINGLE").append(',').append(PASSWORD).append(',')
+                        .append(role).append(',').append(CSVTokenizer.escape(filterSettings(u))).append(NL);
+            }
+        });
+    }
+
+    private String name(int user) {
+        return FIRST_NAMES[random(S_NAME, user, FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random(S_NAME + 100, user, LAST_NAMES.length)];
+    }
+
+    private boolean married(int user) {
+        return random(S_MARRIED, user, 100) < 60;
+    }
+
+    /** Age; single applicants are 35 or older, so every applicant is eligible for a 2-Room flat. */
+    private int age(int user) {
+        boolean applicant = user >= managers + officers;
+        if (applicant && !married(user)) {
+            return 35 + random(S_AGE, user, 36);
+        }
+        return 21 + random(S_AGE, user, 45);
+    }
+
+    private String filterSettings(int user) {
+        return switch (random(S_FILTER, user, 5)) {
+            case 0 -> "2-Room,,";
+            case 1 -> married(user) ? "3-Room,,500000" : "2-Room,,";
+            case 2 -> ",100000,400000";
+            default -> ",,";
+        };
+    }
+
+    // ---- projects ----
+
+    private void writeProjects(Path file) throws IOException {
+        writeFile(file, "ID,Project Name,Neighborhood,Type 1,Number of units for Type 1,Selling price for Type 1,"
+                + "Type 2,Number of units for Type 2,Selling price for Type 2,Application opening date,"
+                + "Application closing date,ManagerID,Officer Slot,Pending Officer by NRIC,"
+                + "Approved Officer by NRIC,Visibility", projects, (sb, from, to, chunk) -> {
+                    for (int p = from; p < to; p++) {
+                        StringBuilder pending = new StringBuilder();
+                        StringBuilder approved = new StringBuilder();
+                        for (int j = 0; j < APPROVED_PER_PROJECT; j++) {
+                            approved.append(j == 0 ? "" : ",").append(officerNRIC(officerOf(p, j)));
+                        }
+                        for (int j = 0; j < PENDING_PER_PROJECT; j++) {
+                            pending.append(j == 0 ? "" : ",")
+                                    .append(officerNRIC(officerOf(p, APPROVED_PER_PROJECT + j)));
+                        }
+                        sb.append(projectId(p)).append(',').append(projectName(p)).append(',').append(town(p))
+                                .append(",2-Room,").append(200 + random(S_UNITS, p, 600)).append(',')
+                                .append(twoRoomPrice(p)).append(",3-Room,").append(100 + random(S_UNITS + 100, p, 400))
+                                .append(',').append(twoRoomPrice(p) + 100_000 + 1000 * random(S_PRICE + 100, p, 100))
+                                .append(',').append(openingDate(p)).append(',').append(closingDate(p)).append(',')
+                                .append(managerNRIC(p % managers)).append(',')
+                                .append(OFFICER_SLOTS - APPROVED_PER_PROJECT).append(",\"").append(pending)
+                                .append("\",\"").append(approved).append("\",")
+                                .append(random(S_VISIBLE, p, 10) == 0 ? "FALSE" : "TRUE").append(NL);
+                    }
+                });
+    }
+
+    private static int projectId(int p) {
+        return p + 1;
+    }
+
+    private String projectName(int p) {
+        return town(p) + " " + PROJECT_SUFFIXES[p % PROJECT_SUFFIXES.length] + " " + (p / PROJECT_SUFFIXES.length + 1);
+    }
+
+    private String town(int p) {
+        return TOWNS[random(S_TOWN, p, TOWNS.length)];
+    }
+
+    private int twoRoomPrice(int p) {
+        return 150_000 + 1000 * random(S_PRICE, p, 150);
+    }
+
+    /** Windows start within 18 months of {@link #START} and last 2 to 6 months, so many overlap. */
+    private LocalDate openingDate(int p) {
+        return START.plusDays(random(S_OPEN, p, 540));
+    }
+
+    private LocalDate closingDate(int p) {
+        return openingDate(p).plusDays(60 + random(S_LENGTH, p, 120));
+    }
+
+    /** The j-th officer on a project's list; consecutive projects use consecutive officers. */
+    private int officerOf(int p, int j) {
+        return (p * (APPROVED_PER_PROJECT + PENDING_PER_PROJECT) + j) % officers;
+    }
+
+    // ---- BTO applications ----
+
+    private void writeApplications(Path file) throws IOException {
+        writeFile(file, "applicationID,applicantNRIC,projectID,applicationType,status,flatType", applicants,
+                (sb, from, to, chunk) -> {
+                    for (int a = from; a < to; a++) {
+                        sb.append(a + 1).append(',').append(applicantNRIC(a)).append(',')
+                                .append(projectId(projectOf(a))).append(',')
+                                .append(withdrawn(a) ? "WITHDRAWAL" : "APPLICATION").append(',').append(status(a))
+                                .append(',').append(flatType(a)).append(NL);
+                    }
+                });
+    }
+
+    private int projectOf(int applicant) {
+        return random(S_PROJECT, applicant, projects);
+    }
+
+    private boolean withdrawn(int applicant) {
+        return random(S_WITHDRAW, applicant, 100) < 5;
+    }
+
+    /** Status of an applicant's application; withdrawals are pending or approved (SUCCESSFUL). */
+    private ApplicationStatus status(int applicant) {
+        int r = random(S_STATUS, applicant, 100);
+        if (withdrawn(applicant)) {
+            return r < 50 ? ApplicationStatus.PENDING : ApplicationStatus.SUCCESSFUL;
+        }
+        return r < 40 ? ApplicationStatus.PENDING
+                : r < 65 ? ApplicationStatus.SUCCESSFUL
+                        : r < 85 ? ApplicationStatus.UNSUCCESSFUL : ApplicationStatus.BOOKED;
+    }
+
+    private boolean booked(int applicant) {
+        return !withdrawn(applicant) && status(applicant) == ApplicationStatus.BOOKED;
+    }
+
+    /** Singles may only apply for 2-Room flats. */
+    private String flatType(int applicant) {
+        int user = managers + officers + applicant;
+        return married(user) && random(S_FLAT, applicant, 2) == 1 ? "THREEROOM" : "TWOROOM";
+    }
+
+    // ---- officer applications ----
+
+    private void writeOfficerApplications(Path file) throws IOException {
+        int perProject = APPROVED_PER_PROJECT + PENDING_PER_PROJECT + 1;
+        writeFile(file, "officerApplicationID,officerNRIC,projectID,status", projects, (sb, from, to, chunk) -> {
+            for (int p = from; p < to; p++) {
+                for (int j = 0; j < perProject; j++) {
+                    // The last officer of each project was rejected: the next one along.
+                    String status = j < APPROVED_PER_PROJECT ? "APPROVED"
+                            : j < APPROVED_PER_PROJECT + PENDING_PER_PROJECT ? "PENDING" : "REJECTED";
+                    sb.append(p * perProject + j + 1).append(',').append(officerNRIC(officerOf(p, j)))
+                            .append(',').append(projectId(p)).append(',').append(status).append(NL);
+                }
+            }
+        });
+    }
+
+    // ---- enquiries ----
+
+    private void writeEnquiries(Path file) throws IOException {
+        writeFile(file, "EnquiryID,EnquiryText,SubmittedByNRIC,ProjectID,Response,Timestamp", users,
+                (sb, from, to, chunk) -> {
+                    for (int e = from; e < to; e++) {
+                        int applicant = e % applicants;
+                        int answer = random(S_ANSWER, e, ANSWERS.length * 2);
+                        LocalDate day = openingDate(projectOf(applicant)).plusDays(random(S_HOUR + 100, e, 60));
+                        sb.append(e + 1).append(',')
+                                .append(CSVTokenizer.escape(QUESTIONS[random(S_QUESTION, e, QUESTIONS.length)]))
+                                .append(',').append(applicantNRIC(applicant)).append(',')
+                                .append(projectId(projectOf(applicant))).append(',')
+                                .append(answer < ANSWERS.length ? CSVTokenizer.escape(ANSWERS[answer]) : "")
+                                .append(',').append(day).append(' ');
+                        int minutes = random(S_HOUR, e, 24 * 60);
+                        appendTwoDigits(sb, minutes / 60).append(':');
+                        appendTwoDigits(sb, minutes % 60).append(":00").append(NL);
+                    }
+                });
+    }
+
+    private static StringBuilder appendTwoDigits(StringBuilder sb, int value) {
+        return sb.append(value < 10 ? "0" : "").append(value);
+    }
+
+    // ---- receipts ----
+
+    private void writeReceipts(Path file) throws IOException {
+        // Receipt IDs are consecutive over the booked applications, so each
+        // chunk needs the number of bookings in the chunks before it.
+        int chunks = chunkCount(applicants);
+        int[] bookedBefore = new int[chunks + 1];
+        int[] bookedIn = IntStream.range(0, chunks).parallel()
+                .map(c -> (int) IntStream.range(c * CHUNK_ROWS, Math.min(applicants, (c + 1) * CHUNK_ROWS))
+                        .filter(this::booked).count())
+                .toArray();
+        for (int c = 0; c < chunks; c++) {
+            bookedBefore[c + 1] = bookedBefore[c] + bookedIn[c];
+        }
+        writeFile(file, "receiptID,NRIC,applicantName,age,maritalStatus,flatType,projectID,projectName,"
+                + "neighborhood,applicationOpeningDate,applicationClosingDate,manager", applicants,
+                (sb, from, to, chunk) -> {
+                    int id = bookedBefore[chunk];
+                    for (int a = from; a < to; a++) {
+                        if (!booked(a)) {
+                            continue;
+                        }
+                        int user = managers + officers + a;
+                        int p = projectOf(a);
+                        sb.append(++id).append(',').append(nric(user)).append(',').append(name(user)).append(',')
+                                .append(age(user)).append(',').append(married(user) ? "MARRIED" : "SINGLE")
+                                .append(',').append(flatType(a)).append(',').append(projectId(p)).append(',')
+                                .append(projectName(p)).append(',').append(town(p)).append(',')
+                                .append(openingDate(p)).append(',').append(closingDate(p)).append(',')
+                                .append(name(p % managers)).append(NL);
+                    }
+                });
+    }
+
+    // ---- output ----
+
+    /** Formats the rows {@code [from, to)} of one chunk. */
+    @FunctionalInterface
+    private interface ChunkFormatter {
+        void format(StringBuilder sb, int from, int to, int chunk);
+    }
+
+    private static int chunkCount(int rows) {
+        return (rows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+    }
+
+    /**
+     * Writes a header and {@code rows} rows. A window of chunks is formatted in
+     * parallel, then written in order; only one window is held in memory.
+     */
+    private static void writeFile(Path file, String header, int rows, ChunkFormatter formatter) throws IOException {
+        int chunks = chunkCount(rows);
+        int window = Math.max(1, Runtime.getRuntime().availableProcessors() * 2);
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, ByteBuffer.wrap((header + NL).getBytes(StandardCharsets.UTF_8)));
+            for (int first = 0; first < chunks; first += window) {
+                ByteBuffer[] buffers = IntStream.range(first, Math.min(chunks, first + window)).parallel()
+                        .mapToObj(c -> {
+                            StringBuilder sb = new StringBuilder(CHUNK_ROWS * 96);
+                            formatter.format(sb, c * CHUNK_ROWS, Math.min(rows, (c + 1) * CHUNK_ROWS), c);
+                            return ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+                        })
+                        .toArray(ByteBuffer[]::new);
+                for (ByteBuffer buffer : buffers) {
+                    writeFully(out, buffer);
+                }
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    // ---- randomness ----
+
+    /**
+     * A uniform value in {@code [0, bound)} that depends only on the seed, the
+     * attribute stream and the row, so rows can be generated in any order.
+     */
+    private int random(int stream, int row, int bound) {
+        long z = seed + stream * 0x9E3779B97F4A7C15L + row * 0xBF58476D1CE4E5B9L;
+        // SplitMix64 finalizer
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) Math.floorMod(z, (long) bound);
+    }
+}